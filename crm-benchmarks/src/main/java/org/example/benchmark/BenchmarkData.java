@@ -0,0 +1,134 @@
+package org.example.benchmark;
+
+import org.example.CrmApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the CRM application against a private in-memory (or file) database and seeds it with synthetic rows.
+ */
+final class BenchmarkData {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    static final String[] OPPORTUNITY_STATUSES = {"New", "Qualified", "Proposal", "Negotiation", "Closed Won", "Closed Lost"};
+    static final String[] ACTIVITY_STATUSES = {"Planned", "Completed", "Cancelled"};
+
+    private BenchmarkData() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(CrmApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments(databaseName));
+    }
+
+    /**
+     * Starts the application on the file database of the {@code persistent} profile in {@code directory}; the
+     * data is kept between starts.
+     */
+    static ConfigurableApplicationContext startPersistent(Path directory) {
+        return new SpringApplicationBuilder(CrmApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("persistent")
+                .run(arguments(null, "--crm.storage.directory=" + directory));
+    }
+
+    /**
+     * Starts the application with its web server on a random port ({@code local.server.port}).
+     */
+    static ConfigurableApplicationContext startServer(String databaseName, String... profiles) {
+        return new SpringApplicationBuilder(CrmApplication.class)
+                .profiles(profiles)
+                .run(arguments(databaseName, "--server.port=0"));
+    }
+
+    // Passed as command-line arguments so they override application.properties (builder properties do not).
+    // A null database name keeps the data source of the active profiles
+    private static String[] arguments(String databaseName, String... extra) {
+        List<String> arguments = new ArrayList<>();
+        if (databaseName != null) {
+            arguments.add("--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        }
+        arguments.addAll(List.of(
+                "--spring.jpa.show-sql=false",
+                // Seeded activities lie mostly in the past; overdue marking would rewrite them mid-measurement
+                "--crm.reminders.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.example=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.orm.jdbc.bind=WARN"));
+        arguments.addAll(List.of(extra));
+        return arguments.toArray(new String[0]);
+    }
+
+    /**
+     * Seeds {@code rows} customers, contacts, opportunities and activities. Every contact,
+     * opportunity and activity references the customer with the same id.
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp createdAt = Timestamp.valueOf(now);
+
+        insert(jdbcTemplate, rows,
+                "INSERT INTO customers (id, company_name, industry, website, status, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                i -> new Object[]{i, "Company " + i, "Industry " + (i % 20), "http://www.company" + i + ".com",
+                        i % 3 == 0 ? "Prospect" : "Active", createdAt, createdAt});
+
+        insert(jdbcTemplate, rows,
+                "INSERT INTO contacts (id, first_name, last_name, email, is_primary, created_at, updated_at, customer_id) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                i -> new Object[]{i, "First" + i, "Last" + i, "contact" + i + "@example.com", true,
+                        createdAt, createdAt, i});
+
+        LocalDate today = LocalDate.now();
+        insert(jdbcTemplate, rows,
+                "INSERT INTO opportunities (id, name, status, stage, amount, closing_date, probability, created_at, updated_at, customer_id) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                i -> new Object[]{i, "Opportunity " + i, OPPORTUNITY_STATUSES[i % OPPORTUNITY_STATUSES.length],
+                        "Stage " + (i % 5), 1000 + (i % 100) * 250, Date.valueOf(today.plusDays(i % 365 - 180)),
+                        (i * 7) % 100, createdAt, createdAt, i});
+
+        insert(jdbcTemplate, rows,
+                "INSERT INTO activities (id, type, subject, scheduled_date, status, created_at, updated_at, customer_id, contact_id, opportunity_id) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                i -> new Object[]{i, i % 2 == 0 ? "Call" : "Meeting", "Activity " + i,
+                        Timestamp.valueOf(now.plusHours(i % 2000 - 1000)), ACTIVITY_STATUSES[i % ACTIVITY_STATUSES.length],
+                        createdAt, createdAt, i, i, i});
+
+        // Move the id sequences past the seeded rows (each call hands out the block ending at its value)
+        for (String table : new String[]{"customers", "contacts", "opportunities", "activities"}) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + (rows + 50));
+        }
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, int rows, String sql, RowFactory rowFactory) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= rows; i++) {
+            batch.add(rowFactory.row(i));
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowFactory {
+        Object[] row(int i);
+    }
+}
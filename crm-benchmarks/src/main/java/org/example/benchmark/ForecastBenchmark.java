@@ -0,0 +1,60 @@
+package org.example.benchmark;
+
+import org.example.dto.Forecast;
+import org.example.service.ForecastService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of a full revenue forecast (load, expected values and Monte Carlo intervals); two thirds of
+ * the seeded opportunities are open. Scales with the number of cores ({@code crm.forecast.parallelism}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ForecastBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"1000", "10000"})
+    public int simulations;
+
+    private ConfigurableApplicationContext context;
+    private ForecastService forecastService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start("forecast-benchmark-" + rows);
+        BenchmarkData.seed(context.getBean(JdbcTemplate.class), rows);
+        forecastService = context.getBean(ForecastService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Forecast forecast() {
+        return forecastService.forecast(null, null, simulations, 0.9, 20, 42L);
+    }
+}
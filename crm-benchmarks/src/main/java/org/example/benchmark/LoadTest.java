@@ -0,0 +1,153 @@
+package org.example.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test against a running application, for comparing request execution
+ * modes (e.g. the default platform-thread Tomcat pool against the {@code virtual} profile).
+ * <p>
+ * {@code clients} threads each send one request at a time for {@code seconds}, after a warm-up
+ * of {@code warmup} seconds, over a mix of the per-customer read endpoints. Run with
+ * <pre>
+ *   mvn -B -f crm-benchmarks/pom.xml package exec:exec@load-test -Dload.args="profile=virtual clients=1000"
+ * </pre>
+ * Options (key=value): {@code profile} (none), {@code clients} (400), {@code seconds} (30),
+ * {@code warmup} (10), {@code rows} (10000).
+ */
+public final class LoadTest {
+
+    private static final String[] ENDPOINTS = {
+            "/api/customers/%d",
+            "/api/contacts/customer/%d",
+            "/api/opportunities/customer/%d",
+            "/api/activities/customer/%d",
+            "/api/opportunities/%d"
+    };
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            options.put(arg.substring(0, split), arg.substring(split + 1));
+        }
+        String profile = options.getOrDefault("profile", "");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "400"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int rows = Integer.parseInt(options.getOrDefault("rows", "10000"));
+
+        ConfigurableApplicationContext context = profile.isEmpty()
+                ? BenchmarkData.startServer("load-test")
+                : BenchmarkData.startServer("load-test", profile);
+        try {
+            BenchmarkData.seed(context.getBean(JdbcTemplate.class), rows);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            run(client, baseUrl, rows, clients, warmup);
+            ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+            Result result = run(client, baseUrl, rows, clients, seconds);
+
+            System.out.printf("mode=%s runtime=%s clients=%d seconds=%d%n",
+                    profile.isEmpty() ? "platform" : profile, Runtime.version(), clients, seconds);
+            System.out.printf("requests=%d errors=%d throughput=%.0f req/s%n",
+                    result.requests, result.errors, result.requests / (double) seconds);
+            System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+                    result.percentile(0.50), result.percentile(0.90), result.percentile(0.99), result.percentile(1.0));
+            System.out.printf("peak live threads=%d%n", ManagementFactory.getThreadMXBean().getPeakThreadCount());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result run(HttpClient client, String baseUrl, int rows, int clients, int seconds)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        AtomicLong errors = new AtomicLong();
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            int slot = c;
+            pool.execute(() -> {
+                long[] own = new long[1024];
+                int count = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    String path = String.format(ENDPOINTS[random.nextInt(ENDPOINTS.length)], 1 + random.nextInt(rows));
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .timeout(Duration.ofSeconds(60))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == own.length) {
+                        own = Arrays.copyOf(own, count * 2);
+                    }
+                    own[count++] = System.nanoTime() - start;
+                }
+                latencies[slot] = own;
+                counts[slot] = count;
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(seconds + 120L, TimeUnit.SECONDS);
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        return new Result(all, errors.get());
+    }
+
+    private static final class Result {
+
+        private final long[] sortedNanos;
+        private final int requests;
+        private final long errors;
+
+        private Result(long[] sortedNanos, long errors) {
+            this.sortedNanos = sortedNanos;
+            this.requests = sortedNanos.length;
+            this.errors = errors;
+        }
+
+        private double percentile(double p) {
+            if (requests == 0) {
+                return 0;
+            }
+            int index = Math.min(requests - 1, (int) Math.ceil(p * requests) - 1);
+            return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
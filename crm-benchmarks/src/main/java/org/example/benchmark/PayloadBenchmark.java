@@ -0,0 +1,111 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.example.dto.ContactDto;
+import org.example.dto.CustomerRef;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The unpaged {@code GET /api/contacts} response for a large table: time to write it, streamed as one array
+ * the way the endpoint does, by format (JSON or CBOR) and compression (none or gzip, as the server applies
+ * it). The payload size of each combination is printed when the trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"none", "gzip"})
+    public String compression;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter writer;
+    private List<ContactDto> contacts;
+
+    @Setup
+    public void setUp() throws IOException {
+        // The application's settings: ISO dates and no null properties
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("cbor".equals(format)) {
+            builder.factory(new CBORFactory());
+        }
+        objectMapper = builder.build();
+        writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        LocalDateTime now = LocalDateTime.now();
+        contacts = new ArrayList<>(rows);
+        for (long i = 1; i <= rows; i++) {
+            CustomerRef customer = new CustomerRef(i % 1000 + 1, 3, "Customer " + (i % 1000 + 1));
+            // Title, mobile and notes are left empty, as on most imported contacts
+            contacts.add(new ContactDto(i, 1, "First" + i, "Last" + i, null, "contact" + i + "@example.com",
+                    "+1 555 0100", null, i % 5 == 0, null, now, now, customer));
+        }
+
+        System.out.printf("%nPayload (%s, %s): %,d bytes%n", format, compression, writeContacts());
+    }
+
+    @Benchmark
+    public long writeContacts() throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        OutputStream outputStream = "gzip".equals(compression) ? new GZIPOutputStream(counter, 8192) : counter;
+        // As ListResponses.array writes it
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            for (ContactDto contact : contacts) {
+                writer.writeValue(generator, contact);
+            }
+            generator.writeEndArray();
+        }
+        return counter.count;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
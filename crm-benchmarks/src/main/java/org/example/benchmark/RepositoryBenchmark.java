@@ -0,0 +1,110 @@
+package org.example.benchmark;
+
+import org.example.dto.ActivityCalendar;
+import org.example.repository.ContactRepository;
+import org.example.repository.CustomerRepository;
+import org.example.repository.OpportunityRepository;
+import org.example.service.ActivityService;
+import org.example.service.PipelineSummaryService;
+import org.example.service.UpcomingActivityIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the hot repository and service read paths at different table sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class RepositoryBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ContactRepository contactRepository;
+    private CustomerRepository customerRepository;
+    private OpportunityRepository opportunityRepository;
+    private ActivityService activityService;
+    private PipelineSummaryService pipelineSummaryService;
+
+    private String contactName;
+    private String companyName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start("repository-benchmark-" + rows);
+        BenchmarkData.seed(context.getBean(JdbcTemplate.class), rows);
+
+        contactRepository = context.getBean(ContactRepository.class);
+        customerRepository = context.getBean(CustomerRepository.class);
+        opportunityRepository = context.getBean(OpportunityRepository.class);
+        activityService = context.getBean(ActivityService.class);
+        pipelineSummaryService = context.getBean(PipelineSummaryService.class);
+        // Seeding bypasses Hibernate, so the pipeline summary starts out empty
+        pipelineSummaryService.rebuild();
+        // Seeded with plain SQL, which the upcoming-activity index only picks up on reload
+        context.getBean(UpcomingActivityIndex.class).reload();
+
+        // Search terms that match a handful of rows regardless of the table size
+        contactName = "last" + (rows / 2 + 7);
+        companyName = "company " + (rows / 3 + 11);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<?> contactFindByName() {
+        return contactRepository.findByName(contactName);
+    }
+
+    @Benchmark
+    public List<?> customerFindByCompanyName() {
+        return customerRepository.findByCompanyNameContainingIgnoreCase(companyName);
+    }
+
+    @Benchmark
+    public BigDecimal opportunityTotalAmountByStatus() {
+        return opportunityRepository.calculateTotalAmountByStatus("Closed Won");
+    }
+
+    @Benchmark
+    public BigDecimal pipelineTotalAmountByStatus() {
+        return pipelineSummaryService.findTotalAmountByStatus("Closed Won");
+    }
+
+    @Benchmark
+    public List<?> activityFindUpcoming() {
+        return activityService.findUpcomingActivities(null, 20);
+    }
+
+    @Benchmark
+    public ActivityCalendar activityCalendarWeek() {
+        LocalDate from = LocalDate.now();
+        return activityService.findCalendar(from, from.plusDays(30), null, "week", null, 100);
+    }
+}
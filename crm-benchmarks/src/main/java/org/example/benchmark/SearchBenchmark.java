@@ -0,0 +1,82 @@
+package org.example.benchmark;
+
+import org.example.dto.SearchHit;
+import org.example.service.SearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the full-text search index, to compare with the LIKE scans in {@link RepositoryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class SearchBenchmark {
+
+    private static final int LIMIT = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private SearchService searchService;
+
+    private String exactName;
+    private String typedPrefix;
+    private String misspelledName;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkData.start("search-benchmark-" + rows);
+        BenchmarkData.seed(context.getBean(JdbcTemplate.class), rows);
+
+        // Rows are seeded with JDBC, so index them explicitly
+        searchService = context.getBean(SearchService.class);
+        searchService.rebuild();
+
+        int id = rows / 2 + 7;
+        exactName = "first" + id + " last" + id;
+        typedPrefix = "last" + id / 10;
+        misspelledName = "lsat" + id;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<SearchHit> exactName() throws IOException {
+        return searchService.search(exactName, null, LIMIT);
+    }
+
+    @Benchmark
+    public List<SearchHit> typedPrefix() throws IOException {
+        return searchService.search(typedPrefix, null, LIMIT);
+    }
+
+    @Benchmark
+    public List<SearchHit> misspelledName() throws IOException {
+        return searchService.search(misspelledName, null, LIMIT);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.ContactDto;
+import org.example.dto.CustomerDto;
+import org.example.dto.OpportunityDto;
+import org.example.model.Contact;
+import org.example.model.Customer;
+import org.example.model.Opportunity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Jackson serialization cost of a customer with populated contact and opportunity collections,
+ * both as the entity graph and as the read projections the API returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int collectionSize;
+
+    private ObjectMapper objectMapper;
+    private Customer customer;
+    private CustomerDetail customerDetail;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        LocalDateTime now = LocalDateTime.now();
+        customer = new Customer();
+        customer.setId(1L);
+        customer.setCompanyName("Acme Corporation");
+        customer.setIndustry("Technology");
+        customer.setWebsite("http://www.acme.com");
+        customer.setStatus("Active");
+        customer.setCreatedAt(now);
+        customer.setUpdatedAt(now);
+
+        for (long i = 1; i <= collectionSize; i++) {
+            Contact contact = new Contact();
+            contact.setId(i);
+            contact.setFirstName("First" + i);
+            contact.setLastName("Last" + i);
+            contact.setEmail("contact" + i + "@acme.com");
+            contact.setPhone("+1 555 0100");
+            contact.setCreatedAt(now);
+            contact.setUpdatedAt(now);
+            customer.addContact(contact);
+
+            Opportunity opportunity = new Opportunity();
+            opportunity.setId(i);
+            opportunity.setName("Opportunity " + i);
+            opportunity.setStatus("Qualified");
+            opportunity.setStage("Discovery");
+            opportunity.setAmount(BigDecimal.valueOf(1000 + i));
+            opportunity.setProbability(BigDecimal.valueOf(40));
+            opportunity.setClosingDate(LocalDate.now().plusDays(i));
+            opportunity.setCreatedAt(now);
+            opportunity.setUpdatedAt(now);
+            customer.addOpportunity(opportunity);
+        }
+
+        customerDetail = new CustomerDetail(CustomerDto.from(customer),
+                customer.getContacts().stream().map(ContactDto::from).collect(Collectors.toList()),
+                customer.getOpportunities().stream().map(OpportunityDto::from).collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public byte[] customerEntity() throws Exception {
+        return objectMapper.writeValueAsBytes(customer);
+    }
+
+    @Benchmark
+    public byte[] customerReadModel() throws Exception {
+        return objectMapper.writeValueAsBytes(customerDetail);
+    }
+
+    /**
+     * What a customer detail page downloads: the customer plus its contacts and opportunities.
+     */
+    public static class CustomerDetail {
+        public final CustomerDto customer;
+        public final List<ContactDto> contacts;
+        public final List<OpportunityDto> opportunities;
+
+        CustomerDetail(CustomerDto customer, List<ContactDto> contacts, List<OpportunityDto> opportunities) {
+            this.customer = customer;
+            this.contacts = contacts;
+            this.opportunities = opportunities;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.benchmark;
+
+import org.example.CrmApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Time to first request: starts the application in a new JVM and measures until {@code GET /api/products}
+ * answers, which includes the JVM, the context refresh and the first query. Modes:
+ * <ul>
+ *   <li>{@code default}: the development settings (migrations, mapping and query index checks);</li>
+ *   <li>{@code prod}: the {@code prod} profile, which only validates the schema;</li>
+ *   <li>{@code prod-cds}: the same with a class data sharing archive, created by a training run first
+ *   (as {@code mvn -Pcds package} does for the application).</li>
+ * </ul>
+ * Each start is a fresh JVM, so JMH's own warmup does not apply; the warmup starts only settle the disk cache.
+ */
+@Fork(1)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class StartupBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Application {
+
+        @Param({"default", "prod", "prod-cds"})
+        public String mode;
+
+        private final HttpClient client = HttpClient.newHttpClient();
+        private String classPath;
+        private Path archiveDirectory;
+        private Process process;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException, InterruptedException {
+            // CDS only accepts jars on the class path; the application and its dependencies are all jars
+            classPath = Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                    .filter(entry -> entry.endsWith(".jar"))
+                    .collect(Collectors.joining(File.pathSeparator));
+            if ("prod-cds".equals(mode)) {
+                archiveDirectory = Files.createTempDirectory("crm-startup-benchmark");
+                List<String> training = command(
+                        "-XX:ArchiveClassesAtExit=" + archive(), "-Xlog:cds=off", "-Dspring.context.exit=onRefresh");
+                training.add("--server.port=0");
+                Process run = new ProcessBuilder(training)
+                        .redirectErrorStream(true)
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .start();
+                if (run.waitFor() != 0 || !Files.exists(archive())) {
+                    throw new IllegalStateException("The CDS training run failed");
+                }
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void stop() throws InterruptedException {
+            if (process != null) {
+                process.destroy();
+                process.waitFor();
+                process = null;
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            if (archiveDirectory != null) {
+                FileSystemUtils.deleteRecursively(archiveDirectory);
+            }
+        }
+
+        private Path archive() {
+            return archiveDirectory.resolve("crm.jsa");
+        }
+
+        private List<String> command(String... jvmOptions) {
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(List.of(jvmOptions));
+            if (!"default".equals(mode)) {
+                command.add("-Dspring.profiles.active=prod");
+            }
+            command.addAll(List.of("-cp", classPath, CrmApplication.class.getName(),
+                    "--crm.reminders.enabled=false", "--logging.level.root=WARN"));
+            return command;
+        }
+    }
+
+    @Benchmark
+    public int firstRequest(Application application) throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = "prod-cds".equals(application.mode)
+                ? application.command("-XX:SharedArchiveFile=" + application.archive())
+                : application.command();
+        command.add("--server.port=" + port);
+        application.process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products")).build();
+        while (true) {
+            try {
+                HttpResponse<Void> response = application.client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            if (!application.process.isAlive()) {
+                throw new IllegalStateException("The application exited with " + application.process.exitValue());
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.benchmark;
+
+import org.example.model.Customer;
+import org.example.repository.CustomerRepository;
+import org.example.service.CustomerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory database against the file database of the {@code persistent} profile: single-row insert
+ * throughput, and the time to restart the application (shut down, start, first query). The file database
+ * opens its seeded rows again; the in-memory one starts empty, because its data is lost. Most of the file
+ * restart is the search index, which is rebuilt from the rows on every start.
+ */
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class StorageBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Database {
+
+        @Param({"memory", "file"})
+        public String storage;
+
+        @Param({"100000"})
+        public int rows;
+
+        private Path directory;
+        private int starts;
+        private ConfigurableApplicationContext context;
+        private CustomerService customerService;
+        private int inserted;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("crm-storage-benchmark");
+            start();
+            BenchmarkData.seed(context.getBean(JdbcTemplate.class), rows);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            context.close();
+            FileSystemUtils.deleteRecursively(directory);
+        }
+
+        private void start() {
+            // Every in-memory start gets a new database, as after a real restart
+            context = "file".equals(storage)
+                    ? BenchmarkData.startPersistent(directory)
+                    : BenchmarkData.start("storage-benchmark-" + starts++);
+            customerService = context.getBean(CustomerService.class);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public Customer insertCustomer(Database database) {
+        Customer customer = new Customer();
+        customer.setCompanyName("Benchmark " + database.inserted++);
+        customer.setStatus("Active");
+        return database.customerService.saveCustomer(customer);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public long restart(Database database) {
+        database.context.close();
+        database.start();
+        return database.context.getBean(CustomerRepository.class).count();
+    }
+}
@@ -0,0 +1,41 @@
+import React from 'react';
+import { Button } from 'react-bootstrap';
+
+// Previous/next through search results; total is the X-Total-Count of the last response
+const SearchPager = ({ page, size, total, onPageChange }) => {
+    if (total <= size) {
+        return null;
+    }
+
+    const first = page * size + 1;
+    const last = Math.min((page + 1) * size, total);
+
+    return (
+        <div className="d-flex justify-content-between align-items-center mt-3">
+            <span className="text-muted">
+                {first}-{last} of {total}
+            </span>
+            <div>
+                <Button
+                    variant="outline-secondary"
+                    size="sm"
+                    className="me-2"
+                    disabled={page === 0}
+                    onClick={() => onPageChange(page - 1)}
+                >
+                    Previous
+                </Button>
+                <Button
+                    variant="outline-secondary"
+                    size="sm"
+                    disabled={last >= total}
+                    onClick={() => onPageChange(page + 1)}
+                >
+                    Next
+                </Button>
+            </div>
+        </div>
+    );
+};
+
+export default SearchPager;
@@ -12,7 +12,7 @@ import {
     FaBoxOpen,
     FaDollarSign
 } from 'react-icons/fa';
-import { customerService, productService, opportunityService, activityService, contactService } from '../services/api';
+import { activityService, dashboardService } from '../services/api';
 
 // Components
 import StatCard from '../components/dashboards/StatCard';
@@ -43,61 +43,35 @@ const Dashboard = () => {
             try {
                 setLoading(true);
 
-                // Fetch real data from API endpoints
-                const [customersResponse, contactsResponse, productsResponse,
-                    opportunitiesResponse, activitiesResponse] = await Promise.all([
-                    customerService.getAllCustomers(),
-                    contactService.getAllContacts(),
-                    productService.getAllProducts(),
-                    opportunityService.getAllOpportunities(),
-                    activityService.getAllActivities()
+                // Fetch pre-aggregated figures plus the short activity lists
+                const [summaryResponse, upcomingActivitiesResponse, recentActivitiesResponse] = await Promise.all([
+                    dashboardService.getSummary(),
+                    activityService.getUpcomingActivities(),
+                    activityService.getRecentActivities()
                 ]);
+                const summary = summaryResponse.data;
+                const opportunityTotals = summary.opportunities;
 
-                // Get upcoming activities
-                const upcomingActivitiesResponse = await activityService.getUpcomingActivities();
-
-                // Get recent activities
-                const recentActivitiesResponse = await activityService.getRecentActivities();
-
-                // Calculate open opportunities and closed won opportunities
-                const openOpportunities = opportunitiesResponse.data.filter(
-                    opp => opp.status !== 'Closed Won' && opp.status !== 'Closed Lost'
-                );
-                const wonOpportunities = opportunitiesResponse.data.filter(
-                    opp => opp.status === 'Closed Won'
-                );
-                const lostOpportunities = opportunitiesResponse.data.filter(
-                    opp => opp.status === 'Closed Lost'
-                );
-
-                // Calculate pipeline value (sum of open opportunity amounts)
-                const openValue = openOpportunities.reduce(
-                    (sum, opp) => sum + (opp.amount || 0), 0
-                );
-                const wonValue = wonOpportunities.reduce(
-                    (sum, opp) => sum + (opp.amount || 0), 0
-                );
-
-                // Update stats with real counts
+                // Update stats with server-side counts
                 setStats({
-                    customers: customersResponse.data.length,
-                    contacts: contactsResponse.data.length,
-                    opportunities: opportunitiesResponse.data.length,
-                    activities: activitiesResponse.data.length,
-                    products: productsResponse.data.length
+                    customers: summary.counts.customers,
+                    contacts: summary.counts.contacts,
+                    opportunities: summary.counts.opportunities,
+                    activities: summary.counts.activities,
+                    products: summary.counts.products
                 });
 
                 // Update opportunity summary
                 setOpportunitySummary({
                     counts: {
-                        open: openOpportunities.length,
-                        won: wonOpportunities.length,
-                        lost: lostOpportunities.length,
-                        total: opportunitiesResponse.data.length
+                        open: opportunityTotals.openCount,
+                        won: opportunityTotals.wonCount,
+                        lost: opportunityTotals.lostCount,
+                        total: summary.counts.opportunities
                     },
                     values: {
-                        open: openValue,
-                        won: wonValue
+                        open: opportunityTotals.openValue || 0,
+                        won: opportunityTotals.wonValue || 0
                     }
                 });
 
@@ -107,21 +81,11 @@ const Dashboard = () => {
                     upcoming: upcomingActivitiesResponse.data || []
                 });
 
-                // Create sales data from opportunities (grouped by month)
-                const salesByMonth = opportunitiesResponse.data
-                    .filter(opp => opp.status === 'Closed Won')
-                    .reduce((acc, opp) => {
-                        if (!opp.closingDate) return acc;
-                        const date = new Date(opp.closingDate);
-                        const month = date.toLocaleString('default', { month: 'short' });
-                        if (!acc[month]) acc[month] = 0;
-                        acc[month] += opp.amount || 0;
-                        return acc;
-                    }, {});
-
-                const salesDataArray = Object.entries(salesByMonth).map(
-                    ([name, value]) => ({ name, value })
-                );
+                // Monthly sales are already bucketed by the server
+                const salesDataArray = (summary.monthlyWonRevenue || []).map(({ year, month, total }) => ({
+                    name: `${new Date(year, month - 1).toLocaleString('default', { month: 'short' })} ${year}`,
+                    value: total || 0
+                }));
 
                 setSalesData(salesDataArray.length > 0 ? salesDataArray : [
                     { name: 'Jan', value: 0 },
@@ -2,13 +2,16 @@ import React, { useState, useEffect } from 'react';
 import { Container, Row, Col, Card, Table, Button, Form, InputGroup, Badge, Spinner } from 'react-bootstrap';
 import { Link } from 'react-router-dom';
 import { FaPlus, FaSearch, FaEdit, FaTrash } from 'react-icons/fa';
-import { contactService } from '../../services/api';
+import { contactService, totalCount, SEARCH_PAGE_SIZE } from '../../services/api';
 import DeleteConfirmation from '../../components/common/DeleteConfirmation';
+import SearchPager from '../../components/common/SearchPager';
 
 const ContactList = () => {
     const [contacts, setContacts] = useState([]);
     const [loading, setLoading] = useState(true);
     const [searchTerm, setSearchTerm] = useState('');
+    const [page, setPage] = useState(0);
+    const [total, setTotal] = useState(0);
     const [showDeleteModal, setShowDeleteModal] = useState(false);
     const [contactToDelete, setContactToDelete] = useState(null);
 
@@ -17,15 +20,10 @@ const ContactList = () => {
         const fetchContacts = async () => {
             try {
                 setLoading(true);
-                let response;
-
-                if (searchTerm) {
-                    response = await contactService.searchContacts(searchTerm);
-                } else {
-                    response = await contactService.getAllContacts();
-                }
+                const response = await contactService.searchContacts({ name: searchTerm }, page);
 
                 setContacts(response.data);
+                setTotal(totalCount(response));
             } catch (error) {
                 console.error('Error fetching contacts', error);
             } finally {
@@ -34,7 +32,7 @@ const ContactList = () => {
         };
 
         fetchContacts();
-    }, [searchTerm]);
+    }, [searchTerm, page]);
 
     // Handle delete
     const handleDelete = async () => {
@@ -43,6 +41,7 @@ const ContactList = () => {
         try {
             await contactService.deleteContact(contactToDelete.id);
             setContacts(contacts.filter(contact => contact.id !== contactToDelete.id));
+            setTotal(total - 1);
             setShowDeleteModal(false);
             setContactToDelete(null);
         } catch (error) {
@@ -50,6 +49,12 @@ const ContactList = () => {
         }
     };
 
+    // A new search starts again from the first page
+    const changeSearchTerm = (term) => {
+        setSearchTerm(term);
+        setPage(0);
+    };
+
     return (
         <Container fluid>
             <div className="page-header">
@@ -70,10 +75,10 @@ const ContactList = () => {
                                 <Form.Control
                                     placeholder="Search contacts by name..."
                                     value={searchTerm}
-                                    onChange={(e) => setSearchTerm(e.target.value)}
+                                    onChange={(e) => changeSearchTerm(e.target.value)}
                                 />
                                 {searchTerm && (
-                                    <Button variant="outline-secondary" onClick={() => setSearchTerm('')}>
+                                    <Button variant="outline-secondary" onClick={() => changeSearchTerm('')}>
                                         Clear
                                     </Button>
                                 )}
@@ -163,6 +168,7 @@ const ContactList = () => {
                             </tbody>
                         </Table>
                     )}
+                    <SearchPager page={page} size={SEARCH_PAGE_SIZE} total={total} onPageChange={setPage} />
                 </Card.Body>
             </Card>
 
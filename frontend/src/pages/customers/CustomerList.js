@@ -2,8 +2,9 @@ import React, { useState, useEffect } from 'react';
 import { Container, Row, Col, Card, Table, Button, Form, InputGroup, Badge, Spinner } from 'react-bootstrap';
 import { Link } from 'react-router-dom';
 import { FaPlus, FaSearch, FaEdit, FaTrash } from 'react-icons/fa';
-import { customerService } from '../../services/api';
+import { customerService, totalCount, SEARCH_PAGE_SIZE } from '../../services/api';
 import DeleteConfirmation from '../../components/common/DeleteConfirmation';
+import SearchPager from '../../components/common/SearchPager';
 
 const CustomerList = () => {
     const [customers, setCustomers] = useState([]);
@@ -11,6 +12,8 @@ const CustomerList = () => {
     const [searchTerm, setSearchTerm] = useState('');
     const [filterStatus, setFilterStatus] = useState('');
     const [filterIndustry, setFilterIndustry] = useState('');
+    const [page, setPage] = useState(0);
+    const [total, setTotal] = useState(0);
     const [showDeleteModal, setShowDeleteModal] = useState(false);
     const [customerToDelete, setCustomerToDelete] = useState(null);
     const [error, setError] = useState(null);
@@ -21,30 +24,25 @@ const CustomerList = () => {
             try {
                 setLoading(true);
                 setError(null);
-                let response;
-
-                if (searchTerm) {
-                    response = await customerService.searchCustomers({ name: searchTerm });
-                } else if (filterStatus) {
-                    response = await customerService.searchCustomers({ status: filterStatus });
-                } else if (filterIndustry) {
-                    response = await customerService.searchCustomers({ industry: filterIndustry });
-                } else {
-                    response = await customerService.getAllCustomers();
-                }
+
+                // All filters at once, one page at a time
+                const response = await customerService.searchCustomers(
+                    { name: searchTerm, status: filterStatus, industry: filterIndustry }, page);
 
                 setCustomers(response.data);
+                setTotal(totalCount(response));
             } catch (error) {
                 console.error('Error fetching customers', error);
                 setError('Failed to load customer data. Please try again.');
                 setCustomers([]);
+                setTotal(0);
             } finally {
                 setLoading(false);
             }
         };
 
         fetchCustomers();
-    }, [searchTerm, filterStatus, filterIndustry]);
+    }, [searchTerm, filterStatus, filterIndustry, page]);
 
     // Handle delete
     const handleDelete = async () => {
@@ -53,6 +51,7 @@ const CustomerList = () => {
         try {
             await customerService.deleteCustomer(customerToDelete.id);
             setCustomers(customers.filter(customer => customer.id !== customerToDelete.id));
+            setTotal(total - 1);
             setShowDeleteModal(false);
             setCustomerToDelete(null);
         } catch (error) {
@@ -61,11 +60,18 @@ const CustomerList = () => {
         }
     };
 
+    // A filter change starts again from the first page
+    const changeFilter = (setFilter, value) => {
+        setFilter(value);
+        setPage(0);
+    };
+
     // Reset filters
     const resetFilters = () => {
         setSearchTerm('');
         setFilterStatus('');
         setFilterIndustry('');
+        setPage(0);
     };
 
     // Derived values from actual data
@@ -92,7 +98,7 @@ const CustomerList = () => {
                                 <Form.Control
                                     placeholder="Search customers..."
                                     value={searchTerm}
-                                    onChange={(e) => setSearchTerm(e.target.value)}
+                                    onChange={(e) => changeFilter(setSearchTerm, e.target.value)}
                                 />
                             </InputGroup>
                         </Col>
@@ -100,7 +106,7 @@ const CustomerList = () => {
                             <Form.Group className="mb-3">
                                 <Form.Select
                                     value={filterStatus}
-                                    onChange={(e) => setFilterStatus(e.target.value)}
+                                    onChange={(e) => changeFilter(setFilterStatus, e.target.value)}
                                 >
                                     <option value="">All Statuses</option>
                                     {uniqueStatuses.map(status => (
@@ -113,7 +119,7 @@ const CustomerList = () => {
                             <Form.Group className="mb-3">
                                 <Form.Select
                                     value={filterIndustry}
-                                    onChange={(e) => setFilterIndustry(e.target.value)}
+                                    onChange={(e) => changeFilter(setFilterIndustry, e.target.value)}
                                 >
                                     <option value="">All Industries</option>
                                     {uniqueIndustries.map(industry => (
@@ -191,7 +197,7 @@ const CustomerList = () => {
                                                 </a>
                                             ) : '-'}
                                         </td>
-                                        <td>{customer.contacts?.length || 0}</td>
+                                        <td>{customer.contactCount || 0}</td>
                                         <td>
                                             <Button
                                                 as={Link}
@@ -219,6 +225,7 @@ const CustomerList = () => {
                             </tbody>
                         </Table>
                     )}
+                    <SearchPager page={page} size={SEARCH_PAGE_SIZE} total={total} onPageChange={setPage} />
                 </Card.Body>
             </Card>
 
@@ -2,8 +2,9 @@ import React, { useState, useEffect } from 'react';
 import { Container, Row, Col, Card, Table, Button, Form, InputGroup, Badge, Spinner } from 'react-bootstrap';
 import { Link } from 'react-router-dom';
 import { FaPlus, FaSearch, FaEdit, FaTrash, FaFilter } from 'react-icons/fa';
-import { productService } from '../../services/api';
+import { productService, totalCount, SEARCH_PAGE_SIZE } from '../../services/api';
 import DeleteConfirmation from '../../components/common/DeleteConfirmation';
+import SearchPager from '../../components/common/SearchPager';
 
 const ProductList = () => {
     const [products, setProducts] = useState([]);
@@ -15,29 +16,26 @@ const ProductList = () => {
     const [productToDelete, setProductToDelete] = useState(null);
     const [priceRange, setPriceRange] = useState({ min: '', max: '' });
     const [showFilters, setShowFilters] = useState(false);
+    const [page, setPage] = useState(0);
+    const [total, setTotal] = useState(0);
 
     // Load products
     useEffect(() => {
         const fetchProducts = async () => {
             try {
                 setLoading(true);
-                let response;
 
-                if (searchTerm) {
-                    response = await productService.searchProductsByName(searchTerm);
-                } else if (filterCategory) {
-                    response = await productService.getProductsByCategory(filterCategory);
-                } else if (filterStatus) {
-                    response = await productService.getProductsByStatus(filterStatus);
-                } else if (priceRange.min && priceRange.max) {
-                    response = await productService.getProductsInPriceRange(priceRange.min, priceRange.max);
-                } else if (priceRange.max) {
-                    response = await productService.getProductsUnderPrice(priceRange.max);
-                } else {
-                    response = await productService.getAllProducts();
-                }
+                // All filters at once, one page at a time; the price range is inclusive and either end may be open
+                const response = await productService.searchProducts({
+                    name: searchTerm,
+                    category: filterCategory,
+                    status: filterStatus,
+                    minPrice: priceRange.min,
+                    maxPrice: priceRange.max,
+                }, page);
 
                 setProducts(response.data);
+                setTotal(totalCount(response));
             } catch (error) {
                 console.error('Error fetching products', error);
             } finally {
@@ -46,7 +44,7 @@ const ProductList = () => {
         };
 
         fetchProducts();
-    }, [searchTerm, filterCategory, filterStatus, priceRange.min, priceRange.max]);
+    }, [searchTerm, filterCategory, filterStatus, priceRange.min, priceRange.max, page]);
 
     // Handle delete
     const handleDelete = async () => {
@@ -55,6 +53,7 @@ const ProductList = () => {
         try {
             await productService.deleteProduct(productToDelete.id);
             setProducts(products.filter(product => product.id !== productToDelete.id));
+            setTotal(total - 1);
             setShowDeleteModal(false);
             setProductToDelete(null);
         } catch (error) {
@@ -62,12 +61,19 @@ const ProductList = () => {
         }
     };
 
+    // A filter change starts again from the first page
+    const changeFilter = (setFilter, value) => {
+        setFilter(value);
+        setPage(0);
+    };
+
     // Reset filters
     const resetFilters = () => {
         setSearchTerm('');
         setFilterCategory('');
         setFilterStatus('');
         setPriceRange({ min: '', max: '' });
+        setPage(0);
     };
 
     // Derived values
@@ -104,7 +110,7 @@ const ProductList = () => {
                                 <Form.Control
                                     placeholder="Search products by name..."
                                     value={searchTerm}
-                                    onChange={(e) => setSearchTerm(e.target.value)}
+                                    onChange={(e) => changeFilter(setSearchTerm, e.target.value)}
                                 />
                                 {(searchTerm || filterCategory || filterStatus || priceRange.min || priceRange.max) && (
                                     <Button variant="outline-secondary" onClick={resetFilters}>
@@ -121,7 +127,7 @@ const ProductList = () => {
                                         <Form.Label>Category</Form.Label>
                                         <Form.Select
                                             value={filterCategory}
-                                            onChange={(e) => setFilterCategory(e.target.value)}
+                                            onChange={(e) => changeFilter(setFilterCategory, e.target.value)}
                                         >
                                             <option value="">All Categories</option>
                                             {uniqueCategories.map(category => (
@@ -136,7 +142,7 @@ const ProductList = () => {
                                         <Form.Label>Status</Form.Label>
                                         <Form.Select
                                             value={filterStatus}
-                                            onChange={(e) => setFilterStatus(e.target.value)}
+                                            onChange={(e) => changeFilter(setFilterStatus, e.target.value)}
                                         >
                                             <option value="">All Statuses</option>
                                             {uniqueStatuses.map(status => (
@@ -154,14 +160,14 @@ const ProductList = () => {
                                                 placeholder="Min"
                                                 type="number"
                                                 value={priceRange.min}
-                                                onChange={(e) => setPriceRange({ ...priceRange, min: e.target.value })}
+                                                onChange={(e) => changeFilter(setPriceRange, { ...priceRange, min: e.target.value })}
                                             />
                                             <InputGroup.Text>to</InputGroup.Text>
                                             <Form.Control
                                                 placeholder="Max"
                                                 type="number"
                                                 value={priceRange.max}
-                                                onChange={(e) => setPriceRange({ ...priceRange, max: e.target.value })}
+                                                onChange={(e) => changeFilter(setPriceRange, { ...priceRange, max: e.target.value })}
                                             />
                                         </InputGroup>
                                     </Form.Group>
@@ -248,6 +254,7 @@ const ProductList = () => {
                             </tbody>
                         </Table>
                     )}
+                    <SearchPager page={page} size={SEARCH_PAGE_SIZE} total={total} onPageChange={setPage} />
                 </Card.Body>
             </Card>
 
@@ -1,21 +1,57 @@
 // src/services/api.js
 import axios from 'axios';
+import { addExtension, decode } from 'cbor-x';
 
 const API_URL = '/api';
 
+// Responses in CBOR instead of JSON (smaller and faster to parse for large lists): REACT_APP_API_FORMAT=cbor
+const USE_CBOR = process.env.REACT_APP_API_FORMAT === 'cbor';
+
+// Decimals (amounts, prices) arrive as CBOR decimal fractions: [exponent, mantissa]
+addExtension({
+    tag: 4,
+    decode: ([exponent, mantissa]) => Number(`${mantissa}e${exponent}`),
+});
+
+// Decodes CBOR responses and parses JSON ones (errors and endpoints without a CBOR form)
+const parseResponse = (data, headers) => {
+    if (!(data instanceof ArrayBuffer)) {
+        return data;
+    }
+    if (String(headers['content-type'] || '').startsWith('application/cbor')) {
+        return decode(new Uint8Array(data));
+    }
+    const text = new TextDecoder().decode(data);
+    try {
+        return text ? JSON.parse(text) : text;
+    } catch (error) {
+        return text;
+    }
+};
+
 // Create axios instance with common configuration
 const apiClient = axios.create({
     baseURL: API_URL,
     headers: {
         'Content-Type': 'application/json',
+        ...(USE_CBOR && { Accept: 'application/cbor, application/json;q=0.9' }),
     },
+    ...(USE_CBOR && { responseType: 'arraybuffer', transformResponse: [parseResponse] }),
 });
 
+// Search results come one page at a time (page from 0, size up to 1000, 100 by default); the number of
+// matches on all pages is in the X-Total-Count header
+export const SEARCH_PAGE_SIZE = 100;
+
+export const totalCount = (response) => Number(response.headers['x-total-count'] || 0);
+
 // Customer service
 export const customerService = {
     getAllCustomers: () => apiClient.get('/customers'),
+    getCustomersPage: (after, limit) => apiClient.get('/customers', { params: { after, limit } }),
     getCustomerById: (id) => apiClient.get(`/customers/${id}`),
-    searchCustomers: (params) => apiClient.get('/customers/search', { params }),
+    searchCustomers: (filters, page, size = SEARCH_PAGE_SIZE) =>
+        apiClient.get('/customers/search', { params: { ...filters, page, size } }),
     createCustomer: (customer) => apiClient.post('/customers', customer),
     updateCustomer: (id, customer) => apiClient.put(`/customers/${id}`, customer),
     deleteCustomer: (id) => apiClient.delete(`/customers/${id}`),
@@ -24,10 +60,12 @@ export const customerService = {
 // Contact service
 export const contactService = {
     getAllContacts: () => apiClient.get('/contacts'),
+    getContactsPage: (after, limit) => apiClient.get('/contacts', { params: { after, limit } }),
     getContactById: (id) => apiClient.get(`/contacts/${id}`),
     getContactsByCustomer: (customerId) => apiClient.get(`/contacts/customer/${customerId}`),
     getPrimaryContacts: () => apiClient.get('/contacts/primary'),
-    searchContacts: (name) => apiClient.get('/contacts/search', { params: { name } }),
+    searchContacts: (filters, page, size = SEARCH_PAGE_SIZE) =>
+        apiClient.get('/contacts/search', { params: { ...filters, page, size } }),
     getContactByEmail: (email) => apiClient.get('/contacts/email', { params: { email } }),
     createContact: (contact) => apiClient.post('/contacts', contact),
     updateContact: (id, contact) => apiClient.put(`/contacts/${id}`, contact),
@@ -37,6 +75,7 @@ export const contactService = {
 // Opportunity service
 export const opportunityService = {
     getAllOpportunities: () => apiClient.get('/opportunities'),
+    getOpportunitiesPage: (after, limit) => apiClient.get('/opportunities', { params: { after, limit } }),
     getOpportunityById: (id) => apiClient.get(`/opportunities/${id}`),
     getOpportunitiesByCustomer: (customerId) => apiClient.get(`/opportunities/customer/${customerId}`),
     getOpportunitiesByStatus: (status) => apiClient.get(`/opportunities/status/${status}`),
@@ -59,6 +98,7 @@ export const opportunityService = {
 // Activity service
 export const activityService = {
     getAllActivities: () => apiClient.get('/activities'),
+    getActivitiesPage: (after, limit) => apiClient.get('/activities', { params: { after, limit } }),
     getActivityById: (id) => apiClient.get(`/activities/${id}`),
     getActivitiesByCustomer: (customerId) => apiClient.get(`/activities/customer/${customerId}`),
     getActivitiesByContact: (contactId) => apiClient.get(`/activities/contact/${contactId}`),
@@ -80,9 +120,11 @@ export const activityService = {
 // Product service
 export const productService = {
     getAllProducts: () => apiClient.get('/products'),
+    getProductsPage: (after, limit) => apiClient.get('/products', { params: { after, limit } }),
     getProductById: (id) => apiClient.get(`/products/${id}`),
     getProductByCode: (code) => apiClient.get(`/products/code/${code}`),
-    searchProductsByName: (name) => apiClient.get('/products/search', { params: { name } }),
+    searchProducts: (filters, page, size = SEARCH_PAGE_SIZE) =>
+        apiClient.get('/products/search', { params: { ...filters, page, size } }),
     getProductsByCategory: (category) => apiClient.get(`/products/category/${category}`),
     getProductsByStatus: (status) => apiClient.get(`/products/status/${status}`),
     getProductsUnderPrice: (maxPrice) =>
@@ -102,34 +144,47 @@ export const productService = {
     deleteProduct: (id) => apiClient.delete(`/products/${id}`),
 };
 
+// Full-text search across contacts, customers and products
+export const searchService = {
+    search: (q, types, limit) =>
+        apiClient.get('/search', {
+            params: { q, types: types ? types.join(',') : undefined, limit }
+        }),
+};
+
+// CSV import jobs and exports (type is customers, contacts or opportunities)
+export const importService = {
+    startImport: (type, file) =>
+        apiClient.post('/imports', file, {
+            params: { type, fileName: file.name },
+            headers: { 'Content-Type': 'text/csv' }
+        }),
+    getImport: (id) => apiClient.get(`/imports/${id}`),
+    getImportErrors: (id, limit) => apiClient.get(`/imports/${id}/errors`, { params: { limit } }),
+    resumeImport: (id) => apiClient.post(`/imports/${id}/resume`),
+    exportCsv: (type) =>
+        apiClient.get(`/${type}`, { headers: { Accept: 'text/csv' }, responseType: 'blob' }),
+};
+
 // Dashboard service for aggregated data
 export const dashboardService = {
+    getSummary: () => apiClient.get('/dashboard/summary'),
+
     getOpportunitySummary: async () => {
         try {
-            const [
-                openOpps = { data: [] },
-                closedWonOpps = { data: [] },
-                closedLostOpps = { data: [] },
-                openValue = { data: 0 },
-                wonValue = { data: 0 }
-            ] = await Promise.all([
-                opportunityService.getOpportunitiesByStatus('Open'),
-                opportunityService.getOpportunitiesByStatus('Closed Won'),
-                opportunityService.getOpportunitiesByStatus('Closed Lost'),
-                opportunityService.getTotalOpportunityValueByStatus('Open'),
-                opportunityService.getTotalOpportunityValueByStatus('Closed Won')
-            ]);
+            const { data } = await apiClient.get('/dashboard/summary');
+            const totals = data.opportunities;
 
             return {
                 counts: {
-                    open: openOpps.data.length,
-                    won: closedWonOpps.data.length,
-                    lost: closedLostOpps.data.length,
-                    total: openOpps.data.length + closedWonOpps.data.length + closedLostOpps.data.length
+                    open: totals.openCount,
+                    won: totals.wonCount,
+                    lost: totals.lostCount,
+                    total: data.counts.opportunities
                 },
                 values: {
-                    open: openValue.data,
-                    won: wonValue.data
+                    open: totals.openValue,
+                    won: totals.wonValue
                 }
             };
         } catch (error) {
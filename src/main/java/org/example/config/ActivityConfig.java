@@ -0,0 +1,12 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Activity timeline.
+ */
+@Configuration
+@EnableConfigurationProperties(UpcomingActivitySettings.class)
+public class ActivityConfig {
+}
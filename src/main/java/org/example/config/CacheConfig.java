@@ -0,0 +1,80 @@
+package org.example.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Caffeine-backed caches: the Spring cache used by {@code @Cacheable} service methods and the
+ * JCache manager that holds the Hibernate second-level cache regions.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheSettings.class)
+public class CacheConfig {
+
+    private static final List<String> SPRING_CACHES = List.of(
+            CacheNames.PRODUCTS, CacheNames.PRODUCT_BY_CODE, CacheNames.PRODUCTS_BY_CATEGORY);
+
+    private static final List<String> HIBERNATE_REGIONS = List.of(
+            CacheNames.PRODUCT_ENTITY, CacheNames.PRODUCT_QUERY, CacheNames.CUSTOMER_ENTITY, CacheNames.DEFAULT_QUERY);
+
+    @Bean
+    public CacheManager cacheManager(CacheSettings settings) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        for (String name : SPRING_CACHES) {
+            CacheSettings.Spec spec = settings.spec(name);
+            cacheManager.registerCustomCache(name, Caffeine.newBuilder()
+                    .maximumSize(spec.getMaximumSize())
+                    .expireAfterWrite(spec.getTimeToLive())
+                    .recordStats()
+                    .build());
+        }
+        // Evictions made inside a transaction take effect only once it commits, so a concurrent
+        // read cannot put the old value back before the new one is visible
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    @Bean
+    public javax.cache.CacheManager hibernateCacheManager(CacheSettings settings) {
+        // A manager of its own rather than the provider's JVM-wide default, whose caches would clash with those
+        // of another application context in the same JVM (a devtools restart, a second test context)
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        javax.cache.CacheManager cacheManager = provider.getCacheManager(
+                URI.create("crm-hibernate-" + UUID.randomUUID()), provider.getDefaultClassLoader());
+        for (String region : HIBERNATE_REGIONS) {
+            CacheSettings.Spec spec = settings.spec(region);
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(spec.getMaximumSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(spec.getTimeToLive().toNanos()));
+            cacheManager.createCache(region, configuration);
+        }
+        // Update timestamps must outlive every cached query result, so this region is never expired
+        cacheManager.createCache(CacheNames.UPDATE_TIMESTAMPS, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(javax.cache.CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.config;
+
+/**
+ * Names of the application caches. Sizes and time-to-live are configured per name under
+ * {@code crm.cache.caches.<name>} (see {@link CacheSettings}).
+ */
+public final class CacheNames {
+
+    // Spring caches on the service layer
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_BY_CODE = "product-by-code";
+    public static final String PRODUCTS_BY_CATEGORY = "products-by-category";
+
+    // Hibernate second-level cache regions
+    public static final String PRODUCT_ENTITY = "product-entity";
+    public static final String PRODUCT_QUERY = "product-query";
+    public static final String CUSTOMER_ENTITY = "customer-entity";
+    public static final String DEFAULT_QUERY = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private CacheNames() {
+    }
+}
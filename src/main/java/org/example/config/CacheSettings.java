@@ -0,0 +1,31 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Size bound and time-to-live for each cache, keyed by cache name. Caches that are not
+ * listed use the defaults of {@link Spec}.
+ */
+@Data
+@ConfigurationProperties(prefix = "crm.cache")
+public class CacheSettings {
+
+    private Map<String, Spec> caches = new HashMap<>();
+
+    public Spec spec(String cacheName) {
+        return caches.getOrDefault(cacheName, new Spec());
+    }
+
+    @Data
+    public static class Spec {
+
+        private long maximumSize = 10_000;
+
+        private Duration timeToLive = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * CSV import and export.
+ */
+@Configuration
+@EnableConfigurationProperties(ImportSettings.class)
+public class CsvConfig {
+
+    @Bean
+    public CsvFormat csvFormat() {
+        return new CsvFormat();
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.config;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV mapping shared by the import jobs and the CSV list exports. Files have a header line and
+ * one row class per entity type; the columns are the row class properties in declared order.
+ * <p>
+ * The {@link CsvMapper} is wrapped rather than exposed as a bean because, being an
+ * {@code ObjectMapper}, it would replace the JSON mapper Spring Boot configures.
+ */
+public class CsvFormat {
+
+    private final CsvMapper mapper = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            // Empty cells are absent values, not empty strings
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .build();
+
+    /**
+     * Reads rows by header name, so the columns may come in any order.
+     */
+    public ObjectReader reader(Class<?> rowType) {
+        return mapper.readerFor(rowType).with(CsvSchema.emptySchema().withHeader());
+    }
+
+    public ObjectWriter writer(Class<?> rowType) {
+        return mapper.writerFor(rowType).with(mapper.schemaFor(rowType).withHeader());
+    }
+
+    public List<String> columns(Class<?> rowType) {
+        List<String> columns = new ArrayList<>();
+        mapper.schemaFor(rowType).forEach(column -> columns.add(column.getName()));
+        return columns;
+    }
+}
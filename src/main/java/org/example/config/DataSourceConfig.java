@@ -0,0 +1,75 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.ReplicaRoutingDataSource.Replica;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps the auto-configured (Hikari) data source in a {@link ConcurrencyLimitedDataSource} when
+ * {@code crm.datasource.max-concurrency} is set, as in the {@code virtual} profile, and then in a
+ * {@link ReplicaRoutingDataSource} when {@code crm.datasource.replicas} are configured (see {@link ReplicaConfig}).
+ * The limit applies to the primary's connections only, and only while virtual threads are active:
+ * on platform threads the Tomcat pool already bounds the requests, and the limiter would only add a queue.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(DataSourceSettings.class)
+public class DataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourcePostProcessor(ObjectProvider<DataSourceSettings> settings,
+                                                            ObjectProvider<ReadYourWrites> readYourWrites,
+                                                            Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof ConcurrencyLimitedDataSource
+                        || bean instanceof ReplicaRoutingDataSource) {
+                    return bean;
+                }
+                DataSourceSettings dataSource = settings.getObject();
+                DataSource primary = (DataSource) bean;
+                if (dataSource.getMaxConcurrency() > 0) {
+                    if (Threading.VIRTUAL.isActive(environment)) {
+                        primary = new ConcurrencyLimitedDataSource(primary, dataSource.getMaxConcurrency(),
+                                dataSource.getAcquireTimeout());
+                    } else {
+                        log.warn("crm.datasource.max-concurrency is ignored: virtual threads are not active"
+                                + " (spring.threads.virtual.enabled=false)");
+                    }
+                }
+                if (dataSource.getReplicas().isEmpty()) {
+                    return primary;
+                }
+                return new ReplicaRoutingDataSource(primary, replicas(dataSource), readYourWrites.getObject());
+            }
+        };
+    }
+
+    private static List<Replica> replicas(DataSourceSettings settings) {
+        List<Replica> replicas = new ArrayList<>();
+        for (DataSourceSettings.Replica replica : settings.getReplicas()) {
+            String name = "crm-replica-" + (replicas.size() + 1);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername());
+            pool.setPassword(replica.getPassword());
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            replicas.add(new Replica(name, pool));
+        }
+        return replicas;
+    }
+}
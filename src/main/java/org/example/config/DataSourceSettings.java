@@ -0,0 +1,44 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optional limit on the number of JDBC connections checked out at once (see
+ * {@link ConcurrencyLimitedDataSource}), and optional read replicas (see {@link ReplicaRoutingDataSource}).
+ */
+@Data
+@ConfigurationProperties(prefix = "crm.datasource")
+public class DataSourceSettings {
+
+    // Connections handed out at once; 0 leaves the data source unwrapped
+    private int maxConcurrency = 0;
+
+    // How long a caller queues for a permit before the request fails
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+
+    // Read-only transactions are spread over these; none sends everything to the primary
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Replicas further behind the primary are skipped until they catch up
+    private Duration maxReplicaLag = Duration.ofSeconds(5);
+
+    // How often the replication heartbeat is written and the replicas are checked
+    private Duration replicaCheckInterval = Duration.ofSeconds(1);
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
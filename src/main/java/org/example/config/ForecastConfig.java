@@ -0,0 +1,12 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Revenue forecast.
+ */
+@Configuration
+@EnableConfigurationProperties(ForecastSettings.class)
+public class ForecastConfig {
+}
@@ -0,0 +1,19 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Threads and limits of the revenue forecast.
+ */
+@Data
+@ConfigurationProperties(prefix = "crm.forecast")
+public class ForecastSettings {
+
+    // Worker threads of the forecast pool; 0 uses one per available processor
+    private int parallelism = 0;
+
+    private int maxSimulations = 100_000;
+
+    private int maxCustomers = 1000;
+}
@@ -0,0 +1,18 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Where uploaded CSV files are kept while they are imported, and how many imports run at once.
+ */
+@Data
+@ConfigurationProperties(prefix = "crm.import")
+public class ImportSettings {
+
+    private Path spoolDirectory = Path.of(System.getProperty("java.io.tmpdir"), "crm-imports");
+
+    private int threads = 1;
+}
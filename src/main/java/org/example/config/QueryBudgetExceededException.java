@@ -0,0 +1,11 @@
+package org.example.config;
+
+/**
+ * Thrown in strict mode by the statement that takes a request over its query budget.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(int budget, String sql) {
+        super("Request exceeded its budget of " + budget + " SQL statements at: " + sql);
+    }
+}
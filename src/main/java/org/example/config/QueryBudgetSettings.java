@@ -0,0 +1,21 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits checked by the per-request statement counter (see {@link QueryCounter}).
+ */
+@Data
+@ConfigurationProperties(prefix = "crm.query-budget")
+public class QueryBudgetSettings {
+
+    // Statements allowed for endpoints without @QueryBudget
+    private int defaultBudget = 100;
+
+    // The same statement run more often than this in one request is reported as a likely N+1
+    private int repeatThreshold = 10;
+
+    // Fail the statement that goes over the budget instead of only logging the request
+    private boolean strict = false;
+}
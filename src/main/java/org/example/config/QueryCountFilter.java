@@ -0,0 +1,79 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.controller.QueryBudget;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Records the number of SQL statements each request executes as the {@code crm.http.queries}
+ * distribution, tagged like {@code http.server.requests}, and logs requests that go over their
+ * query budget or repeat a statement (a likely N+1) with the call sites of the repeated
+ * statements. Streamed (NDJSON/CSV) responses write on another thread, so only the statements
+ * before streaming starts are counted for them.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    static final String METRIC_NAME = "crm.http.queries";
+
+    private static final int MAX_LOGGED_SQL_LENGTH = 300;
+
+    private final QueryCounter queryCounter;
+    private final QueryBudgetSettings settings;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        queryCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueries queries = queryCounter.stop();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            // Requests that matched no handler (static resources, 404s) are not recorded
+            if (uri != null) {
+                DistributionSummary.builder(METRIC_NAME)
+                        .baseUnit("statements")
+                        .description("SQL statements executed per HTTP request")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri.toString())
+                        .register(meterRegistry)
+                        .record(queries.getCount());
+                report(request.getMethod() + " " + uri, queries);
+            }
+        }
+    }
+
+    private void report(String endpoint, RequestQueries queries) {
+        if (queries.getBudget() == QueryBudget.UNLIMITED) {
+            return;
+        }
+        List<RequestQueries.Statement> repeated = queries.repeatedMoreThan(settings.getRepeatThreshold());
+        if (!queries.isOverBudget() && repeated.isEmpty()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder()
+                .append(endpoint).append(" executed ").append(queries.getCount())
+                .append(" SQL statements (budget ").append(queries.getBudget()).append(')');
+        for (RequestQueries.Statement statement : repeated) {
+            String sql = statement.getSql().replaceAll("\\s+", " ").trim();
+            message.append("\n  ").append(statement.getCount()).append(" x ")
+                    .append(sql.length() > MAX_LOGGED_SQL_LENGTH ? sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "..." : sql)
+                    .append("\n      at ").append(statement.getCallSite());
+        }
+        log.warn(message.toString());
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.config;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records the SQL statements Hibernate prepares on the current thread between {@link #start()}
+ * and {@link #stop()}. Statements on threads without an active recording are not counted.
+ * <p>
+ * In strict mode the statement that takes the recording over its budget fails with a
+ * {@link QueryBudgetExceededException}, so integration tests fail on query-count regressions.
+ */
+@RequiredArgsConstructor
+public class QueryCounter implements StatementInspector {
+
+    private final QueryBudgetSettings settings;
+    private final ThreadLocal<RequestQueries> current = new ThreadLocal<>();
+
+    public void start() {
+        current.set(new RequestQueries(settings.getDefaultBudget()));
+    }
+
+    /**
+     * Sets the budget of the current recording, if there is one.
+     */
+    public void setBudget(int budget) {
+        RequestQueries queries = current.get();
+        if (queries != null) {
+            queries.setBudget(budget);
+        }
+    }
+
+    /**
+     * Ends the recording on the current thread and returns it (empty if none was started).
+     */
+    public RequestQueries stop() {
+        RequestQueries queries = current.get();
+        current.remove();
+        return queries != null ? queries : new RequestQueries(settings.getDefaultBudget());
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueries queries = current.get();
+        if (queries != null) {
+            queries.record(sql);
+            if (settings.isStrict() && queries.isOverBudget()) {
+                throw new QueryBudgetExceededException(queries.getBudget(), sql);
+            }
+        }
+        return sql;
+    }
+}
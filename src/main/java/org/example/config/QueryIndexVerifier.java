@@ -0,0 +1,182 @@
+package org.example.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.FullScan;
+import org.example.repository.QueryIndex;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Fails startup when a repository query method has no index that can serve it.
+ * <p>
+ * Derived queries are checked by parsing the method name: every OR branch needs an index whose
+ * leading column is one of the columns it filters on with an index-friendly operator (or, for
+ * queries without criteria, the first sort column). Explicit {@code @Query} methods must declare
+ * their columns with {@link QueryIndex} or opt out with {@link FullScan}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "crm.schema.verify-query-indexes", havingValue = "true", matchIfMissing = true)
+public class QueryIndexVerifier implements SmartInitializingSingleton {
+
+    private static final Set<Part.Type> INDEXABLE_TYPES = EnumSet.of(
+            Part.Type.SIMPLE_PROPERTY, Part.Type.BETWEEN, Part.Type.IN, Part.Type.IS_NULL,
+            Part.Type.GREATER_THAN, Part.Type.GREATER_THAN_EQUAL, Part.Type.LESS_THAN, Part.Type.LESS_THAN_EQUAL,
+            Part.Type.AFTER, Part.Type.BEFORE, Part.Type.TRUE, Part.Type.FALSE, Part.Type.STARTING_WITH);
+
+    private final ListableBeanFactory beanFactory;
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Repositories repositories = new Repositories(beanFactory);
+        List<String> violations = new ArrayList<>();
+        int checked = 0;
+
+        for (Class<?> domainClass : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainClass);
+            AbstractEntityPersister persister =
+                    (AbstractEntityPersister) sessionFactory.getMappingMetamodel().getEntityDescriptor(domainClass);
+            List<List<String>> indexes = readIndexes(persister.getTableName());
+
+            for (Method method : information.getQueryMethods()) {
+                checked++;
+                String problem = check(method, domainClass, persister, indexes);
+                if (problem != null) {
+                    violations.add(information.getRepositoryInterface().getSimpleName() + "." + method.getName()
+                            + ": " + problem);
+                }
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("Repository queries without a supporting index:\n  "
+                    + String.join("\n  ", violations));
+        }
+        log.info("Verified index coverage of {} repository query methods", checked);
+    }
+
+    private String check(Method method, Class<?> domainClass, AbstractEntityPersister persister,
+                         List<List<String>> indexes) {
+        if (method.isAnnotationPresent(FullScan.class)) {
+            return null;
+        }
+
+        QueryIndex queryIndex = method.getAnnotation(QueryIndex.class);
+        if (queryIndex != null) {
+            List<String> columns = Arrays.asList(queryIndex.value());
+            return hasIndexStartingWith(indexes, columns) ? null : "no index starting with " + columns;
+        }
+        if (method.isAnnotationPresent(Query.class)) {
+            return "explicit @Query must declare @QueryIndex or @FullScan";
+        }
+
+        PartTree tree = new PartTree(method.getName(), domainClass);
+        if (!tree.iterator().hasNext()) {
+            // No criteria: the index has to serve the ORDER BY instead
+            Sort.Order firstOrder = tree.getSort().stream().findFirst().orElse(null);
+            if (firstOrder == null) {
+                return "query has neither criteria nor sort";
+            }
+            Set<String> sortColumns = leadingColumns(persister, PropertyPath.from(firstOrder.getProperty(), domainClass));
+            return hasIndexLedByAny(indexes, sortColumns) ? null : "no index on sort column " + sortColumns;
+        }
+
+        for (PartTree.OrPart orPart : tree) {
+            Set<String> candidates = new LinkedHashSet<>();
+            for (Part part : orPart) {
+                if (INDEXABLE_TYPES.contains(part.getType()) && part.shouldIgnoreCase() == Part.IgnoreCaseType.NEVER) {
+                    candidates.addAll(leadingColumns(persister, part.getProperty()));
+                }
+            }
+            if (candidates.isEmpty()) {
+                return "no criterion in '" + orPart + "' can use an index";
+            }
+            if (!hasIndexLedByAny(indexes, candidates)) {
+                return "no index led by any of " + candidates;
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> leadingColumns(AbstractEntityPersister persister, PropertyPath path) {
+        // Nested paths (customer.id) are resolved through the join column of the first segment
+        String property = path.getSegment();
+        String[] columns = property.equals(persister.getIdentifierPropertyName())
+                ? persister.getIdentifierColumnNames()
+                : persister.getPropertyColumnNames(property);
+        Set<String> result = new LinkedHashSet<>();
+        if (columns.length > 0) {
+            result.add(columns[0].toLowerCase(Locale.ROOT));
+        }
+        return result;
+    }
+
+    private static boolean hasIndexLedByAny(List<List<String>> indexes, Set<String> columns) {
+        return indexes.stream().anyMatch(index -> columns.contains(index.get(0)));
+    }
+
+    private static boolean hasIndexStartingWith(List<List<String>> indexes, List<String> columns) {
+        List<String> expected = new ArrayList<>();
+        columns.forEach(column -> expected.add(column.toLowerCase(Locale.ROOT)));
+        return indexes.stream().anyMatch(index -> index.size() >= expected.size()
+                && index.subList(0, expected.size()).equals(expected));
+    }
+
+    private List<List<String>> readIndexes(String table) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+            Map<String, TreeMap<Short, String>> columnsByIndex = new HashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), tableName,
+                    false, false)) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (indexName != null && column != null) {
+                        columnsByIndex.computeIfAbsent(indexName, name -> new TreeMap<>())
+                                .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            List<List<String>> indexes = new ArrayList<>();
+            columnsByIndex.values().forEach(columns -> indexes.add(new ArrayList<>(columns.values())));
+            return indexes;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read index metadata for table " + table, e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes on top of replica routing: once a client writes, its reads go to the primary until the
+ * replicas have caught up. The request that writes reads from the primary for the rest of the request and
+ * sets a cookie with the time until which the client's next requests do too; the window is the most a
+ * usable replica can be behind. Clients that drop cookies read from the replicas straight away.
+ * <p>
+ * Only requests through {@link ReadYourWritesFilter} are tracked; reads of background work are never pinned.
+ */
+@RequiredArgsConstructor
+public class ReadYourWrites {
+
+    static final String COOKIE_NAME = "crm-read-primary-until";
+
+    private final Duration window;
+    private final ThreadLocal<Session> current = new ThreadLocal<>();
+
+    public void start(HttpServletRequest request, HttpServletResponse response) {
+        current.set(new Session(response, primaryUntil(request)));
+    }
+
+    public void stop() {
+        current.remove();
+    }
+
+    public boolean readsFromPrimary() {
+        Session session = current.get();
+        return session != null && (session.wrote || System.currentTimeMillis() < session.primaryUntil);
+    }
+
+    /**
+     * Called when the current thread starts a read-write transaction.
+     */
+    public void recordWrite() {
+        Session session = current.get();
+        if (session == null || session.wrote) {
+            return;
+        }
+        session.wrote = true;
+        // A streamed response may already be on its way; its client is not pinned
+        if (!session.response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(System.currentTimeMillis() + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds() + 1));
+            session.response.addCookie(cookie);
+        }
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    try {
+                        return Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static class Session {
+
+        private final HttpServletResponse response;
+        private final long primaryUntil;
+        private boolean wrote;
+
+        private Session(HttpServletResponse response, long primaryUntil) {
+            this.response = response;
+            this.primaryUntil = primaryUntil;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Activity reminders and overdue marking.
+ */
+@Configuration
+@EnableConfigurationProperties(ReminderSettings.class)
+public class ReminderConfig {
+}
@@ -0,0 +1,63 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Timing of activity reminders and overdue marking, and where reminders are delivered.
+ */
+@Data
+@ConfigurationProperties(prefix = "crm.reminders")
+public class ReminderSettings {
+
+    private boolean enabled = true;
+
+    // Resolution of the timing wheel; reminders fire up to one tick late
+    private Duration tick = Duration.ofSeconds(1);
+
+    // How long before its scheduled date an activity's reminder fires
+    private Duration leadTime = Duration.ofMinutes(15);
+
+    // How long after its scheduled date a still planned activity is marked overdue
+    private Duration overdueAfter = Duration.ofHours(1);
+
+    // Activities scheduled this far ahead are held in the wheel; later ones are loaded as time advances
+    private Duration horizon = Duration.ofDays(1);
+
+    private Duration loadInterval = Duration.ofHours(1);
+
+    // Activities checked, marked overdue and delivered per statement
+    private int batchSize = 500;
+
+    private final Log log = new Log();
+
+    private final Queue queue = new Queue();
+
+    private final Webhook webhook = new Webhook();
+
+    @Data
+    public static class Log {
+
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class Queue {
+
+        private boolean enabled = false;
+
+        // Oldest reminders are dropped beyond this many undelivered ones
+        private int capacity = 10_000;
+    }
+
+    @Data
+    public static class Webhook {
+
+        // Reminders are POSTed here as a JSON array when set
+        private String url;
+
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Read replicas, when {@code crm.datasource.replicas} lists any: the data source is wrapped in a
+ * {@link ReplicaRoutingDataSource} (see {@link DataSourceConfig}), watched by the {@link ReplicaMonitor}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "crm.datasource", name = "replicas[0].url")
+public class ReplicaConfig {
+
+    // A replica within the maximum lag, measured once per check interval, has caught up by then
+    @Bean
+    public ReadYourWrites readYourWrites(DataSourceSettings settings) {
+        return new ReadYourWrites(settings.getMaxReplicaLag().plus(settings.getReplicaCheckInterval()));
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWrites readYourWrites) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWrites));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    // With open-in-view the session would keep its first connection for the whole request, so a write after
+    // a read would reuse the replica's; each transaction gets its own connection instead
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
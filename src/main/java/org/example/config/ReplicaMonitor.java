@@ -0,0 +1,133 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.ReplicaRoutingDataSource.Replica;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how far each replica is behind the primary. Every check interval a new beat (the current time)
+ * is written to {@code replication_heartbeat} on the primary and read back from each replica. A replica that
+ * has the newest beat is up to date; otherwise it is missing everything written since the beat after the
+ * one it has, and its lag is the time since then. Replicas that cannot be reached or lag more than
+ * {@code crm.datasource.max-replica-lag} are taken out of the rotation until they catch up.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "crm.datasource", name = "replicas[0].url")
+public class ReplicaMonitor {
+
+    private final DataSource dataSource;
+    private final DataSourceSettings settings;
+    private final MeterRegistry meterRegistry;
+
+    // Beats still within the maximum lag, oldest first; only touched by the monitor thread
+    private final Deque<Long> beats = new ArrayDeque<>();
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate primary;
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() throws SQLException {
+        routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        // Outside a transaction, so this goes to the primary
+        primary = new JdbcTemplate(routing);
+        for (Replica replica : routing.getReplicas()) {
+            Gauge.builder("crm.datasource.replica.lag", replica, Replica::getLagMillis)
+                    .description("How far the replica is behind the primary; -1 while unreachable")
+                    .baseUnit("milliseconds")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // After startup, when the migrations have created the heartbeat table; until then reads use the primary
+    @EventListener(ApplicationReadyEvent.class)
+    public void startChecks() {
+        long interval = settings.getReplicaCheckInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::check, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    void check() {
+        long now = System.currentTimeMillis();
+        long beat = beats.isEmpty() ? now : Math.max(now, beats.getLast() + 1);
+        try {
+            primary.update("UPDATE replication_heartbeat SET beat = ? WHERE id = 1", beat);
+        } catch (DataAccessException e) {
+            log.warn("Could not write the replication heartbeat: {}", e.getMessage());
+            return;
+        }
+        beats.addLast(beat);
+        long maxLag = settings.getMaxReplicaLag().toMillis();
+        while (beats.size() > 1 && now - beats.getFirst() > maxLag + settings.getReplicaCheckInterval().toMillis()) {
+            beats.removeFirst();
+        }
+
+        for (Replica replica : routing.getReplicas()) {
+            long lag;
+            try {
+                Long seen = new JdbcTemplate(replica.getDataSource())
+                        .queryForObject("SELECT beat FROM replication_heartbeat WHERE id = 1", Long.class);
+                lag = lag(seen != null ? seen : 0, System.currentTimeMillis());
+            } catch (DataAccessException e) {
+                if (replica.getLagMillis() >= 0) {
+                    log.warn("Replica {} is unreachable: {}", replica.getName(), e.getMessage());
+                }
+                replica.update(false, -1);
+                continue;
+            }
+            boolean usable = lag <= maxLag;
+            if (usable != replica.isUsable()) {
+                log.info("Replica {} is {} ({} ms behind)", replica.getName(), usable ? "in rotation" : "lagging", lag);
+            }
+            replica.update(usable, lag);
+        }
+    }
+
+    // Time since the first beat the replica is missing; older than all kept beats counts as the oldest
+    private long lag(long seen, long now) {
+        Iterator<Long> newest = beats.descendingIterator();
+        long missingSince = -1;
+        while (newest.hasNext()) {
+            long beat = newest.next();
+            if (beat <= seen) {
+                break;
+            }
+            missingSince = beat;
+        }
+        return missingSince < 0 ? 0 : Math.max(0, now - missingSince);
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The SQL statements of one request: the total, and how often each distinct statement ran
+ * together with where it was first repeated from.
+ */
+public class RequestQueries {
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final Map<String, Statement> statements = new HashMap<>();
+    private int count;
+    private int budget;
+
+    RequestQueries(int budget) {
+        this.budget = budget;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    void setBudget(int budget) {
+        this.budget = budget;
+    }
+
+    public boolean isOverBudget() {
+        return count > budget;
+    }
+
+    /**
+     * Statements that ran more than {@code threshold} times, most frequent first.
+     */
+    public List<Statement> repeatedMoreThan(int threshold) {
+        List<Statement> repeated = new ArrayList<>();
+        statements.values().forEach(statement -> {
+            if (statement.count > threshold) {
+                repeated.add(statement);
+            }
+        });
+        repeated.sort(Comparator.comparingInt(Statement::getCount).reversed());
+        return repeated;
+    }
+
+    void record(String sql) {
+        count++;
+        Statement statement = statements.computeIfAbsent(sql, Statement::new);
+        statement.count++;
+        // Walking the stack is only worth it once a statement repeats
+        if (statement.count == 2) {
+            statement.callSite = callSite();
+        }
+    }
+
+    private static String callSite() {
+        // The first application frame outside this package and outside Spring's generated proxies
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("org.example.")
+                        && !frame.getClassName().startsWith("org.example.config.")
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(StackWalker.StackFrame::toString)
+                .orElse("unknown"));
+    }
+
+    public static class Statement {
+
+        private final String sql;
+        private int count;
+        private String callSite;
+
+        private Statement(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public String getCallSite() {
+            return callSite;
+        }
+    }
+}
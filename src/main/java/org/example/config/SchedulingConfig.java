@@ -0,0 +1,12 @@
+package org.example.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} jobs, such as the nightly pipeline summary rebuild.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
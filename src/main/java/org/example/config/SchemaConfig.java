@@ -0,0 +1,32 @@
+package org.example.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Flyway on startup. By default pending migrations are applied. With {@code crm.schema.migrate-on-startup=false}
+ * (the {@code prod} profile) an existing schema is only validated against the migrations, so a release with
+ * a pending migration fails fast instead of altering tables while the application boots; migrate it first,
+ * e.g. with the default profile or the Flyway CLI. An empty database (such as the in-memory one) is still
+ * created from the migrations.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(SchemaSettings.class)
+public class SchemaConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(SchemaSettings settings) {
+        return flyway -> {
+            if (settings.isMigrateOnStartup() || flyway.info().applied().length == 0) {
+                flyway.migrate();
+            } else {
+                flyway.validate();
+                log.info("Validated the schema against the migrations; none applied on startup");
+            }
+        };
+    }
+}
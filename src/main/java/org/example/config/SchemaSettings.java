@@ -0,0 +1,18 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * How the schema is checked and migrated on startup.
+ */
+@Data
+@ConfigurationProperties(prefix = "crm.schema")
+public class SchemaSettings {
+
+    // Fail startup when a repository query has no supporting index (see QueryIndexVerifier)
+    private boolean verifyQueryIndexes = true;
+
+    // Apply pending Flyway migrations on startup; when false an existing schema is only validated
+    private boolean migrateOnStartup = true;
+}
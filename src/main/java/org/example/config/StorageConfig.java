@@ -0,0 +1,106 @@
+package org.example.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * File storage of the {@code persistent} profile. With {@code crm.storage.restore-from} set, the backup is
+ * restored over the database file before the data source opens its first connection (and so before Flyway
+ * runs, which migrates an older backup). The replaced file is kept beside it.
+ * <p>
+ * A restore happens once: a marker beside the database records the backup it came from, and later starts
+ * with the same {@code restore-from} leave the (by then newer) database alone. Delete
+ * {@code <databaseName>.mv.db.restored} to restore the same backup again.
+ * <p>
+ * A backup is the zip written by H2's {@code BACKUP TO}; its {@code <databaseName>.mv.db} entry is the database.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(StorageSettings.class)
+public class StorageConfig {
+
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Bean
+    public static BeanPostProcessor restoreBackupPostProcessor(ObjectProvider<StorageSettings> settings) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource)) {
+                    return bean;
+                }
+                StorageSettings storage = settings.getObject();
+                if (storage.getRestoreFrom() != null) {
+                    restore(storage);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static void restore(StorageSettings storage) {
+        Path backup = storage.getRestoreFrom();
+        if (storage.getDirectory() == null) {
+            throw new IllegalStateException("crm.storage.restore-from needs the persistent profile (crm.storage.directory)");
+        }
+        if (!Files.isRegularFile(backup)) {
+            throw new IllegalStateException("Backup to restore not found: " + backup);
+        }
+        try {
+            Files.createDirectories(storage.getDirectory());
+            String fileName = storage.getDatabaseName() + ".mv.db";
+            Path database = storage.getDirectory().resolve(fileName);
+            Path marker = database.resolveSibling(fileName + ".restored");
+            String restoredFrom = backup.toAbsolutePath().normalize() + " " + Files.getLastModifiedTime(backup).toMillis();
+            if (Files.exists(database) && Files.exists(marker)
+                    && Files.readString(marker, StandardCharsets.UTF_8).equals(restoredFrom)) {
+                log.warn("Not restoring {} again: {} was restored from it already and may have changed since; "
+                        + "remove crm.storage.restore-from, or delete {} to restore it again", backup, database, marker);
+                return;
+            }
+            Path restored = database.resolveSibling(fileName + ".restoring");
+            if (!extract(backup, fileName, restored)) {
+                throw new IllegalStateException("Backup " + backup + " does not contain " + fileName);
+            }
+            if (Files.exists(database)) {
+                Path replaced = database.resolveSibling(database.getFileName() + "." + SUFFIX_FORMAT.format(LocalDateTime.now()));
+                Files.move(database, replaced);
+                log.info("Moved the current database to {}", replaced);
+            }
+            Files.move(restored, database);
+            Files.writeString(marker, restoredFrom, StandardCharsets.UTF_8);
+            log.info("Restored {} from {}", database, backup);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean extract(Path zip, String entryName, Path target) throws IOException {
+        try (ZipInputStream entries = new ZipInputStream(Files.newInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = entries.getNextEntry()) != null) {
+                if (entry.getName().equals(entryName)) {
+                    Files.copy(entries, target, StandardCopyOption.REPLACE_EXISTING);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
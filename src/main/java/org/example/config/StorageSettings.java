@@ -0,0 +1,30 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * File storage of the {@code persistent} profile: where the H2 database and its backups live, and a backup
+ * to restore before the database is opened.
+ */
+@Data
+@ConfigurationProperties(prefix = "crm.storage")
+public class StorageSettings {
+
+    // Directory of the database file; must match the one in spring.datasource.url
+    private Path directory;
+
+    // Database name in spring.datasource.url; its file is <directory>/<databaseName>.mv.db
+    private String databaseName = "crmdb";
+
+    // Where POST /api/backups writes; backups are disabled when unset
+    private Path backupDirectory;
+
+    // Newest backups kept; older ones are deleted after each backup (0 keeps all)
+    private int keepBackups = 7;
+
+    // Backup zip restored over the database file on the next start; restored once, later starts ignore it
+    private Path restoreFrom;
+}
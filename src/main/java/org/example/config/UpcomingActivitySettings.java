@@ -0,0 +1,19 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Reach and refresh rate of the in-memory upcoming-activity index.
+ */
+@Data
+@ConfigurationProperties(prefix = "crm.upcoming-activities")
+public class UpcomingActivitySettings {
+
+    // How far ahead the index holds planned activities; later ones are read from the database
+    private Duration horizon = Duration.ofDays(30);
+
+    private Duration reloadInterval = Duration.ofMinutes(10);
+}
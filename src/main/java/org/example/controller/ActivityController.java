@@ -1,6 +1,17 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.ActivityCalendar;
+import org.example.dto.ActivityDto;
+import org.example.dto.ActivityFilter;
+import org.example.dto.ActivityReminder;
+import org.example.dto.BulkResult;
+import org.example.dto.CalendarBucket;
+import org.example.dto.References;
+import org.example.event.QueueReminderSink;
 import org.example.model.Activity;
 import org.example.model.Contact;
 import org.example.model.Customer;
@@ -8,193 +19,270 @@ import org.example.model.Opportunity;
 import org.example.service.ActivityService;
 import org.example.service.ContactService;
 import org.example.service.CustomerService;
+import org.example.service.MergePatcher;
 import org.example.service.OpportunityService;
+import org.example.service.ReferenceResolver;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/activities")
 @RequiredArgsConstructor
 public class ActivityController {
 
+    private static final Set<String> SEARCH_SORTS = Set.of("id", "type", "status", "scheduledDate", "completedDate", "createdAt", "updatedAt");
+
     private final ActivityService activityService;
     private final CustomerService customerService;
     private final ContactService contactService;
     private final OpportunityService opportunityService;
+    private final ReferenceResolver referenceResolver;
+    private final ObjectMapper objectMapper;
+    private final ArrayResponses arrayResponses;
+    private final Optional<QueueReminderSink> reminderQueue;
+
+    // Without a cursor or limit the whole table is streamed as one array rather than collected first
+    @GetMapping(params = {"!after", "!limit"}, produces = {MediaType.APPLICATION_JSON_VALUE, ListResponses.CBOR_VALUE})
+    public ResponseEntity<StreamingResponseBody> getAllActivities(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return arrayResponses.array(accept, activityService::forEachActivity);
+    }
 
     @GetMapping
-    public ResponseEntity<List<Activity>> getAllActivities() {
-        List<Activity> activities = activityService.findAllActivities();
-        return ResponseEntity.ok(activities);
+    @QueryBudget(2)
+    public ResponseEntity<List<ActivityDto>> getActivitiesPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        Slice<ActivityDto> page = activityService.findActivitiesAfter(after, ListResponses.clampLimit(limit));
+        return ListResponses.keysetPage(page, ActivityDto::getId);
+    }
+
+    @GetMapping(produces = ListResponses.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamActivities() {
+        return ListResponses.ndjson(objectMapper, activityService::forEachActivity);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Activity> getActivityById(@PathVariable Long id) {
+    @QueryBudget(2)
+    public ResponseEntity<ActivityDto> getActivityById(@PathVariable Long id) {
         return activityService.findActivityById(id)
-                .map(ResponseEntity::ok)
+                .map(ActivityDto::from)
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<Activity>> getActivitiesByCustomer(@PathVariable Long customerId) {
+    @QueryBudget(3)
+    public ResponseEntity<List<ActivityDto>> getActivitiesByCustomer(@PathVariable Long customerId) {
         Optional<Customer> customer = customerService.findCustomerById(customerId);
         if (!customer.isPresent()) {
             return ResponseEntity.notFound().build();
         }
 
-        List<Activity> activities = activityService.findActivitiesByCustomer(customer.get());
+        List<ActivityDto> activities = activityService.findActivitiesByCustomer(customer.get());
         return ResponseEntity.ok(activities);
     }
 
     @GetMapping("/contact/{contactId}")
-    public ResponseEntity<List<Activity>> getActivitiesByContact(@PathVariable Long contactId) {
+    @QueryBudget(3)
+    public ResponseEntity<List<ActivityDto>> getActivitiesByContact(@PathVariable Long contactId) {
         Optional<Contact> contact = contactService.findContactById(contactId);
         if (!contact.isPresent()) {
             return ResponseEntity.notFound().build();
         }
 
-        List<Activity> activities = activityService.findActivitiesByContact(contact.get());
+        List<ActivityDto> activities = activityService.findActivitiesByContact(contact.get());
         return ResponseEntity.ok(activities);
     }
 
     @GetMapping("/opportunity/{opportunityId}")
-    public ResponseEntity<List<Activity>> getActivitiesByOpportunity(@PathVariable Long opportunityId) {
+    @QueryBudget(3)
+    public ResponseEntity<List<ActivityDto>> getActivitiesByOpportunity(@PathVariable Long opportunityId) {
         Optional<Opportunity> opportunity = opportunityService.findOpportunityById(opportunityId);
         if (!opportunity.isPresent()) {
             return ResponseEntity.notFound().build();
         }
 
-        List<Activity> activities = activityService.findActivitiesByOpportunity(opportunity.get());
+        List<ActivityDto> activities = activityService.findActivitiesByOpportunity(opportunity.get());
         return ResponseEntity.ok(activities);
     }
 
+    // Any combination of the filters in one query, paged with ?page=&size=&sort=property,asc|desc; the number
+    // of matches is sent in X-Total-Count
+    @GetMapping("/search")
+    @QueryBudget(2)
+    public ResponseEntity<List<ActivityDto>> searchActivities(ActivityFilter filter,
+            @PageableDefault(size = ListResponses.DEFAULT_LIMIT) Pageable pageable) {
+        return ListResponses.searchResults(activityService.searchActivities(filter, ListResponses.searchPage(pageable, SEARCH_SORTS)));
+    }
+
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Activity>> getActivitiesByType(@PathVariable String type) {
-        List<Activity> activities = activityService.findActivitiesByType(type);
+    @QueryBudget(2)
+    public ResponseEntity<List<ActivityDto>> getActivitiesByType(@PathVariable String type) {
+        List<ActivityDto> activities = activityService.findActivitiesByType(type);
         return ResponseEntity.ok(activities);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Activity>> getActivitiesByStatus(@PathVariable String status) {
-        List<Activity> activities = activityService.findActivitiesByStatus(status);
+    @QueryBudget(2)
+    public ResponseEntity<List<ActivityDto>> getActivitiesByStatus(@PathVariable String status) {
+        List<ActivityDto> activities = activityService.findActivitiesByStatus(status);
         return ResponseEntity.ok(activities);
     }
 
     @GetMapping("/date-range")
-    public ResponseEntity<List<Activity>> getActivitiesByDateRange(
+    @QueryBudget(2)
+    public ResponseEntity<List<ActivityDto>> getActivitiesByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
 
-        List<Activity> activities = activityService.findActivitiesByDateRange(startDate, endDate);
+        List<ActivityDto> activities = activityService.findActivitiesByDateRange(startDate, endDate);
         return ResponseEntity.ok(activities);
     }
 
     @GetMapping("/recent")
-    public ResponseEntity<List<Activity>> getRecentActivities() {
-        List<Activity> activities = activityService.findRecentActivities();
+    @QueryBudget(2)
+    public ResponseEntity<List<ActivityDto>> getRecentActivities() {
+        List<ActivityDto> activities = activityService.findRecentActivities();
         return ResponseEntity.ok(activities);
     }
 
     @GetMapping("/upcoming")
-    public ResponseEntity<List<Activity>> getUpcomingActivities() {
-        List<Activity> activities = activityService.findUpcomingActivities();
+    @QueryBudget(2)
+    public ResponseEntity<List<ActivityDto>> getUpcomingActivities(
+            @RequestParam(required = false) Long customer,
+            @RequestParam(required = false) Integer limit) {
+        List<ActivityDto> activities = activityService.findUpcomingActivities(customer, ListResponses.clampLimit(limit));
         return ResponseEntity.ok(activities);
     }
 
+    @GetMapping("/calendar")
+    @QueryBudget(2)
+    public ResponseEntity<List<CalendarBucket>> getCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long customer,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        ActivityCalendar calendar = activityService.findCalendar(from, to, customer, granularity, after, ListResponses.clampLimit(limit));
+
+        // The cursor to pass as after for the next page; absent on the last page
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (calendar.getNextCursor() != null) {
+            response.header(ListResponses.NEXT_CURSOR_HEADER, calendar.getNextCursor());
+        }
+        return response.body(calendar.getBuckets());
+    }
+
+    /**
+     * Takes the oldest reminders waiting in the in-memory queue; 404 unless crm.reminders.queue.enabled is set.
+     */
+    @GetMapping("/reminders")
+    @QueryBudget(0)
+    public ResponseEntity<List<ActivityReminder>> takeReminders(@RequestParam(required = false) Integer limit) {
+        return reminderQueue
+                .map(queue -> ResponseEntity.ok(queue.take(ListResponses.clampLimit(limit))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping
-    public ResponseEntity<Activity> createActivity(@Valid @RequestBody Activity activity) {
+    public ResponseEntity<ActivityDto> createActivity(@Valid @RequestBody Activity activity) {
         if (activity.getId() != null) {
             return ResponseEntity.badRequest().build();
         }
 
         // Validate references to related entities
-        if (activity.getCustomer() != null && activity.getCustomer().getId() != null) {
-            Optional<Customer> customer = customerService.findCustomerById(activity.getCustomer().getId());
-            if (!customer.isPresent()) {
-                return ResponseEntity.badRequest().build();
-            }
-            activity.setCustomer(customer.get());
-        }
-
-        if (activity.getContact() != null && activity.getContact().getId() != null) {
-            Optional<Contact> contact = contactService.findContactById(activity.getContact().getId());
-            if (!contact.isPresent()) {
-                return ResponseEntity.badRequest().build();
-            }
-            activity.setContact(contact.get());
-        }
-
-        if (activity.getOpportunity() != null && activity.getOpportunity().getId() != null) {
-            Optional<Opportunity> opportunity = opportunityService.findOpportunityById(activity.getOpportunity().getId());
-            if (!opportunity.isPresent()) {
-                return ResponseEntity.badRequest().build();
-            }
-            activity.setOpportunity(opportunity.get());
+        References references = referenceResolver.resolve(
+                activity.getCustomer(), activity.getContact(), activity.getOpportunity());
+        if (!references.isComplete()) {
+            return ResponseEntity.badRequest().build();
         }
 
-        Activity savedActivity = activityService.saveActivity(activity);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedActivity);
+        Activity savedActivity = activityService.createActivity(activity);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ActivityDto.from(savedActivity, references));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Activity> updateActivity(@PathVariable Long id, @Valid @RequestBody Activity activity) {
-        if (!activityService.findActivityById(id).isPresent()) {
-            return ResponseEntity.notFound().build();
-        }
-
+    public ResponseEntity<ActivityDto> updateActivity(@PathVariable Long id, @Valid @RequestBody Activity activity,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         // Validate references to related entities
-        if (activity.getCustomer() != null && activity.getCustomer().getId() != null) {
-            Optional<Customer> customer = customerService.findCustomerById(activity.getCustomer().getId());
-            if (!customer.isPresent()) {
-                return ResponseEntity.badRequest().build();
-            }
-            activity.setCustomer(customer.get());
-        }
-
-        if (activity.getContact() != null && activity.getContact().getId() != null) {
-            Optional<Contact> contact = contactService.findContactById(activity.getContact().getId());
-            if (!contact.isPresent()) {
-                return ResponseEntity.badRequest().build();
-            }
-            activity.setContact(contact.get());
+        References references = referenceResolver.resolve(
+                activity.getCustomer(), activity.getContact(), activity.getOpportunity());
+        if (!references.isComplete()) {
+            return ResponseEntity.badRequest().build();
         }
 
-        if (activity.getOpportunity() != null && activity.getOpportunity().getId() != null) {
-            Optional<Opportunity> opportunity = opportunityService.findOpportunityById(activity.getOpportunity().getId());
-            if (!opportunity.isPresent()) {
-                return ResponseEntity.badRequest().build();
-            }
-            activity.setOpportunity(opportunity.get());
-        }
+        return activityService.updateActivity(id, activity, EntityTags.expectedVersion(ifMatch))
+                .map(updatedActivity -> ActivityDto.from(updatedActivity, references))
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
+                .orElse(ResponseEntity.notFound().build());
+    }
 
-        activity.setId(id);
-        Activity updatedActivity = activityService.saveActivity(activity);
-        return ResponseEntity.ok(updatedActivity);
+    // Merge patch: only the fields in the body change; null clears a field
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ActivityDto> patchActivity(@PathVariable Long id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return activityService.patchActivity(id, patch, EntityTags.expectedVersion(ifMatch))
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping("/{id}/complete")
-    public ResponseEntity<Activity> completeActivity(@PathVariable Long id) {
+    public ResponseEntity<ActivityDto> completeActivity(@PathVariable Long id) {
         Activity completedActivity = activityService.completeActivity(id);
         if (completedActivity == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(completedActivity);
+        return ResponseEntity.ok(ActivityDto.from(completedActivity));
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> createActivities(InputStream body) throws IOException {
+        try (MappingIterator<Activity> activities = BulkRequests.rows(objectMapper, body, Activity.class)) {
+            return ResponseEntity.ok(activityService.createActivities(activities));
+        }
+    }
+
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> updateActivities(InputStream body) throws IOException {
+        try (MappingIterator<Activity> activities = BulkRequests.rows(objectMapper, body, Activity.class)) {
+            return ResponseEntity.ok(activityService.updateActivities(activities));
+        }
+    }
+
+    @DeleteMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> deleteActivities(InputStream body) throws IOException {
+        try (MappingIterator<Long> ids = BulkRequests.rows(objectMapper, body, Long.class)) {
+            return ResponseEntity.ok(activityService.deleteActivities(ids));
+        }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteActivity(@PathVariable Long id) {
-        if (!activityService.findActivityById(id).isPresent()) {
+    public ResponseEntity<Void> deleteActivity(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!activityService.deleteActivity(id, EntityTags.expectedVersion(ifMatch))) {
             return ResponseEntity.notFound().build();
         }
-
-        activityService.deleteActivity(id);
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
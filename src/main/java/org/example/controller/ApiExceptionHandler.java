@@ -0,0 +1,45 @@
+package org.example.controller;
+
+import jakarta.persistence.OptimisticLockException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Maps exceptions shared by all controllers to responses.
+ */
+@Slf4j
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    /**
+     * A request the services rejected (an unknown sort property, an invalid filter, patch or date range):
+     * 400 with the reason.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException e, HttpServletRequest request) {
+        log.debug("Rejected {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+        return ResponseEntity.badRequest().body(Map.of("message", String.valueOf(e.getMessage())));
+    }
+
+    /**
+     * A write lost an optimistic lock: 412 when the client stated the version it expected in
+     * {@code If-Match}, otherwise 409 because another write committed while this one ran.
+     */
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<Map<String, String>> handleOptimisticLock(Exception e, HttpServletRequest request) {
+        log.debug("Optimistic lock conflict on {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+        boolean conditional = request.getHeader(HttpHeaders.IF_MATCH) != null;
+        return ResponseEntity.status(conditional ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                .body(Map.of("message", conditional
+                        ? "The resource has changed since the version given in If-Match"
+                        : "The resource was changed concurrently; reload it and retry"));
+    }
+}
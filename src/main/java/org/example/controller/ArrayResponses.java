@@ -0,0 +1,56 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams the unpaged lists (see {@link ListResponses#array}) as JSON or, when the {@code Accept} header
+ * ranks it first, CBOR. Streamed bodies bypass the message converters, so the format is chosen here with
+ * the converters' mappers.
+ */
+@Component
+class ArrayResponses {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+
+    ArrayResponses(ObjectMapper objectMapper, MappingJackson2CborHttpMessageConverter cborConverter) {
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborConverter.getObjectMapper();
+    }
+
+    <T> ResponseEntity<StreamingResponseBody> array(String accept, Consumer<Consumer<T>> source) {
+        return prefersCbor(accept)
+                ? ListResponses.array(cborMapper, ListResponses.CBOR, source)
+                : ListResponses.array(objectMapper, MediaType.APPLICATION_JSON, source);
+    }
+
+    private static boolean prefersCbor(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> acceptable = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType type : acceptable) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            // Wildcards match JSON first
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (type.isCompatibleWith(ListResponses.CBOR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
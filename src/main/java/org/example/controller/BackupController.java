@@ -0,0 +1,63 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.BackupInfo;
+import org.example.service.BackupService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Online database backups; only available with file storage (the {@code persistent} profile). Created on
+ * the first request, as backups are rare.
+ */
+@RestController
+@RequestMapping("/api/backups")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "crm.storage", name = "backup-directory")
+@Lazy
+public class BackupController {
+
+    private final BackupService backupService;
+
+    @PostMapping
+    public ResponseEntity<?> createBackup() {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(backupService.createBackup());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    @QueryBudget(0)
+    public ResponseEntity<List<BackupInfo>> getBackups() {
+        return ResponseEntity.ok(backupService.findBackups());
+    }
+
+    // Downloads a backup, e.g. to keep a copy off the host
+    @GetMapping("/{name}")
+    @QueryBudget(0)
+    public ResponseEntity<Resource> downloadBackup(@PathVariable String name) {
+        return backupService.findBackup(name)
+                .map(backup -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("application/zip"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(name).build().toString())
+                        .<Resource>body(new FileSystemResource(backup)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
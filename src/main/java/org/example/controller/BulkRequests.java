@@ -0,0 +1,24 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the body of the {@code /bulk} endpoints.
+ */
+final class BulkRequests {
+
+    private BulkRequests() {
+    }
+
+    /**
+     * Iterates over the rows of a JSON array or of NDJSON (one document per line) without
+     * reading the whole body into memory.
+     */
+    static <T> MappingIterator<T> rows(ObjectMapper objectMapper, InputStream body, Class<T> type) throws IOException {
+        return objectMapper.readerFor(type).readValues(body);
+    }
+}
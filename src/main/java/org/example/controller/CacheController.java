@@ -0,0 +1,27 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.CacheStatistics;
+import org.example.service.CacheStatsService;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+// Only read by operators; not worth creating during startup
+@Lazy
+public class CacheController {
+
+    private final CacheStatsService cacheStatsService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatistics>> getStatistics() {
+        return ResponseEntity.ok(cacheStatsService.getStatistics());
+    }
+}
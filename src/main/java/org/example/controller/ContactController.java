@@ -1,115 +1,194 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.example.config.CsvFormat;
+import org.example.dto.BulkResult;
+import org.example.dto.ContactDto;
+import org.example.dto.ContactCsvRow;
+import org.example.dto.ContactFilter;
+import org.example.dto.References;
 import org.example.model.Contact;
 import org.example.model.Customer;
 import org.example.service.ContactService;
 import org.example.service.CustomerService;
+import org.example.service.MergePatcher;
+import org.example.service.ReferenceResolver;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/contacts")
 @RequiredArgsConstructor
 public class ContactController {
 
+    private static final Set<String> SEARCH_SORTS = Set.of("id", "firstName", "lastName", "email", "createdAt", "updatedAt");
+
     private final ContactService contactService;
     private final CustomerService customerService;
+    private final ReferenceResolver referenceResolver;
+    private final ObjectMapper objectMapper;
+    private final ArrayResponses arrayResponses;
+    private final CsvFormat csvFormat;
+
+    // Without a cursor or limit the whole table is streamed as one array rather than collected first
+    @GetMapping(params = {"!after", "!limit"}, produces = {MediaType.APPLICATION_JSON_VALUE, ListResponses.CBOR_VALUE})
+    public ResponseEntity<StreamingResponseBody> getAllContacts(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return arrayResponses.array(accept, contactService::forEachContact);
+    }
 
     @GetMapping
-    public ResponseEntity<List<Contact>> getAllContacts() {
-        List<Contact> contacts = contactService.findAllContacts();
-        return ResponseEntity.ok(contacts);
+    @QueryBudget(2)
+    public ResponseEntity<List<ContactDto>> getContactsPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        Slice<ContactDto> page = contactService.findContactsAfter(after, ListResponses.clampLimit(limit));
+        return ListResponses.keysetPage(page, ContactDto::getId);
+    }
+
+    @GetMapping(produces = ListResponses.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamContacts() {
+        return ListResponses.ndjson(objectMapper, contactService::forEachContact);
+    }
+
+    @GetMapping(produces = ListResponses.CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportContacts() {
+        return ListResponses.<ContactCsvRow>csv(csvFormat.writer(ContactCsvRow.class), "contacts.csv",
+                rows -> contactService.forEachContact(contact -> rows.accept(ContactCsvRow.from(contact))));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Contact> getContactById(@PathVariable Long id) {
+    @QueryBudget(2)
+    public ResponseEntity<ContactDto> getContactById(@PathVariable Long id) {
         return contactService.findContactById(id)
-                .map(ResponseEntity::ok)
+                .map(ContactDto::from)
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<Contact>> getContactsByCustomer(@PathVariable Long customerId) {
+    @QueryBudget(3)
+    public ResponseEntity<List<ContactDto>> getContactsByCustomer(@PathVariable Long customerId) {
         Optional<Customer> customer = customerService.findCustomerById(customerId);
         if (!customer.isPresent()) {
             return ResponseEntity.notFound().build();
         }
 
-        List<Contact> contacts = contactService.findContactsByCustomer(customer.get());
+        List<ContactDto> contacts = contactService.findContactsByCustomer(customer.get());
         return ResponseEntity.ok(contacts);
     }
 
     @GetMapping("/primary")
-    public ResponseEntity<List<Contact>> getPrimaryContacts() {
-        List<Contact> primaryContacts = contactService.findPrimaryContacts();
+    @QueryBudget(2)
+    public ResponseEntity<List<ContactDto>> getPrimaryContacts() {
+        List<ContactDto> primaryContacts = contactService.findPrimaryContacts();
         return ResponseEntity.ok(primaryContacts);
     }
 
+    // Any combination of the filters in one query, paged with ?page=&size=&sort=property,asc|desc; the number
+    // of matches is sent in X-Total-Count
     @GetMapping("/search")
-    public ResponseEntity<List<Contact>> searchContacts(@RequestParam String name) {
-        List<Contact> contacts = contactService.findContactsByName(name);
-        return ResponseEntity.ok(contacts);
+    @QueryBudget(2)
+    public ResponseEntity<List<ContactDto>> searchContacts(ContactFilter filter,
+            @PageableDefault(size = ListResponses.DEFAULT_LIMIT) Pageable pageable) {
+        return ListResponses.searchResults(contactService.searchContacts(filter, ListResponses.searchPage(pageable, SEARCH_SORTS)));
     }
 
     @GetMapping("/email")
-    public ResponseEntity<Contact> getContactByEmail(@RequestParam String email) {
+    @QueryBudget(2)
+    public ResponseEntity<ContactDto> getContactByEmail(@RequestParam String email) {
         return contactService.findContactByEmail(email)
+                .map(ContactDto::from)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public ResponseEntity<Contact> createContact(@Valid @RequestBody Contact contact) {
+    public ResponseEntity<ContactDto> createContact(@Valid @RequestBody Contact contact) {
         if (contact.getId() != null) {
             return ResponseEntity.badRequest().build();
         }
 
         // Check if customer exists
-        if (contact.getCustomer() != null && contact.getCustomer().getId() != null) {
-            Optional<Customer> customer = customerService.findCustomerById(contact.getCustomer().getId());
-            if (!customer.isPresent()) {
-                return ResponseEntity.badRequest().build();
-            }
-            contact.setCustomer(customer.get());
+        References references = referenceResolver.resolve(contact.getCustomer());
+        if (!references.isComplete()) {
+            return ResponseEntity.badRequest().build();
         }
 
-        Contact savedContact = contactService.saveContact(contact);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedContact);
+        Contact savedContact = contactService.createContact(contact);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ContactDto.from(savedContact, references));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Contact> updateContact(@PathVariable Long id, @Valid @RequestBody Contact contact) {
-        if (!contactService.findContactById(id).isPresent()) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<ContactDto> updateContact(@PathVariable Long id, @Valid @RequestBody Contact contact,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Check if customer exists
+        References references = referenceResolver.resolve(contact.getCustomer());
+        if (!references.isComplete()) {
+            return ResponseEntity.badRequest().build();
         }
 
-        // Check if customer exists
-        if (contact.getCustomer() != null && contact.getCustomer().getId() != null) {
-            Optional<Customer> customer = customerService.findCustomerById(contact.getCustomer().getId());
-            if (!customer.isPresent()) {
-                return ResponseEntity.badRequest().build();
-            }
-            contact.setCustomer(customer.get());
+        return contactService.updateContact(id, contact, EntityTags.expectedVersion(ifMatch))
+                .map(updatedContact -> ContactDto.from(updatedContact, references))
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Merge patch: only the fields in the body change; null clears a field
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ContactDto> patchContact(@PathVariable Long id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return contactService.patchContact(id, patch, EntityTags.expectedVersion(ifMatch))
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> createContacts(InputStream body) throws IOException {
+        try (MappingIterator<Contact> contacts = BulkRequests.rows(objectMapper, body, Contact.class)) {
+            return ResponseEntity.ok(contactService.createContacts(contacts));
         }
+    }
+
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> updateContacts(InputStream body) throws IOException {
+        try (MappingIterator<Contact> contacts = BulkRequests.rows(objectMapper, body, Contact.class)) {
+            return ResponseEntity.ok(contactService.updateContacts(contacts));
+        }
+    }
 
-        contact.setId(id);
-        Contact updatedContact = contactService.saveContact(contact);
-        return ResponseEntity.ok(updatedContact);
+    @DeleteMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> deleteContacts(InputStream body) throws IOException {
+        try (MappingIterator<Long> ids = BulkRequests.rows(objectMapper, body, Long.class)) {
+            return ResponseEntity.ok(contactService.deleteContacts(ids));
+        }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteContact(@PathVariable Long id) {
-        if (!contactService.findContactById(id).isPresent()) {
+    public ResponseEntity<Void> deleteContact(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!contactService.deleteContact(id, EntityTags.expectedVersion(ifMatch))) {
             return ResponseEntity.notFound().build();
         }
-
-        contactService.deleteContact(id);
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -1,54 +1,92 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.example.config.CsvFormat;
+import org.example.dto.BulkResult;
+import org.example.dto.CustomerDto;
+import org.example.dto.CustomerCsvRow;
+import org.example.dto.CustomerFilter;
 import org.example.model.Customer;
 import org.example.service.CustomerService;
+import org.example.service.MergePatcher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/customers")
 @RequiredArgsConstructor
 public class CustomerController {
 
+    private static final Set<String> SEARCH_SORTS = Set.of("id", "companyName", "status", "industry", "createdAt", "updatedAt");
+
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+    private final ArrayResponses arrayResponses;
+    private final CsvFormat csvFormat;
+
+    // Without a cursor or limit the whole table is streamed as one array rather than collected first
+    @GetMapping(params = {"!after", "!limit"}, produces = {MediaType.APPLICATION_JSON_VALUE, ListResponses.CBOR_VALUE})
+    public ResponseEntity<StreamingResponseBody> getAllCustomers(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return arrayResponses.array(accept, customerService::forEachCustomer);
+    }
 
     @GetMapping
-    public ResponseEntity<List<Customer>> getAllCustomers() {
-        List<Customer> customers = customerService.findAllCustomers();
-        return ResponseEntity.ok(customers);
+    @QueryBudget(2)
+    public ResponseEntity<List<CustomerDto>> getCustomersPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        Slice<CustomerDto> page = customerService.findCustomersAfter(after, ListResponses.clampLimit(limit));
+        return ListResponses.keysetPage(page, CustomerDto::getId);
+    }
+
+    @GetMapping(produces = ListResponses.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCustomers() {
+        return ListResponses.ndjson(objectMapper, customerService::forEachCustomer);
+    }
+
+    @GetMapping(produces = ListResponses.CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCustomers() {
+        return ListResponses.<CustomerCsvRow>csv(csvFormat.writer(CustomerCsvRow.class), "customers.csv",
+                rows -> customerService.forEachCustomer(customer -> rows.accept(CustomerCsvRow.from(customer))));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Customer> getCustomerById(@PathVariable Long id) {
+    @QueryBudget(2)
+    public ResponseEntity<CustomerDto> getCustomerById(@PathVariable Long id) {
         return customerService.findCustomerById(id)
-                .map(ResponseEntity::ok)
+                .map(CustomerDto::from)
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Any combination of the filters in one query, paged with ?page=&size=&sort=property,asc|desc; the number
+    // of matches is sent in X-Total-Count
     @GetMapping("/search")
-    public ResponseEntity<List<Customer>> searchCustomers(
-            @RequestParam(required = false) String name,
-            @RequestParam(required = false) String status,
-            @RequestParam(required = false) String industry) {
-
-        if (name != null && !name.isEmpty()) {
-            return ResponseEntity.ok(customerService.findCustomersByName(name));
-        } else if (status != null && !status.isEmpty()) {
-            return ResponseEntity.ok(customerService.findCustomersByStatus(status));
-        } else if (industry != null && !industry.isEmpty()) {
-            return ResponseEntity.ok(customerService.findCustomersByIndustry(industry));
-        } else {
-            return ResponseEntity.ok(customerService.findAllCustomers());
-        }
+    @QueryBudget(3)
+    public ResponseEntity<List<CustomerDto>> searchCustomers(CustomerFilter filter,
+            @PageableDefault(size = ListResponses.DEFAULT_LIMIT) Pageable pageable) {
+        return ListResponses.searchResults(customerService.searchCustomers(filter, ListResponses.searchPage(pageable, SEARCH_SORTS)));
     }
 
     @PostMapping
-    public ResponseEntity<Customer> createCustomer(@Valid @RequestBody Customer customer) {
+    public ResponseEntity<CustomerDto> createCustomer(@Valid @RequestBody Customer customer) {
         if (customer.getId() != null) {
             return ResponseEntity.badRequest().build();
         }
@@ -58,27 +96,57 @@ public class CustomerController {
         }
 
         Customer savedCustomer = customerService.saveCustomer(customer);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedCustomer);
+        return ResponseEntity.status(HttpStatus.CREATED).body(CustomerDto.from(savedCustomer));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Customer> updateCustomer(@PathVariable Long id, @Valid @RequestBody Customer customer) {
-        if (!customerService.findCustomerById(id).isPresent()) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<CustomerDto> updateCustomer(@PathVariable Long id, @Valid @RequestBody Customer customer,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return customerService.updateCustomer(id, customer, EntityTags.expectedVersion(ifMatch))
+                .map(CustomerDto::from)
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Merge patch: only the fields in the body change; null clears a field
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<CustomerDto> patchCustomer(@PathVariable Long id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return customerService.patchCustomer(id, patch, EntityTags.expectedVersion(ifMatch))
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> createCustomers(InputStream body) throws IOException {
+        try (MappingIterator<Customer> customers = BulkRequests.rows(objectMapper, body, Customer.class)) {
+            return ResponseEntity.ok(customerService.createCustomers(customers));
         }
+    }
 
-        customer.setId(id);
-        Customer updatedCustomer = customerService.saveCustomer(customer);
-        return ResponseEntity.ok(updatedCustomer);
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> updateCustomers(InputStream body) throws IOException {
+        try (MappingIterator<Customer> customers = BulkRequests.rows(objectMapper, body, Customer.class)) {
+            return ResponseEntity.ok(customerService.updateCustomers(customers));
+        }
+    }
+
+    @DeleteMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> deleteCustomers(InputStream body) throws IOException {
+        try (MappingIterator<Long> ids = BulkRequests.rows(objectMapper, body, Long.class)) {
+            return ResponseEntity.ok(customerService.deleteCustomers(ids));
+        }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCustomer(@PathVariable Long id) {
-        if (!customerService.findCustomerById(id).isPresent()) {
+    public ResponseEntity<Void> deleteCustomer(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!customerService.deleteCustomer(id, EntityTags.expectedVersion(ifMatch))) {
             return ResponseEntity.notFound().build();
         }
 
-        customerService.deleteCustomer(id);
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package org.example.controller;
+
+import org.example.dto.ActivityDto;
+import org.example.dto.ContactDto;
+import org.example.dto.ContactRef;
+import org.example.dto.CustomerDto;
+import org.example.dto.CustomerRef;
+import org.example.dto.OpportunityDto;
+import org.example.dto.OpportunityRef;
+import org.example.dto.ProductDto;
+
+/**
+ * Strong entity tags built from entity versions, for conditional GET ({@code If-None-Match}) and
+ * conditional writes ({@code If-Match}).
+ * <p>
+ * A tag lists the version of the entity followed by the versions of the customer, contact and opportunity
+ * its read model embeds ({@code -} when absent), e.g. {@code "4.2.-.7"}: renaming a customer changes the tags
+ * of the contacts, opportunities and activities that show its name. A write precondition compares only the
+ * leading version, since editing a referenced entity does not conflict with editing this one.
+ */
+final class EntityTags {
+
+    // Never matches a stored version, so a malformed or weak If-Match fails the precondition
+    private static final long NO_VERSION = -1;
+
+    private EntityTags() {
+    }
+
+    static String of(CustomerDto customer) {
+        return tag(customer.getVersion());
+    }
+
+    static String of(ProductDto product) {
+        return tag(product.getVersion());
+    }
+
+    static String of(ContactDto contact) {
+        return tag(contact.getVersion(), version(contact.getCustomer()));
+    }
+
+    static String of(OpportunityDto opportunity) {
+        return tag(opportunity.getVersion(), version(opportunity.getCustomer()));
+    }
+
+    static String of(ActivityDto activity) {
+        return tag(activity.getVersion(), version(activity.getCustomer()), version(activity.getContact()),
+                version(activity.getOpportunity()));
+    }
+
+    /**
+     * The entity version an {@code If-Match} header requires, or null when there is no header or it is
+     * {@code *}. A weak, malformed or multi-valued header yields a version that never matches.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"' || tag.contains(",")) {
+            return NO_VERSION;
+        }
+        int end = tag.indexOf('.');
+        try {
+            return Long.parseLong(tag.substring(1, end > 0 ? end : tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return NO_VERSION;
+        }
+    }
+
+    private static String tag(long version, String... references) {
+        StringBuilder tag = new StringBuilder().append('"').append(version);
+        for (String reference : references) {
+            tag.append('.').append(reference);
+        }
+        return tag.append('"').toString();
+    }
+
+    private static String version(CustomerRef customer) {
+        return customer != null ? String.valueOf(customer.getVersion()) : "-";
+    }
+
+    private static String version(ContactRef contact) {
+        return contact != null ? String.valueOf(contact.getVersion()) : "-";
+    }
+
+    private static String version(OpportunityRef opportunity) {
+        return opportunity != null ? String.valueOf(opportunity.getVersion()) : "-";
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.BulkResult;
+import org.example.dto.ImportJobDto;
+import org.example.service.ImportService;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/imports")
+@RequiredArgsConstructor
+// Created on the first import request instead of at startup
+@Lazy
+public class ImportController {
+
+    private final ImportService importService;
+
+    /**
+     * Starts importing the CSV request body as {@code type} rows. The import runs in the
+     * background; poll the returned job for progress.
+     */
+    @PostMapping(consumes = ListResponses.CSV_VALUE)
+    public ResponseEntity<ImportJobDto> startImport(@RequestParam String type,
+                                         @RequestParam(required = false) String fileName,
+                                         InputStream body) throws IOException {
+        if (!ImportService.TYPES.contains(type)) {
+            return ResponseEntity.badRequest().build();
+        }
+        ImportJobDto job = importService.start(type, fileName, body);
+        return ResponseEntity.accepted().location(URI.create("/api/imports/" + job.getId())).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDto> getImport(@PathVariable Long id) {
+        return importService.findJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/errors")
+    public ResponseEntity<List<BulkResult.RowError>> getImportErrors(@PathVariable Long id,
+                                                                     @RequestParam(required = false) Integer limit) {
+        if (importService.findJob(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(importService.findErrors(id, ListResponses.clampLimit(limit)));
+    }
+
+    /**
+     * Continues a failed import after its last committed chunk.
+     */
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ImportJobDto> resumeImport(@PathVariable Long id) {
+        if (importService.findJob(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!importService.resume(id)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return importService.findJob(id)
+                .map(job -> ResponseEntity.accepted().body(job))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
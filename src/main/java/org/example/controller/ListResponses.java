@@ -0,0 +1,168 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Shared helpers for the keyset-paged, streamed (JSON or CBOR array, NDJSON) and CSV-exported list
+ * endpoints and the offset-paged search endpoints.
+ */
+final class ListResponses {
+
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+    static final String CSV_VALUE = "text/csv";
+    static final MediaType CSV = MediaType.parseMediaType(CSV_VALUE);
+    static final String CBOR_VALUE = "application/cbor";
+    static final MediaType CBOR = MediaType.parseMediaType(CBOR_VALUE);
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    private ListResponses() {
+    }
+
+    static boolean isPaged(Long after, Integer limit) {
+        return after != null || limit != null;
+    }
+
+    static int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Returns the slice content; the id to pass as {@code after} for the next page is sent in
+     * the {@value #NEXT_CURSOR_HEADER} header and is absent on the last page.
+     */
+    static <T> ResponseEntity<List<T>> keysetPage(Slice<T> slice, Function<T, Long> idOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        List<T> content = slice.getContent();
+        if (slice.hasNext() && !content.isEmpty()) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(idOf.apply(content.get(content.size() - 1))));
+        }
+        return response.body(content);
+    }
+
+    /**
+     * The page to fetch for a search: at most {@value #MAX_LIMIT} rows, sorted by the requested properties and
+     * then by id, so that rows with equal sort values keep their order from page to page.
+     *
+     * @throws IllegalArgumentException when sorting by a property outside {@code sortable}
+     */
+    static Pageable searchPage(Pageable pageable, Set<String> sortable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!sortable.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort by " + order.getProperty() + "; sortable: "
+                        + String.join(", ", new TreeSet<>(sortable)));
+            }
+        }
+        Sort sort = pageable.getSort().getOrderFor("id") != null ? pageable.getSort() : pageable.getSort().and(Sort.by("id"));
+        return PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_LIMIT), sort);
+    }
+
+    /**
+     * Returns the page content; the number of matches on all pages is sent in the
+     * {@value #TOTAL_COUNT_HEADER} header.
+     */
+    static <T> ResponseEntity<List<T>> searchResults(Page<T> page) {
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotalElements()))
+                .body(page.getContent());
+    }
+
+    /**
+     * Writes every element produced by {@code source} into a single array as it is produced, in the format of
+     * {@code objectMapper} (sent as {@code contentType}), so the list is never held in memory.
+     */
+    static <T> ResponseEntity<StreamingResponseBody> array(ObjectMapper objectMapper, MediaType contentType,
+                                                           Consumer<Consumer<T>> source) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                source.accept(item -> {
+                    try {
+                        writer.writeValue(generator, item);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    /**
+     * Writes every element produced by {@code source} as one JSON document per line.
+     */
+    static <T> ResponseEntity<StreamingResponseBody> ndjson(ObjectMapper objectMapper,
+                                                            Consumer<Consumer<T>> source) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // Lines are terminated explicitly instead of using Jackson's root value separator
+                generator.setRootValueSeparator(null);
+                source.accept(item -> {
+                    try {
+                        writer.writeValue(generator, item);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    /**
+     * Writes every row produced by {@code source} as a CSV line after the header line, as a
+     * download named {@code fileName}.
+     */
+    static <T> ResponseEntity<StreamingResponseBody> csv(ObjectWriter rowWriter, String fileName,
+                                                         Consumer<Consumer<T>> source) {
+        ObjectWriter writer = rowWriter.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter rows = writer.writeValues(outputStream)) {
+                source.accept(row -> {
+                    try {
+                        rows.write(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
@@ -1,132 +1,240 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.example.config.CsvFormat;
+import org.example.dto.BulkResult;
+import org.example.dto.Forecast;
+import org.example.dto.OpportunityDto;
+import org.example.dto.OpportunityCsvRow;
+import org.example.dto.OpportunityFilter;
+import org.example.dto.References;
 import org.example.model.Customer;
 import org.example.model.Opportunity;
 import org.example.service.CustomerService;
+import org.example.service.ForecastService;
+import org.example.service.MergePatcher;
 import org.example.service.OpportunityService;
+import org.example.service.ReferenceResolver;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/opportunities")
 @RequiredArgsConstructor
 public class OpportunityController {
 
+    private static final Set<String> SEARCH_SORTS = Set.of("id", "name", "status", "stage", "amount", "closingDate", "probability", "createdAt", "updatedAt");
+
     private final OpportunityService opportunityService;
     private final CustomerService customerService;
+    private final ForecastService forecastService;
+    private final ReferenceResolver referenceResolver;
+    private final ObjectMapper objectMapper;
+    private final ArrayResponses arrayResponses;
+    private final CsvFormat csvFormat;
+
+    // Without a cursor or limit the whole table is streamed as one array rather than collected first
+    @GetMapping(params = {"!after", "!limit"}, produces = {MediaType.APPLICATION_JSON_VALUE, ListResponses.CBOR_VALUE})
+    public ResponseEntity<StreamingResponseBody> getAllOpportunities(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return arrayResponses.array(accept, opportunityService::forEachOpportunity);
+    }
 
     @GetMapping
-    public ResponseEntity<List<Opportunity>> getAllOpportunities() {
-        List<Opportunity> opportunities = opportunityService.findAllOpportunities();
-        return ResponseEntity.ok(opportunities);
+    @QueryBudget(2)
+    public ResponseEntity<List<OpportunityDto>> getOpportunitiesPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        Slice<OpportunityDto> page = opportunityService.findOpportunitiesAfter(after, ListResponses.clampLimit(limit));
+        return ListResponses.keysetPage(page, OpportunityDto::getId);
+    }
+
+    @GetMapping(produces = ListResponses.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOpportunities() {
+        return ListResponses.ndjson(objectMapper, opportunityService::forEachOpportunity);
+    }
+
+    @GetMapping(produces = ListResponses.CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOpportunities() {
+        return ListResponses.<OpportunityCsvRow>csv(csvFormat.writer(OpportunityCsvRow.class), "opportunities.csv",
+                rows -> opportunityService.forEachOpportunity(opportunity -> rows.accept(OpportunityCsvRow.from(opportunity))));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Opportunity> getOpportunityById(@PathVariable Long id) {
+    @QueryBudget(2)
+    public ResponseEntity<OpportunityDto> getOpportunityById(@PathVariable Long id) {
         return opportunityService.findOpportunityById(id)
-                .map(ResponseEntity::ok)
+                .map(OpportunityDto::from)
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<Opportunity>> getOpportunitiesByCustomer(@PathVariable Long customerId) {
+    @QueryBudget(3)
+    public ResponseEntity<List<OpportunityDto>> getOpportunitiesByCustomer(@PathVariable Long customerId) {
         Optional<Customer> customer = customerService.findCustomerById(customerId);
         if (!customer.isPresent()) {
             return ResponseEntity.notFound().build();
         }
 
-        List<Opportunity> opportunities = opportunityService.findOpportunitiesByCustomer(customer.get());
+        List<OpportunityDto> opportunities = opportunityService.findOpportunitiesByCustomer(customer.get());
         return ResponseEntity.ok(opportunities);
     }
 
+    // Any combination of the filters in one query, paged with ?page=&size=&sort=property,asc|desc; the number
+    // of matches is sent in X-Total-Count
+    @GetMapping("/search")
+    @QueryBudget(2)
+    public ResponseEntity<List<OpportunityDto>> searchOpportunities(OpportunityFilter filter,
+            @PageableDefault(size = ListResponses.DEFAULT_LIMIT) Pageable pageable) {
+        return ListResponses.searchResults(opportunityService.searchOpportunities(filter, ListResponses.searchPage(pageable, SEARCH_SORTS)));
+    }
+
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Opportunity>> getOpportunitiesByStatus(@PathVariable String status) {
-        List<Opportunity> opportunities = opportunityService.findOpportunitiesByStatus(status);
+    @QueryBudget(2)
+    public ResponseEntity<List<OpportunityDto>> getOpportunitiesByStatus(@PathVariable String status) {
+        List<OpportunityDto> opportunities = opportunityService.findOpportunitiesByStatus(status);
         return ResponseEntity.ok(opportunities);
     }
 
     @GetMapping("/stage/{stage}")
-    public ResponseEntity<List<Opportunity>> getOpportunitiesByStage(@PathVariable String stage) {
-        List<Opportunity> opportunities = opportunityService.findOpportunitiesByStage(stage);
+    @QueryBudget(2)
+    public ResponseEntity<List<OpportunityDto>> getOpportunitiesByStage(@PathVariable String stage) {
+        List<OpportunityDto> opportunities = opportunityService.findOpportunitiesByStage(stage);
         return ResponseEntity.ok(opportunities);
     }
 
     @GetMapping("/closing-date-range")
-    public ResponseEntity<List<Opportunity>> getOpportunitiesByClosingDateRange(
+    @QueryBudget(2)
+    public ResponseEntity<List<OpportunityDto>> getOpportunitiesByClosingDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
-        List<Opportunity> opportunities = opportunityService.findOpportunitiesClosingBetween(startDate, endDate);
+        List<OpportunityDto> opportunities = opportunityService.findOpportunitiesClosingBetween(startDate, endDate);
         return ResponseEntity.ok(opportunities);
     }
 
     @GetMapping("/high-value")
-    public ResponseEntity<List<Opportunity>> getHighValueOpportunities(@RequestParam BigDecimal threshold) {
-        List<Opportunity> opportunities = opportunityService.findHighValueOpportunities(threshold);
+    @QueryBudget(2)
+    public ResponseEntity<List<OpportunityDto>> getHighValueOpportunities(@RequestParam BigDecimal threshold) {
+        List<OpportunityDto> opportunities = opportunityService.findHighValueOpportunities(threshold);
         return ResponseEntity.ok(opportunities);
     }
 
     @GetMapping("/value/status/{status}")
+    @QueryBudget(2)
     public ResponseEntity<BigDecimal> getTotalOpportunityValueByStatus(@PathVariable String status) {
         BigDecimal totalValue = opportunityService.calculateTotalOpportunityValueByStatus(status);
         return ResponseEntity.ok(totalValue);
     }
 
+    /**
+     * Probability-weighted revenue of the open opportunities closing between {@code from} and {@code to},
+     * per month, stage and top customer, with {@code confidence} intervals from {@code simulations}
+     * Monte Carlo runs. Pass a {@code seed} for repeatable intervals.
+     */
+    @GetMapping("/forecast")
+    @QueryBudget(1)
+    public ResponseEntity<Forecast> getForecast(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10000") int simulations,
+            @RequestParam(defaultValue = "0.9") double confidence,
+            @RequestParam(defaultValue = "20") int customers,
+            @RequestParam(required = false) Long seed) {
+        Forecast forecast = forecastService.forecast(from, to, simulations, confidence, customers, seed);
+        return ResponseEntity.ok(forecast);
+    }
+
     @PostMapping
-    public ResponseEntity<Opportunity> createOpportunity(@Valid @RequestBody Opportunity opportunity) {
+    public ResponseEntity<OpportunityDto> createOpportunity(@Valid @RequestBody Opportunity opportunity) {
         if (opportunity.getId() != null) {
             return ResponseEntity.badRequest().build();
         }
 
         // Check if customer exists
-        if (opportunity.getCustomer() != null && opportunity.getCustomer().getId() != null) {
-            Optional<Customer> customer = customerService.findCustomerById(opportunity.getCustomer().getId());
-            if (!customer.isPresent()) {
-                return ResponseEntity.badRequest().build();
-            }
-            opportunity.setCustomer(customer.get());
+        References references = referenceResolver.resolve(opportunity.getCustomer());
+        if (!references.isComplete()) {
+            return ResponseEntity.badRequest().build();
         }
 
-        Opportunity savedOpportunity = opportunityService.saveOpportunity(opportunity);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedOpportunity);
+        Opportunity savedOpportunity = opportunityService.createOpportunity(opportunity);
+        return ResponseEntity.status(HttpStatus.CREATED).body(OpportunityDto.from(savedOpportunity, references));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Opportunity> updateOpportunity(@PathVariable Long id, @Valid @RequestBody Opportunity opportunity) {
-        if (!opportunityService.findOpportunityById(id).isPresent()) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<OpportunityDto> updateOpportunity(@PathVariable Long id, @Valid @RequestBody Opportunity opportunity,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Check if customer exists
+        References references = referenceResolver.resolve(opportunity.getCustomer());
+        if (!references.isComplete()) {
+            return ResponseEntity.badRequest().build();
         }
 
-        // Check if customer exists
-        if (opportunity.getCustomer() != null && opportunity.getCustomer().getId() != null) {
-            Optional<Customer> customer = customerService.findCustomerById(opportunity.getCustomer().getId());
-            if (!customer.isPresent()) {
-                return ResponseEntity.badRequest().build();
-            }
-            opportunity.setCustomer(customer.get());
+        return opportunityService.updateOpportunity(id, opportunity, EntityTags.expectedVersion(ifMatch))
+                .map(updatedOpportunity -> OpportunityDto.from(updatedOpportunity, references))
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Merge patch: only the fields in the body change; null clears a field
+    @PatchMapping(value = "/{id}", consumes = {MergePatcher.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<OpportunityDto> patchOpportunity(@PathVariable Long id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return opportunityService.patchOpportunity(id, patch, EntityTags.expectedVersion(ifMatch))
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> createOpportunities(InputStream body) throws IOException {
+        try (MappingIterator<Opportunity> opportunities = BulkRequests.rows(objectMapper, body, Opportunity.class)) {
+            return ResponseEntity.ok(opportunityService.createOpportunities(opportunities));
         }
+    }
 
-        opportunity.setId(id);
-        Opportunity updatedOpportunity = opportunityService.saveOpportunity(opportunity);
-        return ResponseEntity.ok(updatedOpportunity);
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> updateOpportunities(InputStream body) throws IOException {
+        try (MappingIterator<Opportunity> opportunities = BulkRequests.rows(objectMapper, body, Opportunity.class)) {
+            return ResponseEntity.ok(opportunityService.updateOpportunities(opportunities));
+        }
+    }
+
+    @DeleteMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> deleteOpportunities(InputStream body) throws IOException {
+        try (MappingIterator<Long> ids = BulkRequests.rows(objectMapper, body, Long.class)) {
+            return ResponseEntity.ok(opportunityService.deleteOpportunities(ids));
+        }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteOpportunity(@PathVariable Long id) {
-        if (!opportunityService.findOpportunityById(id).isPresent()) {
+    public ResponseEntity<Void> deleteOpportunity(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!opportunityService.deleteOpportunity(id, EntityTags.expectedVersion(ifMatch))) {
             return ResponseEntity.notFound().build();
         }
-
-        opportunityService.deleteOpportunity(id);
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
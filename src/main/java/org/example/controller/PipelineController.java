@@ -0,0 +1,42 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.PipelineDrift;
+import org.example.dto.PipelineSummaryDto;
+import org.example.dto.StatusTotal;
+import org.example.service.PipelineSummaryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/pipeline")
+@RequiredArgsConstructor
+public class PipelineController {
+
+    private final PipelineSummaryService pipelineSummaryService;
+
+    @GetMapping("/status-totals")
+    @QueryBudget(1)
+    public ResponseEntity<List<StatusTotal>> getStatusTotals() {
+        return ResponseEntity.ok(pipelineSummaryService.findStatusTotals());
+    }
+
+    @GetMapping("/customer/{customerId}")
+    @QueryBudget(1)
+    public ResponseEntity<List<PipelineSummaryDto>> getCustomerPipeline(@PathVariable Long customerId) {
+        return ResponseEntity.ok(pipelineSummaryService.findByCustomer(customerId));
+    }
+
+    // Recompute the summary tables now instead of waiting for the nightly rebuild
+    @PostMapping("/rebuild")
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<PipelineDrift> rebuild() {
+        return ResponseEntity.ok(pipelineSummaryService.rebuild());
+    }
+}
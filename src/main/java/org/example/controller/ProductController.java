@@ -1,78 +1,120 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.BulkResult;
+import org.example.dto.ProductDto;
+import org.example.dto.ProductFilter;
 import org.example.model.Product;
 import org.example.service.ProductService;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final Set<String> SEARCH_SORTS = Set.of("id", "code", "name", "category", "status", "listPrice", "createdAt", "updatedAt");
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.findAllProducts();
-        return ResponseEntity.ok(products);
+    @QueryBudget(2)
+    public ResponseEntity<List<ProductDto>> getAllProducts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (!ListResponses.isPaged(after, limit)) {
+            List<ProductDto> products = productService.findAllProducts();
+            return ResponseEntity.ok(products);
+        }
+
+        Slice<ProductDto> page = productService.findProductsAfter(after, ListResponses.clampLimit(limit));
+        return ListResponses.keysetPage(page, ProductDto::getId);
+    }
+
+    @GetMapping(produces = ListResponses.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        return ListResponses.ndjson(objectMapper, productService::forEachProduct);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    @QueryBudget(2)
+    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
         return productService.findProductById(id)
-                .map(ResponseEntity::ok)
+                .map(ProductDto::from)
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/code/{code}")
-    public ResponseEntity<Product> getProductByCode(@PathVariable String code) {
+    @QueryBudget(2)
+    public ResponseEntity<ProductDto> getProductByCode(@PathVariable String code) {
         return productService.findProductByCode(code)
-                .map(ResponseEntity::ok)
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Any combination of the filters in one query, paged with ?page=&size=&sort=property,asc|desc; the number
+    // of matches is sent in X-Total-Count
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProductsByName(@RequestParam String name) {
-        List<Product> products = productService.findProductsByName(name);
-        return ResponseEntity.ok(products);
+    @QueryBudget(2)
+    public ResponseEntity<List<ProductDto>> searchProducts(ProductFilter filter,
+            @PageableDefault(size = ListResponses.DEFAULT_LIMIT) Pageable pageable) {
+        return ListResponses.searchResults(productService.searchProducts(filter, ListResponses.searchPage(pageable, SEARCH_SORTS)));
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
-        List<Product> products = productService.findProductsByCategory(category);
+    @QueryBudget(2)
+    public ResponseEntity<List<ProductDto>> getProductsByCategory(@PathVariable String category) {
+        List<ProductDto> products = productService.findProductsByCategory(category);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Product>> getProductsByStatus(@PathVariable String status) {
-        List<Product> products = productService.findProductsByStatus(status);
+    @QueryBudget(2)
+    public ResponseEntity<List<ProductDto>> getProductsByStatus(@PathVariable String status) {
+        List<ProductDto> products = productService.findProductsByStatus(status);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/price/max")
-    public ResponseEntity<List<Product>> getProductsUnderPrice(@RequestParam BigDecimal maxPrice) {
-        List<Product> products = productService.findProductsUnderPrice(maxPrice);
+    @QueryBudget(2)
+    public ResponseEntity<List<ProductDto>> getProductsUnderPrice(@RequestParam BigDecimal maxPrice) {
+        List<ProductDto> products = productService.findProductsUnderPrice(maxPrice);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/price/range")
-    public ResponseEntity<List<Product>> getProductsInPriceRange(
+    @QueryBudget(2)
+    public ResponseEntity<List<ProductDto>> getProductsInPriceRange(
             @RequestParam BigDecimal minPrice,
             @RequestParam BigDecimal maxPrice) {
 
-        List<Product> products = productService.findProductsInPriceRange(minPrice, maxPrice);
+        List<ProductDto> products = productService.findProductsInPriceRange(minPrice, maxPrice);
         return ResponseEntity.ok(products);
     }
 
     @PostMapping
-    public ResponseEntity<Product> createProduct(@Valid @RequestBody Product product) {
+    public ResponseEntity<ProductDto> createProduct(@Valid @RequestBody Product product) {
         if (product.getId() != null) {
             return ResponseEntity.badRequest().build();
         }
@@ -82,42 +124,68 @@ public class ProductController {
         }
 
         Product savedProduct = productService.saveProduct(product);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedProduct);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ProductDto.from(savedProduct));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Product> updateProduct(@PathVariable Long id, @Valid @RequestBody Product product) {
-        if (!productService.findProductById(id).isPresent()) {
+    public ResponseEntity<ProductDto> updateProduct(@PathVariable Long id, @Valid @RequestBody Product product,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<Product> existingProduct = productService.findProductById(id);
+        if (!existingProduct.isPresent()) {
             return ResponseEntity.notFound().build();
         }
 
         // Check for code uniqueness if code is changed
-        if (productService.findProductById(id).get().getCode() != product.getCode() &&
+        if (!Objects.equals(existingProduct.get().getCode(), product.getCode()) &&
                 productService.isProductCodeTaken(product.getCode())) {
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
 
-        product.setId(id);
-        Product updatedProduct = productService.saveProduct(product);
-        return ResponseEntity.ok(updatedProduct);
+        return productService.updateProduct(id, product, EntityTags.expectedVersion(ifMatch))
+                .map(ProductDto::from)
+                .map(dto -> ResponseEntity.ok().eTag(EntityTags.of(dto)).body(dto))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @PatchMapping("/{id}/status")
-    public ResponseEntity<Product> updateProductStatus(@PathVariable Long id, @RequestParam String status) {
+    public ResponseEntity<ProductDto> updateProductStatus(@PathVariable Long id, @RequestParam String status) {
         Product updatedProduct = productService.updateProductStatus(id, status);
         if (updatedProduct == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(updatedProduct);
+        return ResponseEntity.ok(ProductDto.from(updatedProduct));
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> createProducts(InputStream body) throws IOException {
+        try (MappingIterator<Product> products = BulkRequests.rows(objectMapper, body, Product.class)) {
+            return ResponseEntity.ok(productService.createProducts(products));
+        }
+    }
+
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> updateProducts(InputStream body) throws IOException {
+        try (MappingIterator<Product> products = BulkRequests.rows(objectMapper, body, Product.class)) {
+            return ResponseEntity.ok(productService.updateProducts(products));
+        }
+    }
+
+    @DeleteMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ListResponses.NDJSON_VALUE})
+    @QueryBudget(QueryBudget.UNLIMITED)
+    public ResponseEntity<BulkResult> deleteProducts(InputStream body) throws IOException {
+        try (MappingIterator<Long> ids = BulkRequests.rows(objectMapper, body, Long.class)) {
+            return ResponseEntity.ok(productService.deleteProducts(ids));
+        }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
-        if (!productService.findProductById(id).isPresent()) {
+    public ResponseEntity<Void> deleteProduct(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (!productService.deleteProduct(id, EntityTags.expectedVersion(ifMatch))) {
             return ResponseEntity.notFound().build();
         }
 
-        productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package org.example.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a request to the annotated endpoint may execute; on a
+ * controller class it applies to every endpoint without its own budget. Endpoints without a
+ * budget get {@code crm.query-budget.default-budget}. Going over is logged with the statements'
+ * call sites, and fails the request when {@code crm.query-budget.strict=true}.
+ * <p>
+ * Endpoints whose statement count grows with the request body (bulk writes) declare
+ * {@link #UNLIMITED}; they are neither checked nor reported.
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int UNLIMITED = Integer.MAX_VALUE;
+
+    int value();
+}
@@ -0,0 +1,36 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.SearchHit;
+import org.example.service.SearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
+    private final SearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<List<SearchHit>> search(@RequestParam String q,
+                                                  @RequestParam(required = false) Set<String> types,
+                                                  @RequestParam(required = false) Integer limit) throws IOException {
+        if (types != null && !SearchService.TYPES.containsAll(types)) {
+            return ResponseEntity.badRequest().build();
+        }
+        int maxHits = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        return ResponseEntity.ok(searchService.search(q, types, maxHits));
+    }
+}
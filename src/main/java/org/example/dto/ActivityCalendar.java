@@ -0,0 +1,16 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of the activity calendar and the cursor of the next page, null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class ActivityCalendar {
+    private List<CalendarBucket> buckets;
+    private String nextCursor;
+}
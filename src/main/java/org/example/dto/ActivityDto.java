@@ -0,0 +1,62 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.Activity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for activities with references to the related customer, contact and opportunity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityDto {
+
+    private Long id;
+
+    private long version;
+
+    private String type;
+
+    private String subject;
+
+    private String description;
+
+    private LocalDateTime scheduledDate;
+
+    private LocalDateTime completedDate;
+
+    private String status;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private CustomerRef customer;
+
+    private ContactRef contact;
+
+    private OpportunityRef opportunity;
+
+    public static ActivityDto from(Activity activity) {
+        return from(activity, CustomerRef.from(activity.getCustomer()), ContactRef.from(activity.getContact()),
+                OpportunityRef.from(activity.getOpportunity()));
+    }
+
+    /**
+     * Builds the read model from references resolved before the write, so linked entities are not loaded.
+     */
+    public static ActivityDto from(Activity activity, References references) {
+        return from(activity, references.getCustomer(), references.getContact(), references.getOpportunity());
+    }
+
+    private static ActivityDto from(Activity activity, CustomerRef customer, ContactRef contact,
+                                    OpportunityRef opportunity) {
+        return new ActivityDto(activity.getId(), activity.getVersion(), activity.getType(), activity.getSubject(), activity.getDescription(),
+                activity.getScheduledDate(), activity.getCompletedDate(), activity.getStatus(),
+                activity.getCreatedAt(), activity.getUpdatedAt(), customer, contact, opportunity);
+    }
+}
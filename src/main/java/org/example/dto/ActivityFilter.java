@@ -0,0 +1,30 @@
+package org.example.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Search criteria for activities, bound from the query parameters; blank criteria are ignored and the
+ * scheduled range is inclusive.
+ */
+@Data
+public class ActivityFilter {
+
+    private String type;
+
+    private String status;
+
+    private Long customerId;
+
+    private Long contactId;
+
+    private Long opportunityId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime scheduledFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime scheduledTo;
+}
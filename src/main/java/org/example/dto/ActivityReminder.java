@@ -0,0 +1,39 @@
+package org.example.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification that a planned activity is about to start ({@link Kind#REMINDER}) or has been marked
+ * overdue ({@link Kind#OVERDUE}).
+ */
+@Data
+@NoArgsConstructor
+public class ActivityReminder {
+
+    public enum Kind {
+        REMINDER, OVERDUE
+    }
+
+    private Kind kind;
+
+    private Long activityId;
+
+    private String type;
+
+    private String subject;
+
+    private LocalDateTime scheduledDate;
+
+    private Long customerId;
+
+    public ActivityReminder(Long activityId, String type, String subject, LocalDateTime scheduledDate, Long customerId) {
+        this.activityId = activityId;
+        this.type = type;
+        this.subject = subject;
+        this.scheduledDate = scheduledDate;
+        this.customerId = customerId;
+    }
+}
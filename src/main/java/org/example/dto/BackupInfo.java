@@ -0,0 +1,22 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A database backup in {@code crm.storage.backup-directory}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackupInfo {
+
+    private String name;
+
+    private long size;
+
+    private LocalDateTime createdAt;
+}
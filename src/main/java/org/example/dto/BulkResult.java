@@ -0,0 +1,38 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk write. Rows are numbered from 0 in input order; {@code complete} is false
+ * when the input could not be read to the end.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResult {
+
+    private int received;
+
+    private int succeeded;
+
+    private int failed;
+
+    private boolean complete = true;
+
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        private int index;
+
+        private String message;
+    }
+}
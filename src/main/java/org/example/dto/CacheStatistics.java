@@ -0,0 +1,30 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hit and miss counters of one cache; {@code layer} is "spring" for service-level caches and
+ * "hibernate" for second-level cache regions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatistics {
+
+    private String name;
+
+    private String layer;
+
+    private long hits;
+
+    private long misses;
+
+    private double hitRatio;
+
+    public static CacheStatistics of(String name, String layer, long hits, long misses) {
+        long requests = hits + misses;
+        return new CacheStatistics(name, layer, hits, misses, requests == 0 ? 0.0 : (double) hits / requests);
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One day or week of the activity calendar: the number of activities scheduled in it and those of
+ * them that fall on the current page.
+ */
+@Data
+public class CalendarBucket {
+    private LocalDate start;
+    private long activityCount;
+    private List<ActivityDto> activities = new ArrayList<>();
+
+    public CalendarBucket(LocalDate start) {
+        this.start = start;
+    }
+}
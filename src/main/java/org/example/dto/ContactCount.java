@@ -0,0 +1,10 @@
+package org.example.dto;
+
+/**
+ * Projection for the number of contacts of one customer.
+ */
+public interface ContactCount {
+    Long getCustomerId();
+
+    long getContactCount();
+}
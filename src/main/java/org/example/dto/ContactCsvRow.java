@@ -0,0 +1,69 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.Contact;
+import org.example.model.Customer;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of the contact CSV export and import. The owning customer is identified by
+ * {@code companyName}; on import, {@code id} and the timestamps are ignored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "firstName", "lastName", "title", "email", "phone", "mobile", "isPrimary", "notes",
+        "companyName", "createdAt", "updatedAt"})
+public class ContactCsvRow {
+
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String title;
+
+    private String email;
+
+    private String phone;
+
+    private String mobile;
+
+    @JsonProperty("isPrimary")
+    private boolean isPrimary;
+
+    private String notes;
+
+    private String companyName;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public static ContactCsvRow from(ContactDto contact) {
+        CustomerRef customer = contact.getCustomer();
+        return new ContactCsvRow(contact.getId(), contact.getFirstName(), contact.getLastName(), contact.getTitle(),
+                contact.getEmail(), contact.getPhone(), contact.getMobile(), contact.isPrimary(), contact.getNotes(),
+                customer != null ? customer.getCompanyName() : null, contact.getCreatedAt(), contact.getUpdatedAt());
+    }
+
+    public Contact toContact(Customer customer) {
+        Contact contact = new Contact();
+        contact.setFirstName(firstName);
+        contact.setLastName(lastName);
+        contact.setTitle(title);
+        contact.setEmail(email);
+        contact.setPhone(phone);
+        contact.setMobile(mobile);
+        contact.setPrimary(isPrimary);
+        contact.setNotes(notes);
+        contact.setCustomer(customer);
+        return contact;
+    }
+}
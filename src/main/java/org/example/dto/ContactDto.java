@@ -0,0 +1,66 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.Contact;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for contacts with a reference to the owning customer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactDto {
+
+    private Long id;
+
+    private long version;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String title;
+
+    private String email;
+
+    private String phone;
+
+    private String mobile;
+
+    @JsonProperty("isPrimary")
+    private boolean isPrimary;
+
+    private String notes;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private CustomerRef customer;
+
+    public static ContactDto from(Contact contact) {
+        return from(contact, CustomerRef.from(contact.getCustomer()));
+    }
+
+    /**
+     * Builds the read model from references resolved before the write, so the customer is not loaded.
+     */
+    public static ContactDto from(Contact contact, References references) {
+        return from(contact, references.getCustomer());
+    }
+
+    private static ContactDto from(Contact contact, CustomerRef customer) {
+        return new ContactDto(contact.getId(), contact.getVersion(), contact.getFirstName(), contact.getLastName(), contact.getTitle(),
+                contact.getEmail(), contact.getPhone(), contact.getMobile(), contact.isPrimary(), contact.getNotes(),
+                contact.getCreatedAt(), contact.getUpdatedAt(), customer);
+    }
+
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+}
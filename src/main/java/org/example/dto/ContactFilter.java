@@ -0,0 +1,19 @@
+package org.example.dto;
+
+import lombok.Data;
+
+/**
+ * Search criteria for contacts, bound from the query parameters; blank criteria are ignored.
+ */
+@Data
+public class ContactFilter {
+
+    // Part of the first or last name, in any case
+    private String name;
+
+    private String email;
+
+    private Long customerId;
+
+    private Boolean primary;
+}
@@ -0,0 +1,27 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.Contact;
+
+/**
+ * Minimal reference to a contact embedded in other read models.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactRef {
+
+    private Long id;
+
+    private long version;
+
+    private String firstName;
+
+    private String lastName;
+
+    public static ContactRef from(Contact contact) {
+        return contact != null ? new ContactRef(contact.getId(), contact.getVersion(), contact.getFirstName(), contact.getLastName()) : null;
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.Customer;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of the customer CSV export and import. On import, {@code id} and the timestamps
+ * are ignored: every row creates a new customer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "companyName", "industry", "website", "status", "createdAt", "updatedAt"})
+public class CustomerCsvRow {
+
+    private Long id;
+
+    private String companyName;
+
+    private String industry;
+
+    private String website;
+
+    private String status;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public static CustomerCsvRow from(CustomerDto customer) {
+        return new CustomerCsvRow(customer.getId(), customer.getCompanyName(), customer.getIndustry(),
+                customer.getWebsite(), customer.getStatus(), customer.getCreatedAt(), customer.getUpdatedAt());
+    }
+
+    public Customer toCustomer() {
+        Customer customer = new Customer();
+        customer.setCompanyName(companyName);
+        customer.setIndustry(industry);
+        customer.setWebsite(website);
+        customer.setStatus(status);
+        return customer;
+    }
+}
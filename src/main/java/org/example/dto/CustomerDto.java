@@ -0,0 +1,41 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.Customer;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for customers. Related contacts and opportunities are never embedded;
+ * {@code contactCount} is filled by the list queries only.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerDto {
+
+    private Long id;
+
+    private long version;
+
+    private String companyName;
+
+    private String industry;
+
+    private String website;
+
+    private String status;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private Long contactCount;
+
+    public static CustomerDto from(Customer customer) {
+        return new CustomerDto(customer.getId(), customer.getVersion(), customer.getCompanyName(), customer.getIndustry(),
+                customer.getWebsite(), customer.getStatus(), customer.getCreatedAt(), customer.getUpdatedAt(), null);
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.dto;
+
+import lombok.Data;
+
+/**
+ * Search criteria for customers, bound from the query parameters; blank criteria are ignored.
+ */
+@Data
+public class CustomerFilter {
+
+    // Part of the company name, in any case
+    private String name;
+
+    private String status;
+
+    private String industry;
+}
@@ -0,0 +1,25 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.Customer;
+
+/**
+ * Minimal reference to a customer embedded in other read models.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerRef {
+
+    private Long id;
+
+    private long version;
+
+    private String companyName;
+
+    public static CustomerRef from(Customer customer) {
+        return customer != null ? new CustomerRef(customer.getId(), customer.getVersion(), customer.getCompanyName()) : null;
+    }
+}
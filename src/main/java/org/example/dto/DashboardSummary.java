@@ -0,0 +1,56 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact, pre-aggregated view of the CRM used by the dashboard.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSummary {
+
+    private EntityCounts counts;
+
+    private OpportunityTotals opportunities;
+
+    private List<MonthlyRevenue> monthlyWonRevenue = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EntityCounts {
+        private long customers;
+        private long contacts;
+        private long opportunities;
+        private long activities;
+        private long products;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OpportunityTotals {
+        private long openCount;
+        private long wonCount;
+        private long lostCount;
+        private BigDecimal openValue = BigDecimal.ZERO;
+        private BigDecimal wonValue = BigDecimal.ZERO;
+        private BigDecimal lostValue = BigDecimal.ZERO;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MonthlyRevenue {
+        private int year;
+        private int month;
+        private BigDecimal total;
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Projection for the number of activities scheduled on one day.
+ */
+public interface DayCount {
+    LocalDate getScheduledDay();
+
+    long getActivityCount();
+}
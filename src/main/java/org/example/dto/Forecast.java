@@ -0,0 +1,47 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Probability-weighted revenue forecast of the open pipeline, with Monte Carlo confidence intervals.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Forecast {
+
+    private int simulations;
+
+    private double confidence;
+
+    private Line total;
+
+    private List<Line> byMonth = new ArrayList<>();
+
+    private List<Line> byStage = new ArrayList<>();
+
+    // The customers with the highest expected revenue
+    private List<Line> byCustomer = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        // Closing month (yyyy-MM), stage or customer id; null for opportunities without one
+        private String key;
+        private long opportunityCount;
+        // Sum of the amounts, as if every opportunity were won
+        private BigDecimal pipelineAmount;
+        // Sum of amount x probability
+        private BigDecimal expectedAmount;
+        // Won revenue of the simulations at the lower and upper end of the confidence interval
+        private BigDecimal lowerBound;
+        private BigDecimal upperBound;
+    }
+}
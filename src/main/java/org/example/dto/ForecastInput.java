@@ -0,0 +1,28 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The columns of an open opportunity that the revenue forecast reads.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForecastInput {
+
+    private String stage;
+
+    private Long customerId;
+
+    private LocalDate closingDate;
+
+    private BigDecimal amount;
+
+    // Percentage, 0 to 100
+    private BigDecimal probability;
+}
@@ -0,0 +1,45 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.ImportJob;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a CSV import. {@code rowsHandled} counts the data rows written or rejected so far.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDto {
+
+    private Long id;
+
+    private String entityType;
+
+    private String status;
+
+    private String fileName;
+
+    private int rowsHandled;
+
+    private int rowsWritten;
+
+    private int rowsFailed;
+
+    private String message;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    public static ImportJobDto from(ImportJob job) {
+        return new ImportJobDto(job.getId(), job.getEntityType(), job.getStatus(), job.getFileName(),
+                job.getRowsHandled(), job.getRowsWritten(), job.getRowsFailed(), job.getMessage(), job.getCreatedAt(),
+                job.getUpdatedAt(), job.getFinishedAt());
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for an amount aggregated per closing month.
+ */
+public interface MonthlyTotal {
+    int getClosingYear();
+
+    int getClosingMonth();
+
+    BigDecimal getTotal();
+}
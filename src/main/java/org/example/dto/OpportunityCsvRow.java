@@ -0,0 +1,71 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.Customer;
+import org.example.model.Opportunity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One line of the opportunity CSV export and import. The owning customer is identified by
+ * {@code companyName}; on import, {@code id} and the timestamps are ignored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "name", "description", "status", "stage", "amount", "closingDate", "probability", "notes",
+        "companyName", "createdAt", "updatedAt"})
+public class OpportunityCsvRow {
+
+    private Long id;
+
+    private String name;
+
+    private String description;
+
+    private String status;
+
+    private String stage;
+
+    private BigDecimal amount;
+
+    private LocalDate closingDate;
+
+    private BigDecimal probability;
+
+    private String notes;
+
+    private String companyName;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public static OpportunityCsvRow from(OpportunityDto opportunity) {
+        CustomerRef customer = opportunity.getCustomer();
+        return new OpportunityCsvRow(opportunity.getId(), opportunity.getName(), opportunity.getDescription(),
+                opportunity.getStatus(), opportunity.getStage(), opportunity.getAmount(), opportunity.getClosingDate(),
+                opportunity.getProbability(), opportunity.getNotes(),
+                customer != null ? customer.getCompanyName() : null, opportunity.getCreatedAt(),
+                opportunity.getUpdatedAt());
+    }
+
+    public Opportunity toOpportunity(Customer customer) {
+        Opportunity opportunity = new Opportunity();
+        opportunity.setName(name);
+        opportunity.setDescription(description);
+        opportunity.setStatus(status);
+        opportunity.setStage(stage);
+        opportunity.setAmount(amount);
+        opportunity.setClosingDate(closingDate);
+        opportunity.setProbability(probability);
+        opportunity.setNotes(notes);
+        opportunity.setCustomer(customer);
+        return opportunity;
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.Opportunity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read model for opportunities with a reference to the owning customer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpportunityDto {
+
+    private Long id;
+
+    private long version;
+
+    private String name;
+
+    private String description;
+
+    private String status;
+
+    private String stage;
+
+    private BigDecimal amount;
+
+    private LocalDate closingDate;
+
+    private BigDecimal probability;
+
+    private String notes;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private CustomerRef customer;
+
+    public static OpportunityDto from(Opportunity opportunity) {
+        return from(opportunity, CustomerRef.from(opportunity.getCustomer()));
+    }
+
+    /**
+     * Builds the read model from references resolved before the write, so the customer is not loaded.
+     */
+    public static OpportunityDto from(Opportunity opportunity, References references) {
+        return from(opportunity, references.getCustomer());
+    }
+
+    private static OpportunityDto from(Opportunity opportunity, CustomerRef customer) {
+        return new OpportunityDto(opportunity.getId(), opportunity.getVersion(), opportunity.getName(), opportunity.getDescription(),
+                opportunity.getStatus(), opportunity.getStage(), opportunity.getAmount(), opportunity.getClosingDate(),
+                opportunity.getProbability(), opportunity.getNotes(), opportunity.getCreatedAt(),
+                opportunity.getUpdatedAt(), customer);
+    }
+}
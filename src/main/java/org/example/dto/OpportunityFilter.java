@@ -0,0 +1,34 @@
+package org.example.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Search criteria for opportunities, bound from the query parameters; blank criteria are ignored and the
+ * ranges are inclusive.
+ */
+@Data
+public class OpportunityFilter {
+
+    // Part of the name, in any case
+    private String name;
+
+    private String status;
+
+    private String stage;
+
+    private Long customerId;
+
+    private BigDecimal minAmount;
+
+    private BigDecimal maxAmount;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate closingFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate closingTo;
+}
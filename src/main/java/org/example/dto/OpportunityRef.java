@@ -0,0 +1,25 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.Opportunity;
+
+/**
+ * Minimal reference to an opportunity embedded in other read models.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpportunityRef {
+
+    private Long id;
+
+    private long version;
+
+    private String name;
+
+    public static OpportunityRef from(Opportunity opportunity) {
+        return opportunity != null ? new OpportunityRef(opportunity.getId(), opportunity.getVersion(), opportunity.getName()) : null;
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What a pipeline summary rebuild corrected: the number of status totals and of (status, stage, customer,
+ * closing month) buckets whose count or amount differed from the opportunities table.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineDrift {
+
+    private int driftedStatuses;
+
+    private int driftedBuckets;
+}
@@ -0,0 +1,36 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.PipelineSummary;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read model for one pipeline summary row: the opportunities of a customer with the same
+ * status, stage and closing month.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineSummaryDto {
+
+    private String status;
+
+    private String stage;
+
+    private Long customerId;
+
+    private LocalDate closingMonth;
+
+    private long opportunityCount;
+
+    private BigDecimal totalAmount;
+
+    public static PipelineSummaryDto from(PipelineSummary summary) {
+        return new PipelineSummaryDto(summary.getStatus(), summary.getStage(), summary.getCustomerId(),
+                summary.getClosingMonth(), summary.getOpportunityCount(), summary.getTotalAmount());
+    }
+}
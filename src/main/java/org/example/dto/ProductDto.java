@@ -0,0 +1,44 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model for products.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductDto {
+
+    private Long id;
+
+    private long version;
+
+    private String code;
+
+    private String name;
+
+    private String description;
+
+    private BigDecimal listPrice;
+
+    private String category;
+
+    private String status;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public static ProductDto from(Product product) {
+        return new ProductDto(product.getId(), product.getVersion(), product.getCode(), product.getName(), product.getDescription(),
+                product.getListPrice(), product.getCategory(), product.getStatus(), product.getCreatedAt(),
+                product.getUpdatedAt());
+    }
+}
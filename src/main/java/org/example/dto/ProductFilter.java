@@ -0,0 +1,24 @@
+package org.example.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Search criteria for products, bound from the query parameters; blank criteria are ignored and the
+ * price range is inclusive.
+ */
+@Data
+public class ProductFilter {
+
+    // Part of the name, in any case
+    private String name;
+
+    private String category;
+
+    private String status;
+
+    private BigDecimal minPrice;
+
+    private BigDecimal maxPrice;
+}
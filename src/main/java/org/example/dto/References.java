@@ -0,0 +1,20 @@
+package org.example.dto;
+
+import lombok.Data;
+
+/**
+ * Customer, contact and opportunity referenced by a row being written, as resolved by
+ * {@link org.example.service.ReferenceResolver}. A reference that was not requested stays {@code null}.
+ */
+@Data
+public class References {
+
+    private CustomerRef customer;
+
+    private ContactRef contact;
+
+    private OpportunityRef opportunity;
+
+    // False if any requested id does not exist
+    private boolean complete = true;
+}
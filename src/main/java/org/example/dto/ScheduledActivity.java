@@ -0,0 +1,14 @@
+package org.example.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection for the schedule of one activity, as held by the upcoming-activity index.
+ */
+public interface ScheduledActivity {
+    Long getId();
+
+    LocalDateTime getScheduledDate();
+
+    Long getCustomerId();
+}
@@ -0,0 +1,24 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A ranked full-text search result; {@code type} is one of contact, customer or product.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+
+    private String type;
+
+    private Long id;
+
+    private String title;
+
+    private String subtitle;
+
+    private float score;
+}
@@ -0,0 +1,14 @@
+package org.example.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for opportunity count and amount aggregated per status.
+ */
+public interface StatusTotal {
+    String getStatus();
+
+    long getOpportunityCount();
+
+    BigDecimal getTotal();
+}
@@ -0,0 +1,20 @@
+package org.example.event;
+
+import lombok.Data;
+
+/**
+ * Published for every entity insert, update and delete made through JPA.
+ * <p>
+ * Listeners that must only see committed state should use
+ * {@code @TransactionalEventListener}; bulk JPQL updates do not raise this event.
+ */
+@Data
+public class EntityChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Object entity;
+    private final ChangeType changeType;
+}
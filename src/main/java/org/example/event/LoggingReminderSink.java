@@ -0,0 +1,25 @@
+package org.example.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.ActivityReminder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes each reminder to the application log.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "crm.reminders.log.enabled", havingValue = "true", matchIfMissing = true)
+public class LoggingReminderSink implements ReminderSink {
+
+    @Override
+    public void deliver(List<ActivityReminder> reminders) {
+        for (ActivityReminder reminder : reminders) {
+            log.info("{} activity {} '{}' scheduled {} (customer {})", reminder.getKind(), reminder.getActivityId(),
+                    reminder.getSubject(), reminder.getScheduledDate(), reminder.getCustomerId());
+        }
+    }
+}
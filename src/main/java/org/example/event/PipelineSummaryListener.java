@@ -0,0 +1,257 @@
+package org.example.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.Customer;
+import org.example.model.Opportunity;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@code pipeline_status_totals} and {@code pipeline_summary} in step with the opportunities table.
+ * <p>
+ * Hibernate reports every opportunity insert, update and delete with its old and new state. The
+ * count and amount deltas are summed per transaction and written just before it commits, after
+ * the final flush, so the aggregates commit (or roll back) with the rows they describe. Changes that
+ * leave status, stage, customer, closing month and amount alone write nothing, and the aggregate rows
+ * are only locked for the moment between the write and the commit.
+ * <p>
+ * Bulk JPQL/SQL statements on opportunities bypass Hibernate events; run
+ * {@link org.example.service.PipelineSummaryService#rebuild()} after those.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PipelineSummaryListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String MERGE_STATUS_TOTAL =
+            "MERGE INTO pipeline_status_totals t USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS BIGINT), " +
+                    "CAST(? AS DECIMAL(19, 2)))) s (status, opportunity_count, total_amount) " +
+                    "ON t.status = s.status " +
+                    "WHEN MATCHED THEN UPDATE SET opportunity_count = t.opportunity_count + s.opportunity_count, " +
+                    "total_amount = t.total_amount + s.total_amount " +
+                    "WHEN NOT MATCHED THEN INSERT (status, opportunity_count, total_amount) " +
+                    "VALUES (s.status, s.opportunity_count, s.total_amount)";
+
+    private static final String MERGE_SUMMARY =
+            "MERGE INTO pipeline_summary t USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), " +
+                    "CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS BIGINT), CAST(? AS DECIMAL(19, 2)))) " +
+                    "s (status, stage, customer_id, closing_month, opportunity_count, total_amount) " +
+                    "ON t.status = s.status AND t.stage IS NOT DISTINCT FROM s.stage " +
+                    "AND t.customer_id IS NOT DISTINCT FROM s.customer_id " +
+                    "AND t.closing_month IS NOT DISTINCT FROM s.closing_month " +
+                    "WHEN MATCHED THEN UPDATE SET opportunity_count = t.opportunity_count + s.opportunity_count, " +
+                    "total_amount = t.total_amount + s.total_amount " +
+                    "WHEN NOT MATCHED THEN INSERT (status, stage, customer_id, closing_month, opportunity_count, total_amount) " +
+                    "VALUES (s.status, s.stage, s.customer_id, s.closing_month, s.opportunity_count, s.total_amount)";
+
+    // Rows are always locked in this order, so concurrent transactions cannot deadlock on them
+    private static final Comparator<Bucket> BUCKET_ORDER = Comparator
+            .comparing(Bucket::getStatus)
+            .thenComparing(Bucket::getStage, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Bucket::getCustomerId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Bucket::getClosingMonth, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    // Deltas of the transaction currently running in each session
+    private final Map<SharedSessionContractImplementor, Deltas> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getEventEngine().getListenerRegistry();
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Opportunity) {
+            deltas(event.getSession()).add(event.getPersister(), event.getState(), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Opportunity)) {
+            return;
+        }
+        if (event.getOldState() == null) {
+            // Only happens for updates without a loaded snapshot, which this application does not issue
+            log.warn("Opportunity {} updated without its previous state; pipeline summary needs a rebuild", event.getId());
+            return;
+        }
+        Deltas deltas = deltas(event.getSession());
+        deltas.add(event.getPersister(), event.getOldState(), -1);
+        deltas.add(event.getPersister(), event.getState(), 1);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Opportunity) {
+            deltas(event.getSession()).add(event.getPersister(), event.getDeletedState(), -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private Deltas deltas(EventSource session) {
+        return pending.computeIfAbsent(session, s -> {
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::write);
+            // Also runs on rollback, when the before-completion step is skipped
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, done) -> pending.remove(done));
+            return new Deltas();
+        });
+    }
+
+    private void write(SessionImplementor session) {
+        Deltas deltas = pending.remove(session);
+        if (deltas != null && !deltas.isEmpty()) {
+            session.doWork(connection -> deltas.write(connection));
+        }
+    }
+
+    @Value
+    private static class Bucket {
+        String status;
+        String stage;
+        Long customerId;
+        // First day of the closing month
+        LocalDate closingMonth;
+    }
+
+    private static final class Delta {
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        private boolean isZero() {
+            return count == 0 && amount.signum() == 0;
+        }
+    }
+
+    private static final class Deltas {
+
+        private final Map<String, Delta> statusTotals = new TreeMap<>();
+        private final Map<Bucket, Delta> buckets = new TreeMap<>(BUCKET_ORDER);
+
+        // Adds (sign 1) or removes (sign -1) one opportunity in the given entity state
+        private void add(EntityPersister persister, Object[] state, int sign) {
+            String status = (String) state[persister.getPropertyIndex("status")];
+            String stage = (String) state[persister.getPropertyIndex("stage")];
+            Customer customer = (Customer) state[persister.getPropertyIndex("customer")];
+            LocalDate closingDate = (LocalDate) state[persister.getPropertyIndex("closingDate")];
+            BigDecimal amount = (BigDecimal) state[persister.getPropertyIndex("amount")];
+            Bucket bucket = new Bucket(status, stage, customer != null ? customer.getId() : null,
+                    closingDate != null ? closingDate.withDayOfMonth(1) : null);
+            BigDecimal signedAmount = amount == null ? BigDecimal.ZERO : sign > 0 ? amount : amount.negate();
+            apply(statusTotals.computeIfAbsent(status, s -> new Delta()), sign, signedAmount);
+            apply(buckets.computeIfAbsent(bucket, b -> new Delta()), sign, signedAmount);
+        }
+
+        private static void apply(Delta delta, int sign, BigDecimal amount) {
+            delta.count += sign;
+            delta.amount = delta.amount.add(amount);
+        }
+
+        // A change can move an opportunity between buckets and leave every status total as it was
+        private boolean isEmpty() {
+            return statusTotals.values().stream().allMatch(Delta::isZero)
+                    && buckets.values().stream().allMatch(Delta::isZero);
+        }
+
+        private void write(Connection connection) throws SQLException {
+            // Status totals first: every writer takes those row locks before any bucket lock
+            List<Object[]> statusRows = new ArrayList<>();
+            statusTotals.forEach((status, delta) -> {
+                if (!delta.isZero()) {
+                    statusRows.add(new Object[]{status, delta.count, delta.amount});
+                }
+            });
+            merge(connection, MERGE_STATUS_TOTAL, statusRows, new int[]{Types.VARCHAR, Types.BIGINT, Types.DECIMAL});
+
+            List<Object[]> bucketRows = new ArrayList<>();
+            buckets.forEach((bucket, delta) -> {
+                if (!delta.isZero()) {
+                    bucketRows.add(new Object[]{bucket.getStatus(), bucket.getStage(), bucket.getCustomerId(),
+                            bucket.getClosingMonth(), delta.count, delta.amount});
+                }
+            });
+            merge(connection, MERGE_SUMMARY, bucketRows,
+                    new int[]{Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.DATE, Types.BIGINT, Types.DECIMAL});
+        }
+
+        private static void merge(Connection connection, String sql, List<Object[]> rows, int[] types)
+                throws SQLException {
+            if (rows.isEmpty()) {
+                return;
+            }
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (Object[] row : rows) {
+                    bind(statement, row, types);
+                    statement.addBatch();
+                }
+                try {
+                    statement.executeBatch();
+                } catch (BatchUpdateException e) {
+                    // A concurrent transaction inserted the same new row first; merging again now updates it
+                    int[] counts = e.getUpdateCounts();
+                    for (int i = 0; i < rows.size(); i++) {
+                        if (i >= counts.length || counts[i] == Statement.EXECUTE_FAILED) {
+                            bind(statement, rows.get(i), types);
+                            statement.executeUpdate();
+                        }
+                    }
+                }
+            }
+        }
+
+        private static void bind(PreparedStatement statement, Object[] row, int[] types) throws SQLException {
+            for (int i = 0; i < row.length; i++) {
+                Object value = row[i] instanceof LocalDate ? java.sql.Date.valueOf((LocalDate) row[i]) : row[i];
+                if (value == null) {
+                    statement.setNull(i + 1, types[i]);
+                } else {
+                    statement.setObject(i + 1, value, types[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.event;
+
+import lombok.RequiredArgsConstructor;
+import org.example.config.ReminderSettings;
+import org.example.dto.ActivityReminder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps reminders in memory until a client collects them through {@code GET /api/activities/reminders}.
+ * When more than {@code crm.reminders.queue.capacity} are waiting, the oldest are dropped.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "crm.reminders.queue.enabled", havingValue = "true")
+public class QueueReminderSink implements ReminderSink {
+
+    private final ReminderSettings settings;
+
+    private final ArrayDeque<ActivityReminder> queue = new ArrayDeque<>();
+
+    @Override
+    public synchronized void deliver(List<ActivityReminder> reminders) {
+        for (ActivityReminder reminder : reminders) {
+            if (queue.size() == settings.getQueue().getCapacity()) {
+                queue.pollFirst();
+            }
+            queue.addLast(reminder);
+        }
+    }
+
+    /**
+     * Removes and returns up to {@code limit} of the oldest waiting reminders.
+     */
+    public synchronized List<ActivityReminder> take(int limit) {
+        List<ActivityReminder> taken = new ArrayList<>(Math.min(limit, queue.size()));
+        while (taken.size() < limit && !queue.isEmpty()) {
+            taken.add(queue.pollFirst());
+        }
+        return taken;
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.event;
+
+import org.example.dto.ActivityReminder;
+
+import java.util.List;
+
+/**
+ * Destination of activity reminders. Every sink bean receives every batch, on the reminder thread, so
+ * implementations should hand slow work off rather than block.
+ */
+public interface ReminderSink {
+
+    void deliver(List<ActivityReminder> reminders);
+}
@@ -0,0 +1,107 @@
+package org.example.event;
+
+import lombok.RequiredArgsConstructor;
+import org.example.model.Activity;
+import org.example.service.ActivityReminderService;
+import org.example.service.UpcomingActivityIndex;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Feeds committed activity inserts, updates and deletes to the {@link UpcomingActivityIndex}, and
+ * changes of an activity's scheduled date or status to the {@link ActivityReminderService}.
+ * <p>
+ * Hibernate calls these listeners after the transaction has committed, so the index never shows an
+ * activity that was rolled back. Bulk JPQL/SQL statements bypass them; both catch up when they next
+ * load from the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpcomingActivityListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final UpcomingActivityIndex upcomingActivityIndex;
+    private final ActivityReminderService activityReminderService;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getEventEngine().getListenerRegistry();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Activity) {
+            put(event.getPersister(), (Long) event.getId(), event.getState(), null);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Activity) {
+            put(event.getPersister(), (Long) event.getId(), event.getState(), event.getOldState());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Activity) {
+            upcomingActivityIndex.remove((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was indexed before the commit
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Nothing was indexed before the commit
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Nothing was indexed before the commit
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Activity.class;
+    }
+
+    private void put(EntityPersister persister, Long id, Object[] state, Object[] oldState) {
+        int scheduledDate = persister.getPropertyIndex("scheduledDate");
+        int status = persister.getPropertyIndex("status");
+        Object customer = state[persister.getPropertyIndex("customer")];
+        upcomingActivityIndex.put(id,
+                (LocalDateTime) state[scheduledDate],
+                (String) state[status],
+                // Reads the id of an uninitialized proxy without loading it; the session may be closed
+                customer != null ? (Long) entityManagerFactory.getPersistenceUnitUtil().getIdentifier(customer) : null);
+
+        // Other edits would only add duplicate timers
+        if (oldState == null || !Objects.equals(oldState[scheduledDate], state[scheduledDate])
+                || !Objects.equals(oldState[status], state[status])) {
+            activityReminderService.schedule(id, (LocalDateTime) state[scheduledDate], (String) state[status]);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.ReminderSettings;
+import org.example.dto.ActivityReminder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+/**
+ * POSTs each batch of reminders as a JSON array to {@code crm.reminders.webhook.url}. Requests are sent
+ * asynchronously and not retried; failures are logged.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "crm.reminders.webhook.url")
+public class WebhookReminderSink implements ReminderSink {
+
+    private final ReminderSettings settings;
+    private final ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Override
+    public void deliver(List<ActivityReminder> reminders) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(reminders);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} reminders for the webhook", reminders.size(), e);
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(settings.getWebhook().getUrl()))
+                .timeout(settings.getWebhook().getTimeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            if (failure != null) {
+                log.warn("Reminder webhook failed for {} reminders: {}", reminders.size(), failure.toString());
+            } else if (response.statusCode() >= 300) {
+                log.warn("Reminder webhook answered {} for {} reminders", response.statusCode(), reminders.size());
+            }
+        });
+    }
+}
@@ -1,13 +1,21 @@
 package org.example.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.example.event.EntityChangeListener;
+import org.hibernate.annotations.DynamicUpdate;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@DynamicUpdate
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "contacts")
 @Data
 @NoArgsConstructor
@@ -15,9 +23,16 @@ import java.time.LocalDateTime;
 public class Contact {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contacts_seq")
+    @SequenceGenerator(name = "contacts_seq", sequenceName = "contacts_seq", allocationSize = 50)
     private Long id;
 
+    // Incremented on every update; a write based on an older version fails with an optimistic lock conflict.
+    // Not read from request bodies: writes state the version they expect in If-Match
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
     @Column(nullable = false)
     private String firstName;
 
@@ -29,10 +44,16 @@ public class Contact {
     @Column(nullable = false)
     private String email;
 
+    // Maintained by the database (generated column) for case-insensitive email lookups
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private String emailLower;
+
     private String phone;
 
     private String mobile;
 
+    @JsonProperty("isPrimary")
     private boolean isPrimary;
 
     @Column(length = 1000)
@@ -43,6 +64,8 @@ public class Contact {
 
     private LocalDateTime updatedAt;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id")
     private Customer customer;
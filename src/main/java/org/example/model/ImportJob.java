@@ -0,0 +1,69 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "import_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJob {
+
+    public static final String QUEUED = "Queued";
+    public static final String RUNNING = "Running";
+    public static final String COMPLETED = "Completed";
+    public static final String FAILED = "Failed";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "import_jobs_seq")
+    @SequenceGenerator(name = "import_jobs_seq", sequenceName = "import_jobs_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String entityType; // customers, contacts, opportunities
+
+    @Column(nullable = false)
+    private String status; // Queued, Running, Completed, Failed
+
+    private String fileName;
+
+    // Uploaded CSV, kept until the import completes so it can be resumed
+    @Column(nullable = false, length = 1000)
+    private String spoolFile;
+
+    // Checkpoint: the first rowsHandled data rows are written or rejected
+    @Column(nullable = false)
+    private int rowsHandled;
+
+    @Column(nullable = false)
+    private int rowsWritten;
+
+    @Column(nullable = false)
+    private int rowsFailed;
+
+    @Column(length = 1000)
+    private String message;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    public void prePersist() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "import_job_errors")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "import_job_errors_seq")
+    @SequenceGenerator(name = "import_job_errors_seq", sequenceName = "import_job_errors_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobId;
+
+    // Data row numbered from 0, not counting the header line
+    @Column(nullable = false)
+    private int rowIndex;
+
+    @Column(length = 1000)
+    private String message;
+}
@@ -1,15 +1,20 @@
 package org.example.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@DynamicUpdate
 @Table(name = "opportunities")
 @Data
 @NoArgsConstructor
@@ -17,9 +22,16 @@ import java.time.LocalDateTime;
 public class Opportunity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "opportunities_seq")
+    @SequenceGenerator(name = "opportunities_seq", sequenceName = "opportunities_seq", allocationSize = 50)
     private Long id;
 
+    // Incremented on every update; a write based on an older version fails with an optimistic lock conflict.
+    // Not read from request bodies: writes state the version they expect in If-Match
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
     @Column(nullable = false)
     private String name;
 
@@ -45,6 +57,8 @@ public class Opportunity {
 
     private LocalDateTime updatedAt;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id")
     private Customer customer;
@@ -0,0 +1,34 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+
+/**
+ * Opportunity count and amount per status. Maintained by
+ * {@link org.example.event.PipelineSummaryListener}, so it is read-only here.
+ */
+@Entity
+@Immutable
+@Table(name = "pipeline_status_totals")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineStatusTotal {
+
+    @Id
+    private String status;
+
+    @Column(nullable = false)
+    private long opportunityCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+}
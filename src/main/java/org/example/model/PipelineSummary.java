@@ -0,0 +1,45 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Opportunity count and amount per status, stage, customer and closing month. Maintained by
+ * {@link org.example.event.PipelineSummaryListener}, so it is read-only here.
+ */
+@Entity
+@Immutable
+@Table(name = "pipeline_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineSummary {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String status;
+
+    private String stage;
+
+    private Long customerId;
+
+    // First day of the closing month
+    private LocalDate closingMonth;
+
+    @Column(nullable = false)
+    private long opportunityCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+}
@@ -1,41 +1,164 @@
 package org.example.repository;
 
+import org.example.dto.ActivityReminder;
+import org.example.dto.DayCount;
+import org.example.dto.ScheduledActivity;
 import org.example.model.Activity;
 import org.example.model.Contact;
 import org.example.model.Customer;
 import org.example.model.Opportunity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface ActivityRepository extends JpaRepository<Activity, Long> {
+public interface ActivityRepository extends JpaRepository<Activity, Long>, JpaSpecificationExecutor<Activity> {
+    // Find all activities together with their related customer, contact and opportunity
+    @Override
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
+    List<Activity> findAll();
+
+    // Find an activity together with its related customer, contact and opportunity
+    @Override
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
+    Optional<Activity> findById(Long id);
+
+    // Search activities together with their related customer, contact and opportunity (see SearchSpecifications); the count query does not join
+    @Override
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
+    Page<Activity> findAll(Specification<Activity> spec, Pageable pageable);
+
     // Find activities by customer
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
     List<Activity> findByCustomer(Customer customer);
 
     // Find activities by contact
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
     List<Activity> findByContact(Contact contact);
 
     // Find activities by opportunity
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
     List<Activity> findByOpportunity(Opportunity opportunity);
 
     // Find activities by type
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
     List<Activity> findByType(String type);
 
     // Find activities by status
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
     List<Activity> findByStatus(String status);
 
     // Find activities scheduled between two dates
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
     List<Activity> findByScheduledDateBetween(LocalDateTime startDate, LocalDateTime endDate);
 
     // Find activities by customer and type
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
     List<Activity> findByCustomerAndType(Customer customer, String type);
 
     // Find recent activities
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
     List<Activity> findTop10ByOrderByCreatedAtDesc();
 
-    // Find upcoming activities
-    List<Activity> findByScheduledDateAfterAndStatusOrderByScheduledDateAsc(LocalDateTime date, String status);
-}
\ No newline at end of file
+    // Find the first upcoming activities with a given status after a date
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
+    List<Activity> findByStatusAndScheduledDateAfterOrderByScheduledDateAscIdAsc(
+            String status, LocalDateTime date, Pageable pageable);
+
+    // Find the first upcoming activities of a customer with a given status after a date
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
+    List<Activity> findByCustomerIdAndStatusAndScheduledDateAfterOrderByScheduledDateAscIdAsc(
+            Long customerId, String status, LocalDateTime date, Pageable pageable);
+
+    // Find the schedules of activities with a given status in (from, to], without loading the activities
+    @QueryIndex({"status", "scheduled_date"})
+    @Query("SELECT a.id AS id, a.scheduledDate AS scheduledDate, a.customer.id AS customerId FROM Activity a " +
+            "WHERE a.status = :status AND a.scheduledDate > :from AND a.scheduledDate <= :to")
+    List<ScheduledActivity> findSchedules(String status, LocalDateTime from, LocalDateTime to);
+
+    // Stream the schedules of activities with a given status in (from, to]
+    @QueryIndex({"status", "scheduled_date"})
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.id AS id, a.scheduledDate AS scheduledDate, a.customer.id AS customerId FROM Activity a " +
+            "WHERE a.status = :status AND a.scheduledDate > :from AND a.scheduledDate <= :to")
+    Stream<ScheduledActivity> streamSchedules(String status, LocalDateTime from, LocalDateTime to);
+
+    // Find the reminder details of those of the given activities that still have a given status
+    @QueryIndex("id")
+    @Query("SELECT new org.example.dto.ActivityReminder(a.id, a.type, a.subject, a.scheduledDate, a.customer.id) " +
+            "FROM Activity a WHERE a.id IN :ids AND a.status = :status")
+    List<ActivityReminder> findReminders(Collection<Long> ids, String status);
+
+    // Find the ids of the first activities with a given status scheduled at or before a date
+    @QueryIndex({"status", "scheduled_date"})
+    @Query("SELECT a.id FROM Activity a WHERE a.status = :status AND a.scheduledDate <= :date")
+    List<Long> findIdsByStatusScheduledUntil(String status, LocalDateTime date, Pageable pageable);
+
+    // Move the given activities from one status to another; skips those no longer in the expected status
+    @QueryIndex("id")
+    @Modifying
+    @Query("UPDATE Activity a SET a.status = :to, a.version = a.version + 1, a.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE a.id IN :ids AND a.status = :from")
+    int updateStatus(Collection<Long> ids, String from, String to);
+
+    // Find activities by id
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
+    List<Activity> findByIdIn(Collection<Long> ids);
+
+    // Count activities per day scheduled in [from, to)
+    @QueryIndex("scheduled_date")
+    @Query("SELECT cast(a.scheduledDate AS LocalDate) AS scheduledDay, COUNT(a) AS activityCount FROM Activity a " +
+            "WHERE a.scheduledDate >= :from AND a.scheduledDate < :to " +
+            "GROUP BY cast(a.scheduledDate AS LocalDate)")
+    List<DayCount> countByScheduledDay(LocalDateTime from, LocalDateTime to);
+
+    // Count a customer's activities per day scheduled in [from, to)
+    @QueryIndex({"customer_id", "scheduled_date"})
+    @Query("SELECT cast(a.scheduledDate AS LocalDate) AS scheduledDay, COUNT(a) AS activityCount FROM Activity a " +
+            "WHERE a.customer.id = :customerId AND a.scheduledDate >= :from AND a.scheduledDate < :to " +
+            "GROUP BY cast(a.scheduledDate AS LocalDate)")
+    List<DayCount> countByScheduledDayForCustomer(Long customerId, LocalDateTime from, LocalDateTime to);
+
+    // Find the next page of activities scheduled before a date, after the given (scheduled date, id) position;
+    // the redundant >= bound gives the index a range start
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
+    @QueryIndex({"scheduled_date", "id"})
+    @Query("SELECT a FROM Activity a WHERE a.scheduledDate >= :afterDate AND a.scheduledDate < :to " +
+            "AND (a.scheduledDate > :afterDate OR a.id > :afterId) ORDER BY a.scheduledDate, a.id")
+    Slice<Activity> findScheduledAfter(LocalDateTime afterDate, Long afterId, LocalDateTime to, Pageable pageable);
+
+    // Find the next page of a customer's activities scheduled before a date, after the given (scheduled date, id) position
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
+    @QueryIndex({"customer_id", "scheduled_date", "id"})
+    @Query("SELECT a FROM Activity a WHERE a.customer.id = :customerId " +
+            "AND a.scheduledDate >= :afterDate AND a.scheduledDate < :to " +
+            "AND (a.scheduledDate > :afterDate OR a.id > :afterId) ORDER BY a.scheduledDate, a.id")
+    Slice<Activity> findScheduledAfterForCustomer(Long customerId, LocalDateTime afterDate, Long afterId,
+                                                  LocalDateTime to, Pageable pageable);
+
+    // Find the next page of activities after the given id (keyset pagination)
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
+    Slice<Activity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Stream all activities ordered by id without materializing the result
+    @EntityGraph(attributePaths = {"customer", "contact", "opportunity"})
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<Activity> streamAllByOrderByIdAsc();
+}
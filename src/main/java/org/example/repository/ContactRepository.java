@@ -1,29 +1,85 @@
 package org.example.repository;
 
+import org.example.dto.ContactCount;
 import org.example.model.Contact;
 import org.example.model.Customer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface ContactRepository extends JpaRepository<Contact, Long> {
+public interface ContactRepository extends JpaRepository<Contact, Long>, JpaSpecificationExecutor<Contact> {
+    // Find all contacts together with their customer
+    @Override
+    @EntityGraph(attributePaths = "customer")
+    List<Contact> findAll();
+
+    // Find a contact together with its customer
+    @Override
+    @EntityGraph(attributePaths = "customer")
+    Optional<Contact> findById(Long id);
+
+    // Search contacts together with their customer (see SearchSpecifications); the count query does not join
+    @Override
+    @EntityGraph(attributePaths = "customer")
+    Page<Contact> findAll(Specification<Contact> spec, Pageable pageable);
+
     // Find contacts by customer
+    @EntityGraph(attributePaths = "customer")
     List<Contact> findByCustomer(Customer customer);
 
     // Find primary contacts
+    @EntityGraph(attributePaths = "customer")
     List<Contact> findByIsPrimaryTrue();
 
-    // Find contacts by email
+    // Find contacts by email (case-insensitive, via the generated lower-case column)
+    @QueryIndex("email_lower")
+    @Query("SELECT c FROM Contact c LEFT JOIN FETCH c.customer WHERE c.emailLower = LOWER(:email)")
     Optional<Contact> findByEmailIgnoreCase(String email);
 
     // Find contacts by first name or last name containing the given string
-    @Query("SELECT c FROM Contact c WHERE LOWER(c.firstName) LIKE LOWER(CONCAT('%', :name, '%')) OR LOWER(c.lastName) LIKE LOWER(CONCAT('%', :name, '%'))")
+    @FullScan("substring match cannot use a b-tree index")
+    @Query("SELECT c FROM Contact c LEFT JOIN FETCH c.customer WHERE LOWER(c.firstName) LIKE LOWER(CONCAT('%', :name, '%')) OR LOWER(c.lastName) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Contact> findByName(String name);
 
     // Find contacts by customer and whether they are primary
     List<Contact> findByCustomerAndIsPrimary(Customer customer, boolean isPrimary);
-}
\ No newline at end of file
+
+    // Count the contacts of each of the given customers
+    @QueryIndex("customer_id")
+    @Query("SELECT c.customer.id AS customerId, COUNT(c) AS contactCount FROM Contact c " +
+            "WHERE c.customer.id IN :customerIds GROUP BY c.customer.id")
+    List<ContactCount> countByCustomerIdIn(Collection<Long> customerIds);
+
+    // Clear the primary flag of all other contacts of the customer in one statement
+    @QueryIndex({"customer_id", "is_primary"})
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Contact c SET c.isPrimary = false, c.version = c.version + 1, c.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE c.customer.id = :customerId AND c.isPrimary = true AND c.id <> :contactId")
+    int demotePrimaryContactsExcept(Long customerId, Long contactId);
+
+    // Find the next page of contacts after the given id (keyset pagination)
+    @EntityGraph(attributePaths = "customer")
+    Slice<Contact> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Stream all contacts ordered by id without materializing the result
+    @EntityGraph(attributePaths = "customer")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<Contact> streamAllByOrderByIdAsc();
+}
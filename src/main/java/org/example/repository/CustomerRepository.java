@@ -1,22 +1,74 @@
 package org.example.repository;
 
+import org.example.dto.CustomerDto;
+import org.example.dto.CustomerRef;
 import org.example.model.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends JpaRepository<Customer, Long>, JpaSpecificationExecutor<Customer> {
+    // Read projection shared by the list queries; the contact count is computed by the database
+    String DTO_SELECT = "SELECT new org.example.dto.CustomerDto(c.id, c.version, c.companyName, c.industry, c.website, " +
+            "c.status, c.createdAt, c.updatedAt, (SELECT COUNT(ct) FROM Contact ct WHERE ct.customer = c)) " +
+            "FROM Customer c ";
+
     // Find customers by company name containing the given string (case-insensitive)
-    List<Customer> findByCompanyNameContainingIgnoreCase(String companyName);
+    @FullScan("substring match cannot use a b-tree index")
+    @Query(DTO_SELECT + "WHERE LOWER(c.companyName) LIKE LOWER(CONCAT('%', :companyName, '%'))")
+    List<CustomerDto> findByCompanyNameContainingIgnoreCase(String companyName);
 
     // Find customers by status
-    List<Customer> findByStatus(String status);
+    @QueryIndex("status")
+    @Query(DTO_SELECT + "WHERE c.status = :status")
+    List<CustomerDto> findByStatus(String status);
 
     // Find customers by industry
-    List<Customer> findByIndustry(String industry);
+    @QueryIndex("industry")
+    @Query(DTO_SELECT + "WHERE c.industry = :industry")
+    List<CustomerDto> findByIndustry(String industry);
 
-    // Check if a customer exists by company name
+    // Check if a customer exists by company name (case-insensitive, via the generated lower-case column)
+    @QueryIndex("company_name_lower")
+    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Customer c " +
+            "WHERE c.companyNameLower = LOWER(:companyName)")
     boolean existsByCompanyNameIgnoreCase(String companyName);
-}
\ No newline at end of file
+
+    // Lock the customer row until the end of the transaction, serializing changes to its contacts
+    @QueryIndex("id")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c.id FROM Customer c WHERE c.id = :id")
+    Optional<Long> lockById(Long id);
+
+    // Resolve lower-cased company names to customers in one query
+    @QueryIndex("company_name_lower")
+    @Query("SELECT new org.example.dto.CustomerRef(c.id, c.version, c.companyName) FROM Customer c " +
+            "WHERE c.companyNameLower IN :names")
+    List<CustomerRef> findRefsByCompanyNameLowerIn(Collection<String> names);
+
+    // Find the next page of customers after the given id (keyset pagination)
+    @QueryIndex("id")
+    @Query(DTO_SELECT + "WHERE c.id > :id ORDER BY c.id")
+    Slice<CustomerDto> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Stream all customers ordered by id without materializing the result
+    @QueryIndex("id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(DTO_SELECT + "ORDER BY c.id")
+    Stream<CustomerDto> streamAllByOrderByIdAsc();
+}
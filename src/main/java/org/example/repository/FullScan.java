@@ -0,0 +1,22 @@
+package org.example.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a repository query that cannot be served by a B-tree index (for example a substring
+ * match or a whole-table aggregate) and is exempt from {@link org.example.config.QueryIndexVerifier}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface FullScan {
+
+    /**
+     * Why the query scans.
+     */
+    String value();
+}
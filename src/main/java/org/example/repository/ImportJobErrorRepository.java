@@ -0,0 +1,14 @@
+package org.example.repository;
+
+import org.example.model.ImportJobError;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ImportJobErrorRepository extends JpaRepository<ImportJobError, Long> {
+    // Find the rejected rows of a job in input order
+    List<ImportJobError> findByJobIdOrderByRowIndexAsc(Long jobId, Pageable pageable);
+}
@@ -0,0 +1,24 @@
+package org.example.repository;
+
+import org.example.model.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+    // Find jobs in any of the given states
+    List<ImportJob> findByStatusIn(Collection<String> statuses);
+
+    // Move a job from one state to another; returns 0 when it is not in the expected state
+    @QueryIndex("id")
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = :to, j.updatedAt = CURRENT_TIMESTAMP WHERE j.id = :id AND j.status = :from")
+    int updateStatus(Long id, String from, String to);
+}
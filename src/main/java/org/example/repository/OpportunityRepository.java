@@ -1,36 +1,88 @@
 package org.example.repository;
 
+import org.example.dto.ForecastInput;
 import org.example.model.Customer;
 import org.example.model.Opportunity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface OpportunityRepository extends JpaRepository<Opportunity, Long> {
+public interface OpportunityRepository extends JpaRepository<Opportunity, Long>, JpaSpecificationExecutor<Opportunity> {
+    // Find all opportunities together with their customer
+    @Override
+    @EntityGraph(attributePaths = "customer")
+    List<Opportunity> findAll();
+
+    // Find an opportunity together with its customer
+    @Override
+    @EntityGraph(attributePaths = "customer")
+    Optional<Opportunity> findById(Long id);
+
+    // Search opportunities together with their customer (see SearchSpecifications); the count query does not join
+    @Override
+    @EntityGraph(attributePaths = "customer")
+    Page<Opportunity> findAll(Specification<Opportunity> spec, Pageable pageable);
+
     // Find opportunities by customer
+    @EntityGraph(attributePaths = "customer")
     List<Opportunity> findByCustomer(Customer customer);
 
     // Find opportunities by status
+    @EntityGraph(attributePaths = "customer")
     List<Opportunity> findByStatus(String status);
 
     // Find opportunities by stage
+    @EntityGraph(attributePaths = "customer")
     List<Opportunity> findByStage(String stage);
 
     // Find opportunities with amount greater than the specified value
+    @EntityGraph(attributePaths = "customer")
     List<Opportunity> findByAmountGreaterThan(BigDecimal amount);
 
     // Find opportunities closing within a date range
+    @EntityGraph(attributePaths = "customer")
     List<Opportunity> findByClosingDateBetween(LocalDate startDate, LocalDate endDate);
 
     // Find opportunities by customer and status
+    @EntityGraph(attributePaths = "customer")
     List<Opportunity> findByCustomerAndStatus(Customer customer, String status);
 
     // Calculate total opportunity value by status
+    @QueryIndex("status")
     @Query("SELECT SUM(o.amount) FROM Opportunity o WHERE o.status = :status")
     BigDecimal calculateTotalAmountByStatus(String status);
-}
\ No newline at end of file
+
+    // Find the next page of opportunities after the given id (keyset pagination)
+    @EntityGraph(attributePaths = "customer")
+    Slice<Opportunity> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Stream all opportunities ordered by id without materializing the result
+    @EntityGraph(attributePaths = "customer")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<Opportunity> streamAllByOrderByIdAsc();
+
+    // Stream the forecast columns of the opportunities that are not in one of the given statuses
+    @FullScan("forecasts every open opportunity")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new org.example.dto.ForecastInput(o.stage, o.customer.id, o.closingDate, o.amount, o.probability) " +
+            "FROM Opportunity o WHERE o.status NOT IN :statuses AND o.amount IS NOT NULL")
+    Stream<ForecastInput> streamForecastInputs(Collection<String> statuses);
+}
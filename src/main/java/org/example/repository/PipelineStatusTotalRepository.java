@@ -0,0 +1,18 @@
+package org.example.repository;
+
+import org.example.dto.StatusTotal;
+import org.example.model.PipelineStatusTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PipelineStatusTotalRepository extends JpaRepository<PipelineStatusTotal, String> {
+    // Count and amount of every status (one row per status)
+    @FullScan("one row per opportunity status")
+    @Query("SELECT p.status AS status, p.opportunityCount AS opportunityCount, p.totalAmount AS total " +
+            "FROM PipelineStatusTotal p")
+    List<StatusTotal> findStatusTotals();
+}
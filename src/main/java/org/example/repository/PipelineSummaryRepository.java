@@ -0,0 +1,26 @@
+package org.example.repository;
+
+import org.example.dto.MonthlyTotal;
+import org.example.model.PipelineSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PipelineSummaryRepository extends JpaRepository<PipelineSummary, Long> {
+    // Find the non-empty pipeline rows of a customer (emptied rows stay until the next rebuild)
+    @QueryIndex("customer_id")
+    @Query("SELECT p FROM PipelineSummary p WHERE p.customerId = :customerId AND p.opportunityCount > 0 " +
+            "ORDER BY p.status, p.closingMonth")
+    List<PipelineSummary> findByCustomerId(Long customerId);
+
+    // Sum amounts with the given status per closing month
+    @QueryIndex({"status", "closing_month"})
+    @Query("SELECT YEAR(p.closingMonth) AS closingYear, MONTH(p.closingMonth) AS closingMonth, SUM(p.totalAmount) AS total " +
+            "FROM PipelineSummary p WHERE p.status = :status AND p.closingMonth IS NOT NULL " +
+            "GROUP BY YEAR(p.closingMonth), MONTH(p.closingMonth) " +
+            "ORDER BY YEAR(p.closingMonth), MONTH(p.closingMonth)")
+    List<MonthlyTotal> sumAmountByClosingMonth(String status);
+}
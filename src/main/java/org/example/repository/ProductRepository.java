@@ -1,22 +1,38 @@
 package org.example.repository;
 
+import org.example.config.CacheNames;
 import org.example.model.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    // Find product by code
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+    // Find product by code (query cache; invalidated by any write to the products table)
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheNames.PRODUCT_QUERY)})
     Optional<Product> findByCode(String code);
 
     // Find products by name containing the given string
+    @FullScan("substring match cannot use a b-tree index")
     List<Product> findByNameContainingIgnoreCase(String name);
 
-    // Find products by category
+    // Find products by category (query cache; invalidated by any write to the products table)
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheNames.PRODUCT_QUERY)})
     List<Product> findByCategory(String category);
 
     // Find products by status
@@ -30,4 +46,11 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     // Check if a product exists by code
     boolean existsByCode(String code);
-}
\ No newline at end of file
+
+    // Find the next page of products after the given id (keyset pagination)
+    Slice<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Stream all products ordered by id without materializing the result
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<Product> streamAllByOrderByIdAsc();
+}
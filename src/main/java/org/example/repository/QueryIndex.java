@@ -0,0 +1,23 @@
+package org.example.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the columns an explicit {@code @Query} method filters on, so that
+ * {@link org.example.config.QueryIndexVerifier} can check that an index starting with
+ * these columns exists. Derived query methods do not need this annotation.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryIndex {
+
+    /**
+     * Leading columns of the supporting index, in index order.
+     */
+    String[] value();
+}
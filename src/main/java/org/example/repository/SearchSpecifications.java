@@ -0,0 +1,113 @@
+package org.example.repository;
+
+import jakarta.persistence.criteria.Path;
+import org.example.dto.ActivityFilter;
+import org.example.dto.ContactFilter;
+import org.example.dto.CustomerFilter;
+import org.example.dto.OpportunityFilter;
+import org.example.dto.ProductFilter;
+import org.example.model.Activity;
+import org.example.model.Contact;
+import org.example.model.Customer;
+import org.example.model.Opportunity;
+import org.example.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+/**
+ * Specifications for the search endpoints: every criterion of a filter that is set becomes one predicate
+ * and they are combined with AND, so any combination runs as a single query. Values are bound as
+ * parameters, so the same combination of criteria always produces the same SQL, which the database
+ * parses once per connection and reuses.
+ * <p>
+ * Every equality and range criterion is on an indexed column. Name criteria are substring matches, which no
+ * index serves, so they only narrow the rows the other criteria select (or scan the table on their own).
+ */
+public final class SearchSpecifications {
+
+    private SearchSpecifications() {
+    }
+
+    public static Specification<Customer> customers(CustomerFilter filter) {
+        return Specification.<Customer>where(containsIgnoreCase("companyName", filter.getName()))
+                .and(equalTo("status", filter.getStatus()))
+                .and(equalTo("industry", filter.getIndustry()));
+    }
+
+    public static Specification<Contact> contacts(ContactFilter filter) {
+        Specification<Contact> name = containsIgnoreCase("firstName", filter.getName());
+        // The generated lower-case column, as for the lookup by email
+        String email = filter.getEmail() != null ? filter.getEmail().toLowerCase(Locale.ROOT) : null;
+        return Specification.where(name != null ? name.or(containsIgnoreCase("lastName", filter.getName())) : null)
+                .and(equalTo("emailLower", email))
+                .and(customerIs(filter.getCustomerId()))
+                .and(equalTo("isPrimary", filter.getPrimary()));
+    }
+
+    public static Specification<Opportunity> opportunities(OpportunityFilter filter) {
+        return Specification.<Opportunity>where(containsIgnoreCase("name", filter.getName()))
+                .and(equalTo("status", filter.getStatus()))
+                .and(equalTo("stage", filter.getStage()))
+                .and(customerIs(filter.getCustomerId()))
+                .and(between("amount", filter.getMinAmount(), filter.getMaxAmount()))
+                .and(between("closingDate", filter.getClosingFrom(), filter.getClosingTo()));
+    }
+
+    public static Specification<Activity> activities(ActivityFilter filter) {
+        return Specification.<Activity>where(equalTo("type", filter.getType()))
+                .and(equalTo("status", filter.getStatus()))
+                .and(customerIs(filter.getCustomerId()))
+                .and(referenceIs("contact", filter.getContactId()))
+                .and(referenceIs("opportunity", filter.getOpportunityId()))
+                .and(between("scheduledDate", filter.getScheduledFrom(), filter.getScheduledTo()));
+    }
+
+    public static Specification<Product> products(ProductFilter filter) {
+        return Specification.<Product>where(containsIgnoreCase("name", filter.getName()))
+                .and(equalTo("category", filter.getCategory()))
+                .and(equalTo("status", filter.getStatus()))
+                .and(between("listPrice", filter.getMinPrice(), filter.getMaxPrice()));
+    }
+
+    private static <T> Specification<T> equalTo(String attribute, Object value) {
+        if (value == null || value instanceof String text && text.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(attribute), value);
+    }
+
+    // Compares the foreign key column; the referenced entity is not joined
+    private static <T> Specification<T> referenceIs(String attribute, Long id) {
+        if (id == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(attribute).get("id"), id);
+    }
+
+    private static <T> Specification<T> customerIs(Long customerId) {
+        return referenceIs("customer", customerId);
+    }
+
+    private static <T, V extends Comparable<? super V>> Specification<T> between(String attribute, V from, V to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Path<V> path = root.get(attribute);
+            if (from == null) {
+                return cb.lessThanOrEqualTo(path, to);
+            }
+            return to == null ? cb.greaterThanOrEqualTo(path, from) : cb.between(path, from, to);
+        };
+    }
+
+    private static <T> Specification<T> containsIgnoreCase(String attribute, String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get(attribute)), pattern, '\\');
+    }
+}
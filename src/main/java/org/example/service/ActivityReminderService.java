@@ -0,0 +1,332 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.ReminderSettings;
+import org.example.dto.ActivityReminder;
+import org.example.dto.ScheduledActivity;
+import org.example.event.ReminderSink;
+import org.example.repository.ActivityRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sends a reminder shortly before each planned activity starts and marks planned activities overdue
+ * once their scheduled date has passed.
+ * <p>
+ * Planned activities scheduled within {@code crm.reminders.horizon} are loaded into a {@link TimingWheel},
+ * with one timer for the reminder and one for the overdue check; the window is extended every
+ * {@code crm.reminders.load-interval} with a range read of the (status, scheduled_date) index.
+ * {@link org.example.event.UpcomingActivityListener} passes every committed change of an activity's date
+ * or status, so new and rescheduled activities get timers without polling the table.
+ * <p>
+ * A single thread advances the wheel every tick. Timers are never cancelled: when they expire the
+ * activities are read back in batches, and only those that are still planned and still due at that time
+ * are reminded of or marked overdue, so completed, cancelled, deleted and rescheduled activities drop
+ * out there. Reminders go to every {@link ReminderSink} bean. At startup, activities that became overdue
+ * while the application was down are marked first.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ActivityReminderService {
+
+    public static final String OVERDUE = "Overdue";
+
+    // Timer kinds, stored in the low bits of the wheel payload next to the activity id
+    private static final int REMINDER = 0;
+    private static final int LATE_REMINDER = 1;
+    private static final int OVERDUE_CHECK = 2;
+    private static final int KIND_BITS = 2;
+
+    private final ActivityRepository activityRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final List<ReminderSink> sinks;
+    private final ReminderSettings settings;
+    private final MeterRegistry meterRegistry;
+
+    // Committed schedule changes, applied to the wheel by the reminder thread
+    private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+    private volatile boolean acceptingChanges;
+
+    private ScheduledExecutorService executor;
+    private TransactionTemplate readTransaction;
+    private TransactionTemplate writeTransaction;
+    private Counter remindersSent;
+    private Counter activitiesOverdue;
+    private volatile long scheduledTimers;
+
+    // Used by the reminder thread only
+    private TimingWheel wheel;
+    private LocalDateTime loadedUntil;
+    private LocalDateTime nextLoad;
+
+    @PostConstruct
+    public void open() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        long tickMillis = settings.getTick().toMillis();
+        if (tickMillis <= 0) {
+            throw new IllegalStateException("crm.reminders.tick must be at least one millisecond");
+        }
+        Duration reach = settings.getHorizon().plus(settings.getLoadInterval()).plus(settings.getOverdueAfter());
+        if (reach.toMillis() / tickMillis >= TimingWheel.SPAN) {
+            throw new IllegalStateException("crm.reminders horizon, load-interval and overdue-after exceed "
+                    + TimingWheel.SPAN + " ticks");
+        }
+
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        remindersSent = Counter.builder("crm.reminders.sent")
+                .description("Activity reminders delivered to the sinks")
+                .register(meterRegistry);
+        activitiesOverdue = Counter.builder("crm.reminders.overdue")
+                .description("Activities marked overdue")
+                .register(meterRegistry);
+        Gauge.builder("crm.reminders.scheduled", this, service -> service.scheduledTimers)
+                .description("Reminder and overdue timers waiting in the timing wheel")
+                .register(meterRegistry);
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "activity-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (executor == null) {
+            return;
+        }
+        executor.scheduleWithFixedDelay(this::tick, 0, settings.getTick().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a committed change of an activity's scheduled date or status. Only planned activities
+     * get timers; the old timers of a rescheduled activity expire without effect.
+     */
+    public void schedule(Long id, LocalDateTime scheduledDate, String status) {
+        if (acceptingChanges && UpcomingActivityIndex.PLANNED.equals(status) && scheduledDate != null) {
+            changes.add(new Change(id, scheduledDate));
+        }
+    }
+
+    private void startWheel(LocalDateTime now) {
+        int overdue = markOverdueSince(now);
+        if (overdue > 0) {
+            log.info("Marked {} activities overdue that passed while the application was stopped", overdue);
+        }
+        wheel = new TimingWheel(tickOf(now));
+        // Activities not yet overdue but already started still need their overdue timer
+        loadedUntil = now.minus(settings.getOverdueAfter());
+        // Changes committed from here on are applied after the load, so none is missed
+        acceptingChanges = true;
+        try {
+            load(now);
+        } catch (RuntimeException e) {
+            wheel = null;
+            throw e;
+        }
+    }
+
+    private void tick() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (wheel == null) {
+                // Started by the first tick, and by the next ones until a start succeeds
+                startWheel(now);
+            } else if (!now.isBefore(nextLoad)) {
+                load(now);
+            }
+            Change change;
+            while ((change = changes.poll()) != null) {
+                // Later ones are loaded when the window reaches them
+                if (!change.getScheduledDate().isAfter(loadedUntil)) {
+                    addTimers(change.getId(), change.getScheduledDate(), now, true);
+                }
+            }
+            fire(now);
+            scheduledTimers = wheel.size();
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task; the due timers are lost, the next tick retries
+            log.warn(wheel == null ? "Activity reminders failed to start" : "Activity reminder tick failed", e);
+        }
+    }
+
+    private void load(LocalDateTime now) {
+        LocalDateTime until = now.plus(settings.getHorizon());
+        long before = wheel.size();
+        readTransaction.executeWithoutResult(status -> {
+            try (Stream<ScheduledActivity> schedules =
+                         activityRepository.streamSchedules(UpcomingActivityIndex.PLANNED, loadedUntil, until)) {
+                schedules.forEach(schedule -> addTimers(schedule.getId(), schedule.getScheduledDate(), now, false));
+            }
+        });
+        log.debug("Loaded {} activity timers scheduled until {}", wheel.size() - before, until);
+        loadedUntil = until;
+        nextLoad = now.plus(settings.getLoadInterval());
+        scheduledTimers = wheel.size();
+    }
+
+    private void addTimers(long id, LocalDateTime scheduledDate, LocalDateTime now, boolean changed) {
+        long reminderTick = tickOf(scheduledDate.minus(settings.getLeadTime()));
+        if (reminderTick > wheel.getCurrentTick()) {
+            wheel.schedule(reminderTick, payload(id, REMINDER));
+        } else if (changed && scheduledDate.isAfter(now)) {
+            // Created or moved to within the lead time: remind right away
+            wheel.schedule(wheel.getCurrentTick() + 1, payload(id, LATE_REMINDER));
+        }
+        wheel.schedule(tickOf(scheduledDate.plus(settings.getOverdueAfter())), payload(id, OVERDUE_CHECK));
+    }
+
+    private void fire(LocalDateTime now) {
+        // Keyed by id, which also drops duplicate timers of an activity expiring together
+        Map<Long, Long> reminderTicks = new LinkedHashMap<>();
+        Set<Long> lateReminders = new LinkedHashSet<>();
+        Set<Long> overdueChecks = new LinkedHashSet<>();
+        wheel.advance(tickOf(now), (tick, payload) -> {
+            long id = payload >>> KIND_BITS;
+            switch ((int) (payload & ((1 << KIND_BITS) - 1))) {
+                case REMINDER -> reminderTicks.put(id, tick);
+                case LATE_REMINDER -> lateReminders.add(id);
+                default -> overdueChecks.add(id);
+            }
+        });
+
+        for (List<Long> batch : batches(reminderTicks.keySet())) {
+            // Only activities still planned for the time this timer was set for
+            deliver(ActivityReminder.Kind.REMINDER, findPlanned(batch).stream()
+                    .filter(reminder -> tickOf(reminder.getScheduledDate().minus(settings.getLeadTime()))
+                            == reminderTicks.get(reminder.getActivityId()))
+                    .collect(Collectors.toList()));
+        }
+        for (List<Long> batch : batches(lateReminders)) {
+            deliver(ActivityReminder.Kind.REMINDER, findPlanned(batch).stream()
+                    .filter(reminder -> reminder.getScheduledDate().isAfter(now))
+                    .collect(Collectors.toList()));
+        }
+        for (List<Long> batch : batches(overdueChecks)) {
+            markOverdue(batch, now);
+        }
+    }
+
+    private List<ActivityReminder> findPlanned(List<Long> ids) {
+        return readTransaction.execute(status -> activityRepository.findReminders(ids, UpcomingActivityIndex.PLANNED));
+    }
+
+    /**
+     * Marks every planned activity whose overdue time has passed, in batches; returns how many.
+     */
+    private int markOverdueSince(LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(settings.getOverdueAfter());
+        PageRequest batch = PageRequest.of(0, settings.getBatchSize());
+        int total = 0;
+        while (true) {
+            List<Long> ids = readTransaction.execute(status ->
+                    activityRepository.findIdsByStatusScheduledUntil(UpcomingActivityIndex.PLANNED, cutoff, batch));
+            int marked = ids.isEmpty() ? 0 : markOverdue(ids, now);
+            if (marked == 0) {
+                return total;
+            }
+            total += marked;
+        }
+    }
+
+    private int markOverdue(List<Long> ids, LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(settings.getOverdueAfter());
+        List<ActivityReminder> overdue = writeTransaction.execute(status -> {
+            List<ActivityReminder> due = activityRepository.findReminders(ids, UpcomingActivityIndex.PLANNED).stream()
+                    .filter(reminder -> !reminder.getScheduledDate().isAfter(cutoff))
+                    .collect(Collectors.toList());
+            if (!due.isEmpty()) {
+                activityRepository.updateStatus(due.stream().map(ActivityReminder::getActivityId)
+                        .collect(Collectors.toList()), UpcomingActivityIndex.PLANNED, OVERDUE);
+            }
+            return due;
+        });
+        deliver(ActivityReminder.Kind.OVERDUE, overdue);
+        return overdue.size();
+    }
+
+    private void deliver(ActivityReminder.Kind kind, List<ActivityReminder> reminders) {
+        if (reminders.isEmpty()) {
+            return;
+        }
+        reminders.forEach(reminder -> reminder.setKind(kind));
+        for (ReminderSink sink : sinks) {
+            try {
+                sink.deliver(reminders);
+            } catch (RuntimeException e) {
+                log.warn("Reminder sink {} failed for {} reminders", sink.getClass().getSimpleName(), reminders.size(), e);
+            }
+        }
+        (kind == ActivityReminder.Kind.REMINDER ? remindersSent : activitiesOverdue).increment(reminders.size());
+    }
+
+    private List<List<Long>> batches(Set<Long> ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        List<Long> batch = new ArrayList<>();
+        for (Long id : ids) {
+            batch.add(id);
+            if (batch.size() == settings.getBatchSize()) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private long tickOf(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / settings.getTick().toMillis();
+    }
+
+    private static long payload(long id, int kind) {
+        return (id << KIND_BITS) | kind;
+    }
+
+    @Value
+    private static class Change {
+        long id;
+        LocalDateTime scheduledDate;
+    }
+}
@@ -1,74 +1,323 @@
 package org.example.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.ActivityCalendar;
+import org.example.dto.ActivityDto;
+import org.example.dto.ActivityFilter;
+import org.example.dto.BulkResult;
+import org.example.dto.CalendarBucket;
+import org.example.dto.DayCount;
+import org.example.dto.References;
 import org.example.model.Activity;
 import org.example.model.Contact;
 import org.example.model.Customer;
 import org.example.model.Opportunity;
 import org.example.repository.ActivityRepository;
+import org.example.repository.SearchSpecifications;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.EntityManager;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ActivityService {
 
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
+    private static final long MAX_CALENDAR_DAYS = 366;
+
     private final ActivityRepository activityRepository;
+    private final BulkWriter bulkWriter;
+    private final EntityManager entityManager;
+    private final UpcomingActivityIndex upcomingActivityIndex;
+    private final ReferenceResolver referenceResolver;
+    private final MergePatcher mergePatcher;
+
+    public Slice<ActivityDto> findActivitiesAfter(Long afterId, int limit) {
+        return activityRepository.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : 0L, PageRequest.of(0, limit))
+                .map(ActivityDto::from);
+    }
 
-    public List<Activity> findAllActivities() {
-        return activityRepository.findAll();
+    /**
+     * Activities matching every criterion of the filter, with their customers, contacts and opportunities.
+     */
+    public Page<ActivityDto> searchActivities(ActivityFilter filter, Pageable pageable) {
+        return activityRepository.findAll(SearchSpecifications.activities(filter), pageable).map(ActivityDto::from);
+    }
+
+    public void forEachActivity(Consumer<? super ActivityDto> action) {
+        try (Stream<Activity> activities = activityRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Activity> iterator = activities.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                action.accept(ActivityDto.from(iterator.next()));
+                // Clear written rows periodically so the persistence context stays constant-size
+                if (++written % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
     }
 
     public Optional<Activity> findActivityById(Long id) {
         return activityRepository.findById(id);
     }
 
-    public List<Activity> findActivitiesByCustomer(Customer customer) {
-        return activityRepository.findByCustomer(customer);
+    public List<ActivityDto> findActivitiesByCustomer(Customer customer) {
+        return activityRepository.findByCustomer(customer).stream()
+                .map(ActivityDto::from)
+                .collect(Collectors.toList());
+    }
+
+    public List<ActivityDto> findActivitiesByContact(Contact contact) {
+        return activityRepository.findByContact(contact).stream()
+                .map(ActivityDto::from)
+                .collect(Collectors.toList());
+    }
+
+    public List<ActivityDto> findActivitiesByOpportunity(Opportunity opportunity) {
+        return activityRepository.findByOpportunity(opportunity).stream()
+                .map(ActivityDto::from)
+                .collect(Collectors.toList());
     }
 
-    public List<Activity> findActivitiesByContact(Contact contact) {
-        return activityRepository.findByContact(contact);
+    public List<ActivityDto> findActivitiesByType(String type) {
+        return activityRepository.findByType(type).stream()
+                .map(ActivityDto::from)
+                .collect(Collectors.toList());
     }
 
-    public List<Activity> findActivitiesByOpportunity(Opportunity opportunity) {
-        return activityRepository.findByOpportunity(opportunity);
+    public List<ActivityDto> findActivitiesByStatus(String status) {
+        return activityRepository.findByStatus(status).stream()
+                .map(ActivityDto::from)
+                .collect(Collectors.toList());
     }
 
-    public List<Activity> findActivitiesByType(String type) {
-        return activityRepository.findByType(type);
+    public List<ActivityDto> findActivitiesByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return activityRepository.findByScheduledDateBetween(startDate, endDate).stream()
+                .map(ActivityDto::from)
+                .collect(Collectors.toList());
     }
 
-    public List<Activity> findActivitiesByStatus(String status) {
-        return activityRepository.findByStatus(status);
+    public List<ActivityDto> findRecentActivities() {
+        return activityRepository.findTop10ByOrderByCreatedAtDesc().stream()
+                .map(ActivityDto::from)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The next {@code limit} planned activities, of one customer or of all (null). They are picked from the
+     * {@link UpcomingActivityIndex} and loaded by id in one query; the database is only searched when the
+     * index runs out, for activities beyond its horizon.
+     */
+    public List<ActivityDto> findUpcomingActivities(Long customerId, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        UpcomingActivityIndex.Upcoming upcoming = upcomingActivityIndex.next(customerId, now, limit);
+
+        List<Activity> activities = new ArrayList<>(limit);
+        if (!upcoming.getIds().isEmpty()) {
+            Map<Long, Activity> byId = activityRepository.findByIdIn(upcoming.getIds()).stream()
+                    .collect(Collectors.toMap(Activity::getId, activity -> activity));
+            // Activities deleted since the lookup are skipped
+            upcoming.getIds().stream().map(byId::get).filter(Objects::nonNull).forEach(activities::add);
+        }
+        if (upcoming.getIds().size() < limit) {
+            LocalDateTime after = upcoming.getCoveredUntil().isAfter(now) ? upcoming.getCoveredUntil() : now;
+            PageRequest rest = PageRequest.of(0, limit - upcoming.getIds().size());
+            activities.addAll(customerId == null
+                    ? activityRepository.findByStatusAndScheduledDateAfterOrderByScheduledDateAscIdAsc(
+                            UpcomingActivityIndex.PLANNED, after, rest)
+                    : activityRepository.findByCustomerIdAndStatusAndScheduledDateAfterOrderByScheduledDateAscIdAsc(
+                            customerId, UpcomingActivityIndex.PLANNED, after, rest));
+        }
+        return activities.stream()
+                .map(ActivityDto::from)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * One page of the activities scheduled on the days {@code from} to {@code to} (inclusive), of one customer
+     * or of all (null), in schedule order after the {@code after} cursor ({@code scheduledDate,id} of the last
+     * activity of the previous page). Buckets of a day or a week (from Monday) carry the number of activities
+     * over the whole range; those without activities on this page have an empty list.
+     *
+     * @throws IllegalArgumentException if the range, granularity or cursor is invalid
+     */
+    public ActivityCalendar findCalendar(LocalDate from, LocalDate to, Long customerId, String granularity,
+                                         String after, int limit) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_CALENDAR_DAYS) {
+            throw new IllegalArgumentException("to must be on or after from and at most " + MAX_CALENDAR_DAYS + " days later");
+        }
+        boolean weekly;
+        if ("day".equalsIgnoreCase(granularity)) {
+            weekly = false;
+        } else if ("week".equalsIgnoreCase(granularity)) {
+            weekly = true;
+        } else {
+            throw new IllegalArgumentException("granularity must be day or week");
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        LocalDateTime afterDate = start;
+        long afterId = 0;
+        if (after != null) {
+            int comma = after.lastIndexOf(',');
+            try {
+                afterDate = LocalDateTime.parse(after.substring(0, Math.max(comma, 0)));
+                afterId = Long.parseLong(after.substring(comma + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("after must be a cursor of the form scheduledDate,id");
+            }
+        }
+
+        Map<LocalDate, CalendarBucket> buckets = new TreeMap<>();
+        List<DayCount> dayCounts = customerId == null
+                ? activityRepository.countByScheduledDay(start, end)
+                : activityRepository.countByScheduledDayForCustomer(customerId, start, end);
+        for (DayCount dayCount : dayCounts) {
+            CalendarBucket bucket = buckets.computeIfAbsent(bucketStart(dayCount.getScheduledDay(), weekly), CalendarBucket::new);
+            bucket.setActivityCount(bucket.getActivityCount() + dayCount.getActivityCount());
+        }
+
+        PageRequest page = PageRequest.of(0, limit);
+        Slice<Activity> activities = customerId == null
+                ? activityRepository.findScheduledAfter(afterDate, afterId, end, page)
+                : activityRepository.findScheduledAfterForCustomer(customerId, afterDate, afterId, end, page);
+        for (Activity activity : activities) {
+            // Created since the count: the bucket may not exist yet
+            buckets.computeIfAbsent(bucketStart(activity.getScheduledDate().toLocalDate(), weekly), CalendarBucket::new)
+                    .getActivities().add(ActivityDto.from(activity));
+        }
+
+        String nextCursor = null;
+        if (activities.hasNext() && activities.hasContent()) {
+            Activity last = activities.getContent().get(activities.getNumberOfElements() - 1);
+            nextCursor = last.getScheduledDate() + "," + last.getId();
+        }
+        return new ActivityCalendar(new ArrayList<>(buckets.values()), nextCursor);
     }
 
-    public List<Activity> findActivitiesByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return activityRepository.findByScheduledDateBetween(startDate, endDate);
+    private static LocalDate bucketStart(LocalDate day, boolean weekly) {
+        return weekly ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day;
     }
 
-    public List<Activity> findRecentActivities() {
-        return activityRepository.findTop10ByOrderByCreatedAtDesc();
+    /**
+     * Inserts the activity; customer, contact and opportunity given by id are linked without loading them.
+     */
+    @Transactional
+    public Activity createActivity(Activity activity) {
+        return entityManager.merge(activity);
     }
 
-    public List<Activity> findUpcomingActivities() {
-        return activityRepository.findByScheduledDateAfterAndStatusOrderByScheduledDateAsc(
-                LocalDateTime.now(), "Planned");
+    /**
+     * Replaces the activity's fields in one load-and-write transaction; empty if it does not exist. With an
+     * {@code expectedVersion} the write fails with an optimistic lock conflict unless the activity still has it.
+     */
+    @Transactional
+    public Optional<Activity> updateActivity(Long id, Activity activity, Long expectedVersion) {
+        Activity existing = entityManager.find(Activity.class, id);
+        if (existing == null) {
+            return Optional.empty();
+        }
+        activity.setId(id);
+        activity.setVersion(expectedVersion != null ? expectedVersion : existing.getVersion());
+        activity.setCreatedAt(existing.getCreatedAt());
+        return Optional.of(entityManager.merge(activity));
     }
 
+    /**
+     * Applies a JSON merge patch to the activity; empty if it does not exist. Only the patched columns are
+     * updated. With an {@code expectedVersion} the write fails with an optimistic lock conflict unless the
+     * activity still has it.
+     *
+     * @throws IllegalArgumentException if the patch is invalid or references a missing row
+     */
     @Transactional
-    public Activity saveActivity(Activity activity) {
-        return activityRepository.save(activity);
+    public Optional<ActivityDto> patchActivity(Long id, JsonNode patch, Long expectedVersion) {
+        Activity activity = entityManager.find(Activity.class, id);
+        if (activity == null) {
+            return Optional.empty();
+        }
+        if (expectedVersion != null && expectedVersion != activity.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Activity.class, id);
+        }
+        // Patched detached, then merged like a PUT body: nothing is flushed before the references are checked
+        entityManager.detach(activity);
+        mergePatcher.apply(activity, patch);
+        References references = referenceResolver.resolve(activity.getCustomer(), activity.getContact(), activity.getOpportunity());
+        if (!references.isComplete()) {
+            throw new IllegalArgumentException("Customer, contact or opportunity not found");
+        }
+        Activity patched = entityManager.merge(activity);
+        // Writes the row now so the returned version is the new one
+        entityManager.flush();
+        return Optional.of(ActivityDto.from(patched, references));
     }
 
+    /**
+     * Deletes the activity; false if it does not exist. With an {@code expectedVersion} the delete fails with an
+     * optimistic lock conflict unless the activity still has it.
+     */
     @Transactional
-    public void deleteActivity(Long id) {
-        activityRepository.deleteById(id);
+    public boolean deleteActivity(Long id, Long expectedVersion) {
+        Activity existing = entityManager.find(Activity.class, id);
+        if (existing == null) {
+            return false;
+        }
+        if (expectedVersion != null && expectedVersion != existing.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Activity.class, id);
+        }
+        entityManager.remove(existing);
+        return true;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult createActivities(Iterator<Activity> activities) {
+        return bulkWriter.write(activities, activity -> {
+            bulkWriter.requireNoId(activity.getId());
+            entityManager.merge(activity);
+        });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult updateActivities(Iterator<Activity> activities) {
+        return bulkWriter.write(activities, activity -> {
+            Activity existing = bulkWriter.findExisting(Activity.class, activity.getId());
+            activity.setCreatedAt(existing.getCreatedAt());
+            activity.setVersion(existing.getVersion());
+            entityManager.merge(activity);
+        });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult deleteActivities(Iterator<Long> ids) {
+        return bulkWriter.write(ids, id -> activityRepository.delete(bulkWriter.findExisting(Activity.class, id)));
     }
 
     @Transactional
@@ -82,4 +331,4 @@ public class ActivityService {
         }
         return null;
     }
-}
\ No newline at end of file
+}
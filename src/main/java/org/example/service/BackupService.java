@@ -0,0 +1,142 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.StorageSettings;
+import org.example.dto.BackupInfo;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Online backups of the file database (the {@code persistent} profile) into {@code crm.storage.backup-directory}.
+ * <p>
+ * H2's {@code BACKUP TO} copies the MVStore file while it stays open: the store is append-only, so the copy
+ * is a consistent snapshot of the last commit and writers are not blocked meanwhile. The zip is written
+ * under a temporary name and renamed when complete, so a listed backup is always whole. Backups are
+ * restored on startup with {@code crm.storage.restore-from} (see {@link org.example.config.StorageConfig}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "crm.storage", name = "backup-directory")
+public class BackupService {
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StorageSettings settings;
+
+    // One backup at a time; a second request is rejected rather than queued behind the copy
+    private final Lock lock = new ReentrantLock();
+
+    // <databaseName>-<timestamp>.zip
+    private String prefix;
+    private Pattern backupName;
+
+    @PostConstruct
+    public void open() {
+        prefix = settings.getDatabaseName() + "-";
+        backupName = Pattern.compile(Pattern.quote(prefix) + "\\d{8}-\\d{6}-\\d{3}\\.zip");
+    }
+
+    /**
+     * Writes a new backup and deletes the oldest beyond {@code crm.storage.keep-backups}.
+     *
+     * @throws IllegalStateException if another backup is running
+     */
+    public BackupInfo createBackup() {
+        if (!lock.tryLock()) {
+            throw new IllegalStateException("A backup is already running");
+        }
+        try {
+            Path directory = settings.getBackupDirectory();
+            Files.createDirectories(directory);
+            Path backup = directory.resolve(prefix + NAME_FORMAT.format(LocalDateTime.now()) + ".zip");
+            Path partial = backup.resolveSibling(backup.getFileName() + ".part");
+
+            long start = System.nanoTime();
+            jdbcTemplate.execute("BACKUP TO '" + partial.toAbsolutePath().toString().replace("'", "''") + "'");
+            Files.move(partial, backup, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Backed up the database to {} in {} ms", backup, (System.nanoTime() - start) / 1_000_000);
+
+            deleteOldBackups();
+            return info(backup);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Backups, newest first.
+     */
+    public List<BackupInfo> findBackups() {
+        return backups().stream().map(this::info).collect(Collectors.toList());
+    }
+
+    /**
+     * The file of the backup called {@code name}; empty for names that are not backups.
+     */
+    public Optional<Path> findBackup(String name) {
+        if (!backupName.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path backup = settings.getBackupDirectory().resolve(name);
+        return Files.isRegularFile(backup) ? Optional.of(backup) : Optional.empty();
+    }
+
+    private void deleteOldBackups() throws IOException {
+        if (settings.getKeepBackups() <= 0) {
+            return;
+        }
+        List<Path> backups = backups();
+        for (Path old : backups.subList(Math.min(settings.getKeepBackups(), backups.size()), backups.size())) {
+            Files.deleteIfExists(old);
+            log.info("Deleted old backup {}", old);
+        }
+    }
+
+    // The names sort by creation time
+    private List<Path> backups() {
+        Path directory = settings.getBackupDirectory();
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> backupName.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BackupInfo info(Path backup) {
+        try {
+            return new BackupInfo(backup.getFileName().toString(), Files.size(backup),
+                    LocalDateTime.ofInstant(Files.getLastModifiedTime(backup).toInstant(), ZoneId.systemDefault()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.BulkResult;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes a stream of rows in chunked transactions.
+ * <p>
+ * Each chunk is written and flushed in one transaction so Hibernate can batch the statements.
+ * If the chunk fails, it is rolled back and its rows are retried one transaction per row,
+ * so only the rows that actually fail are reported and everything else is kept.
+ * <p>
+ * Writers should {@code merge} rows rather than {@code persist} them: merge leaves the row
+ * object untouched (no id, no Hibernate collection wrappers), so it can be written again after
+ * a rollback, and it links associations given only by id without loading them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkWriter {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final Runnable NOTHING = () -> {
+    };
+
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+
+    /**
+     * Applies {@code writer} to every row. The writer runs inside a transaction and rejects a
+     * row by throwing; the exception message is reported for that row.
+     */
+    public <T> BulkResult write(Iterator<T> rows, Consumer<T> writer) {
+        return write(rows, writer, new BulkResult(), null);
+    }
+
+    /**
+     * Like {@link #write(Iterator, Consumer)}, continuing the counts (and row numbering) of
+     * {@code result}, e.g. when resuming after the first {@code result.getReceived()} rows.
+     * {@code checkpoint} is called inside every transaction that writes rows, and once more at
+     * the end for rows rejected since, so progress is committed atomically with the rows it covers.
+     */
+    public <T> BulkResult write(Iterator<T> rows, Consumer<T> writer, BulkResult result, Checkpoint checkpoint) {
+        Run<T> run = new Run<>(new TransactionTemplate(transactionManager), writer, result, checkpoint);
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        int chunkStart = result.getReceived();
+
+        while (hasNext(rows, result)) {
+            int index = result.getReceived();
+            result.setReceived(index + 1);
+            T row;
+            try {
+                row = rows.next();
+            } catch (RuntimeException e) {
+                // A row that cannot be mapped to the entity is skipped; reading continues after it
+                if (!chunk.isEmpty()) {
+                    writeChunk(run, chunk, chunkStart);
+                    chunk.clear();
+                }
+                run.reject(index, e);
+                chunkStart = index + 1;
+                continue;
+            }
+
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                writeChunk(run, chunk, chunkStart);
+                chunk.clear();
+                chunkStart = index + 1;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(run, chunk, chunkStart);
+        }
+        if (checkpoint != null && (run.saved < result.getReceived() || !run.pendingErrors.isEmpty())) {
+            run.commit(result.getReceived(), 0, NOTHING);
+        }
+        return result;
+    }
+
+    /**
+     * Loads the entity to update or delete; rows without an id or with an unknown id are rejected.
+     */
+    public <T> T findExisting(Class<T> type, Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("id is required");
+        }
+        T entity = entityManager.find(type, id);
+        if (entity == null) {
+            throw new IllegalArgumentException(type.getSimpleName() + " " + id + " not found");
+        }
+        return entity;
+    }
+
+    /**
+     * Rejects rows to be created that carry an id; ids are always assigned by the database.
+     */
+    public void requireNoId(Long id) {
+        if (id != null) {
+            throw new IllegalArgumentException("id must not be set when creating");
+        }
+    }
+
+    private static boolean hasNext(Iterator<?> rows, BulkResult result) {
+        try {
+            return rows.hasNext();
+        } catch (RuntimeException e) {
+            // Malformed input (e.g. broken JSON): nothing after this point can be read reliably.
+            // The error is reported at the index of the first row that was not read.
+            addError(result, result.getReceived(), e);
+            result.setComplete(false);
+            return false;
+        }
+    }
+
+    private <T> void writeChunk(Run<T> run, List<T> chunk, int chunkStart) {
+        BulkResult result = run.result;
+        try {
+            run.commit(chunkStart + chunk.size(), chunk.size(), () -> {
+                chunk.forEach(run.writer);
+                entityManager.flush();
+            });
+            result.setSucceeded(result.getSucceeded() + chunk.size());
+        } catch (RuntimeException chunkFailure) {
+            entityManager.clear();
+            log.debug("Bulk chunk starting at row {} failed, retrying row by row", chunkStart, chunkFailure);
+            for (int i = 0; i < chunk.size(); i++) {
+                T row = chunk.get(i);
+                try {
+                    run.commit(chunkStart + i + 1, 1, () -> {
+                        run.writer.accept(row);
+                        entityManager.flush();
+                    });
+                    result.setSucceeded(result.getSucceeded() + 1);
+                } catch (RuntimeException e) {
+                    run.reject(chunkStart + i, e);
+                } finally {
+                    entityManager.clear();
+                }
+            }
+        } finally {
+            // Keep the persistence context (shared across chunks when bound to the request) small
+            entityManager.clear();
+        }
+    }
+
+    private static void addError(BulkResult result, int index, RuntimeException e) {
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(rowError(index, e));
+        }
+    }
+
+    private static BulkResult.RowError rowError(int index, RuntimeException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        int lineEnd = message.indexOf('\n');
+        return new BulkResult.RowError(index, lineEnd >= 0 ? message.substring(0, lineEnd) : message);
+    }
+
+    /**
+     * Records progress of a checkpointed write inside the transaction that makes it durable.
+     */
+    public interface Checkpoint {
+
+        /**
+         * @param rowsHandled number of input rows that are now written or rejected
+         * @param rowsWritten rows written by this transaction
+         * @param errors      rows rejected since the previous checkpoint
+         */
+        void save(int rowsHandled, int rowsWritten, List<BulkResult.RowError> errors);
+    }
+
+    private static final class Run<T> {
+
+        private final TransactionTemplate transactionTemplate;
+        private final Consumer<T> writer;
+        private final BulkResult result;
+        private final Checkpoint checkpoint;
+        // Rejections not yet handed to a committed checkpoint
+        private final List<BulkResult.RowError> pendingErrors = new ArrayList<>();
+        private int saved;
+
+        private Run(TransactionTemplate transactionTemplate, Consumer<T> writer, BulkResult result,
+                    Checkpoint checkpoint) {
+            this.transactionTemplate = transactionTemplate;
+            this.writer = writer;
+            this.result = result;
+            this.checkpoint = checkpoint;
+            this.saved = result.getReceived();
+        }
+
+        private void commit(int rowsHandled, int rowsWritten, Runnable work) {
+            transactionTemplate.executeWithoutResult(status -> {
+                work.run();
+                if (checkpoint != null) {
+                    checkpoint.save(rowsHandled, rowsWritten, List.copyOf(pendingErrors));
+                }
+            });
+            pendingErrors.clear();
+            saved = rowsHandled;
+        }
+
+        private void reject(int index, RuntimeException e) {
+            result.setFailed(result.getFailed() + 1);
+            addError(result, index, e);
+            if (checkpoint != null) {
+                pendingErrors.add(rowError(index, e));
+                // Bounds memory when nothing is written for a long stretch of rejected rows
+                if (pendingErrors.size() >= CHUNK_SIZE) {
+                    commit(index + 1, 0, NOTHING);
+                }
+            }
+        }
+    }
+}
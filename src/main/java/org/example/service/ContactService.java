@@ -1,40 +1,87 @@
 package org.example.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.BulkResult;
+import org.example.dto.ContactDto;
+import org.example.dto.ContactFilter;
+import org.example.dto.References;
 import org.example.model.Contact;
 import org.example.model.Customer;
 import org.example.repository.ContactRepository;
+import org.example.repository.CustomerRepository;
+import org.example.repository.SearchSpecifications;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.EntityManager;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ContactService {
 
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
     private final ContactRepository contactRepository;
+    private final CustomerRepository customerRepository;
+    private final BulkWriter bulkWriter;
+    private final EntityManager entityManager;
+    private final ReferenceResolver referenceResolver;
+    private final MergePatcher mergePatcher;
+
+    public Slice<ContactDto> findContactsAfter(Long afterId, int limit) {
+        return contactRepository.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : 0L, PageRequest.of(0, limit))
+                .map(ContactDto::from);
+    }
 
-    public List<Contact> findAllContacts() {
-        return contactRepository.findAll();
+    public void forEachContact(Consumer<? super ContactDto> action) {
+        try (Stream<Contact> contacts = contactRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Contact> iterator = contacts.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                action.accept(ContactDto.from(iterator.next()));
+                // Clear written rows periodically so the persistence context stays constant-size
+                if (++written % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
     }
 
     public Optional<Contact> findContactById(Long id) {
         return contactRepository.findById(id);
     }
 
-    public List<Contact> findContactsByCustomer(Customer customer) {
-        return contactRepository.findByCustomer(customer);
+    public List<ContactDto> findContactsByCustomer(Customer customer) {
+        return contactRepository.findByCustomer(customer).stream()
+                .map(ContactDto::from)
+                .collect(Collectors.toList());
     }
 
-    public List<Contact> findPrimaryContacts() {
-        return contactRepository.findByIsPrimaryTrue();
+    public List<ContactDto> findPrimaryContacts() {
+        return contactRepository.findByIsPrimaryTrue().stream()
+                .map(ContactDto::from)
+                .collect(Collectors.toList());
     }
 
-    public List<Contact> findContactsByName(String name) {
-        return contactRepository.findByName(name);
+    /**
+     * Contacts matching every criterion of the filter, with their customers.
+     */
+    public Page<ContactDto> searchContacts(ContactFilter filter, Pageable pageable) {
+        return contactRepository.findAll(SearchSpecifications.contacts(filter), pageable).map(ContactDto::from);
     }
 
     public Optional<Contact> findContactByEmail(String email) {
@@ -45,23 +92,122 @@ public class ContactService {
         return contactRepository.findByCustomerAndIsPrimary(customer, true);
     }
 
+    /**
+     * Inserts the contact; the customer given by id is linked without loading it.
+     */
+    @Transactional
+    public Contact createContact(Contact contact) {
+        demoteOtherPrimaryContacts(contact);
+        return entityManager.merge(contact);
+    }
+
+    /**
+     * Replaces the contact's fields in one load-and-write transaction; empty if it does not exist. With an
+     * {@code expectedVersion} the write fails with an optimistic lock conflict unless the contact still has it.
+     */
     @Transactional
-    public Contact saveContact(Contact contact) {
-        // If this contact is marked as primary, ensure no other contacts for the same customer are primary
-        if (contact.isPrimary() && contact.getCustomer() != null) {
-            List<Contact> primaryContacts = contactRepository.findByCustomerAndIsPrimary(contact.getCustomer(), true);
-            primaryContacts.stream()
-                    .filter(c -> !c.getId().equals(contact.getId()))
-                    .forEach(c -> {
-                        c.setPrimary(false);
-                        contactRepository.save(c);
-                    });
+    public Optional<Contact> updateContact(Long id, Contact contact, Long expectedVersion) {
+        Contact existing = entityManager.find(Contact.class, id);
+        if (existing == null) {
+            return Optional.empty();
+        }
+        contact.setId(id);
+        contact.setVersion(expectedVersion != null ? expectedVersion : existing.getVersion());
+        contact.setCreatedAt(existing.getCreatedAt());
+        demoteOtherPrimaryContacts(contact);
+        return Optional.of(entityManager.merge(contact));
+    }
+
+    /**
+     * Applies a JSON merge patch to the contact; empty if it does not exist. Only the patched columns are
+     * updated. With an {@code expectedVersion} the write fails with an optimistic lock conflict unless the
+     * contact still has it.
+     *
+     * @throws IllegalArgumentException if the patch is invalid or references a missing row
+     */
+    @Transactional
+    public Optional<ContactDto> patchContact(Long id, JsonNode patch, Long expectedVersion) {
+        Contact contact = entityManager.find(Contact.class, id);
+        if (contact == null) {
+            return Optional.empty();
+        }
+        if (expectedVersion != null && expectedVersion != contact.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Contact.class, id);
+        }
+        // Patched detached, then merged like a PUT body: nothing is flushed before the references are checked
+        entityManager.detach(contact);
+        mergePatcher.apply(contact, patch);
+        References references = referenceResolver.resolve(contact.getCustomer());
+        if (!references.isComplete()) {
+            throw new IllegalArgumentException("Customer not found");
         }
-        return contactRepository.save(contact);
+        demoteOtherPrimaryContacts(contact);
+        Contact patched = entityManager.merge(contact);
+        // Writes the row now so the returned version is the new one
+        entityManager.flush();
+        return Optional.of(ContactDto.from(patched, references));
     }
 
+    private void demoteOtherPrimaryContacts(Contact contact) {
+        // If this contact is marked as primary, ensure no other contacts for the same customer are primary.
+        // The customer row lock serializes concurrent primary changes for one customer; the unique index on
+        // contacts.primary_customer_id rejects a second primary if anything bypasses this path.
+        if (contact.isPrimary() && contact.getCustomer() != null && contact.getCustomer().getId() != null) {
+            Long customerId = contact.getCustomer().getId();
+            customerRepository.lockById(customerId);
+            // New contacts have no id yet; ids start at 1, so 0 excludes nothing
+            contactRepository.demotePrimaryContactsExcept(customerId, contact.getId() != null ? contact.getId() : 0L);
+        }
+    }
+
+    /**
+     * Deletes the contact; false if it does not exist. With an {@code expectedVersion} the delete fails with an
+     * optimistic lock conflict unless the contact still has it.
+     */
     @Transactional
-    public void deleteContact(Long id) {
-        contactRepository.deleteById(id);
+    public boolean deleteContact(Long id, Long expectedVersion) {
+        Contact existing = entityManager.find(Contact.class, id);
+        if (existing == null) {
+            return false;
+        }
+        if (expectedVersion != null && expectedVersion != existing.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Contact.class, id);
+        }
+        entityManager.remove(existing);
+        return true;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult createContacts(Iterator<Contact> contacts) {
+        return createContacts(contacts, new BulkResult(), null);
+    }
+
+    /**
+     * Bulk create that continues the counts of {@code result} and records progress through
+     * {@code checkpoint}; used by resumable imports.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult createContacts(Iterator<Contact> contacts, BulkResult result, BulkWriter.Checkpoint checkpoint) {
+        return bulkWriter.write(contacts, contact -> {
+            bulkWriter.requireNoId(contact.getId());
+            demoteOtherPrimaryContacts(contact);
+            entityManager.merge(contact);
+        }, result, checkpoint);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult updateContacts(Iterator<Contact> contacts) {
+        return bulkWriter.write(contacts, contact -> {
+            Contact existing = bulkWriter.findExisting(Contact.class, contact.getId());
+            contact.setCreatedAt(existing.getCreatedAt());
+            contact.setVersion(existing.getVersion());
+            demoteOtherPrimaryContacts(contact);
+            entityManager.merge(contact);
+        });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult deleteContacts(Iterator<Long> ids) {
+        return bulkWriter.write(ids, id -> contactRepository.delete(bulkWriter.findExisting(Contact.class, id)));
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,35 @@
 package org.example.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.BulkResult;
+import org.example.dto.ContactCount;
+import org.example.dto.CustomerDto;
+import org.example.dto.CustomerFilter;
 import org.example.model.Customer;
+import org.example.repository.ContactRepository;
 import org.example.repository.CustomerRepository;
+import org.example.repository.SearchSpecifications;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import jakarta.persistence.EntityManager;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -15,38 +37,163 @@ import java.util.Optional;
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final ContactRepository contactRepository;
+    private final BulkWriter bulkWriter;
+    private final EntityManager entityManager;
+    private final MergePatcher mergePatcher;
 
-    public List<Customer> findAllCustomers() {
-        return customerRepository.findAll();
+    public Slice<CustomerDto> findCustomersAfter(Long afterId, int limit) {
+        return customerRepository.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : 0L, PageRequest.of(0, limit));
+    }
+
+    public void forEachCustomer(Consumer<? super CustomerDto> action) {
+        // Projections are not managed entities, so nothing accumulates in the persistence context
+        try (Stream<CustomerDto> customers = customerRepository.streamAllByOrderByIdAsc()) {
+            customers.forEach(action);
+        }
     }
 
     public Optional<Customer> findCustomerById(Long id) {
         return customerRepository.findById(id);
     }
 
-    public List<Customer> findCustomersByName(String name) {
-        return customerRepository.findByCompanyNameContainingIgnoreCase(name);
+    /**
+     * Customers matching every criterion of the filter. Specifications select entities, so the contact
+     * counts of the page are added with one grouped query.
+     */
+    public Page<CustomerDto> searchCustomers(CustomerFilter filter, Pageable pageable) {
+        Page<CustomerDto> customers = customerRepository.findAll(SearchSpecifications.customers(filter), pageable)
+                .map(CustomerDto::from);
+        if (customers.hasContent()) {
+            Map<Long, Long> contactCounts = contactRepository.countByCustomerIdIn(
+                            customers.map(CustomerDto::getId).getContent()).stream()
+                    .collect(Collectors.toMap(ContactCount::getCustomerId, ContactCount::getContactCount));
+            customers.forEach(customer -> customer.setContactCount(contactCounts.getOrDefault(customer.getId(), 0L)));
+        }
+        return customers;
     }
 
-    public List<Customer> findCustomersByStatus(String status) {
-        return customerRepository.findByStatus(status);
+    @Transactional
+    public Customer saveCustomer(Customer customer) {
+        return customerRepository.save(customer);
     }
 
-    public List<Customer> findCustomersByIndustry(String industry) {
-        return customerRepository.findByIndustry(industry);
+    /**
+     * Replaces the customer's fields in one load-and-write transaction; empty if it does not exist. With an
+     * {@code expectedVersion} the write fails with an optimistic lock conflict unless the customer still has it.
+     */
+    @Transactional
+    public Optional<Customer> updateCustomer(Long id, Customer customer, Long expectedVersion) {
+        Customer existing = entityManager.find(Customer.class, id);
+        if (existing == null) {
+            return Optional.empty();
+        }
+        customer.setId(id);
+        customer.setVersion(expectedVersion != null ? expectedVersion : existing.getVersion());
+        customer.setCreatedAt(existing.getCreatedAt());
+        // Contacts and opportunities are not part of the payload; keep them instead of orphaning them
+        customer.setContacts(existing.getContacts());
+        customer.setOpportunities(existing.getOpportunities());
+        return Optional.of(entityManager.merge(customer));
     }
 
+    /**
+     * Applies a JSON merge patch to the customer; empty if it does not exist. Only the patched columns are
+     * updated. With an {@code expectedVersion} the write fails with an optimistic lock conflict unless the
+     * customer still has it.
+     *
+     * @throws IllegalArgumentException if the patch is invalid
+     */
     @Transactional
-    public Customer saveCustomer(Customer customer) {
-        return customerRepository.save(customer);
+    public Optional<CustomerDto> patchCustomer(Long id, JsonNode patch, Long expectedVersion) {
+        Customer customer = entityManager.find(Customer.class, id);
+        if (customer == null) {
+            return Optional.empty();
+        }
+        if (expectedVersion != null && expectedVersion != customer.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Customer.class, id);
+        }
+        // Patched detached, then merged like a PUT body: nothing is flushed before the references are checked
+        entityManager.detach(customer);
+        mergePatcher.apply(customer, patch);
+        Customer patched = entityManager.merge(customer);
+        // Writes the row now so the returned version is the new one
+        entityManager.flush();
+        return Optional.of(CustomerDto.from(patched));
     }
 
+    /**
+     * Deletes the customer with its contacts and opportunities; false if it does not exist. With an
+     * {@code expectedVersion} the delete fails with an optimistic lock conflict unless the customer still has it.
+     */
     @Transactional
-    public void deleteCustomer(Long id) {
-        customerRepository.deleteById(id);
+    public boolean deleteCustomer(Long id, Long expectedVersion) {
+        Customer existing = entityManager.find(Customer.class, id);
+        if (existing == null) {
+            return false;
+        }
+        if (expectedVersion != null && expectedVersion != existing.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Customer.class, id);
+        }
+        entityManager.remove(existing);
+        return true;
     }
 
     public boolean isCompanyNameTaken(String companyName) {
         return customerRepository.existsByCompanyNameIgnoreCase(companyName);
     }
-}
\ No newline at end of file
+
+    /**
+     * Looks up customer ids by company name (case-insensitive) in one query. The returned map is
+     * keyed by the lower-cased name; names without a customer are absent.
+     */
+    public Map<String, Long> findCustomerIdsByCompanyName(Collection<String> companyNames) {
+        Set<String> names = companyNames.stream()
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        Map<String, Long> ids = new HashMap<>();
+        if (!names.isEmpty()) {
+            customerRepository.findRefsByCompanyNameLowerIn(names)
+                    .forEach(ref -> ids.putIfAbsent(ref.getCompanyName().toLowerCase(Locale.ROOT), ref.getId()));
+        }
+        return ids;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult createCustomers(Iterator<Customer> customers) {
+        return createCustomers(customers, new BulkResult(), null);
+    }
+
+    /**
+     * Bulk create that continues the counts of {@code result} and records progress through
+     * {@code checkpoint}; used by resumable imports.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult createCustomers(Iterator<Customer> customers, BulkResult result, BulkWriter.Checkpoint checkpoint) {
+        return bulkWriter.write(customers, customer -> {
+            bulkWriter.requireNoId(customer.getId());
+            if (isCompanyNameTaken(customer.getCompanyName())) {
+                throw new IllegalArgumentException("Company name already exists: " + customer.getCompanyName());
+            }
+            entityManager.merge(customer);
+        }, result, checkpoint);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult updateCustomers(Iterator<Customer> customers) {
+        return bulkWriter.write(customers, customer -> {
+            Customer existing = bulkWriter.findExisting(Customer.class, customer.getId());
+            customer.setVersion(existing.getVersion());
+            customer.setCreatedAt(existing.getCreatedAt());
+            // Contacts and opportunities are not part of the payload; keep them instead of orphaning them
+            customer.setContacts(existing.getContacts());
+            customer.setOpportunities(existing.getOpportunities());
+            entityManager.merge(customer);
+        });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult deleteCustomers(Iterator<Long> ids) {
+        return bulkWriter.write(ids, id -> customerRepository.delete(bulkWriter.findExisting(Customer.class, id)));
+    }
+}
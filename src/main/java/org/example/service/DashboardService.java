@@ -0,0 +1,74 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.DashboardSummary;
+import org.example.dto.MonthlyTotal;
+import org.example.dto.StatusTotal;
+import org.example.repository.ActivityRepository;
+import org.example.repository.ContactRepository;
+import org.example.repository.CustomerRepository;
+import org.example.repository.OpportunityRepository;
+import org.example.repository.PipelineStatusTotalRepository;
+import org.example.repository.PipelineSummaryRepository;
+import org.example.repository.ProductRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DashboardService {
+
+    private static final String STATUS_WON = "Closed Won";
+    private static final String STATUS_LOST = "Closed Lost";
+
+    private final CustomerRepository customerRepository;
+    private final ContactRepository contactRepository;
+    private final OpportunityRepository opportunityRepository;
+    private final ActivityRepository activityRepository;
+    private final ProductRepository productRepository;
+    private final PipelineStatusTotalRepository pipelineStatusTotalRepository;
+    private final PipelineSummaryRepository pipelineSummaryRepository;
+
+    public DashboardSummary getSummary() {
+        DashboardSummary.EntityCounts counts = new DashboardSummary.EntityCounts(
+                customerRepository.count(),
+                contactRepository.count(),
+                opportunityRepository.count(),
+                activityRepository.count(),
+                productRepository.count());
+
+        return new DashboardSummary(counts, summarizeOpportunities(), findMonthlyWonRevenue());
+    }
+
+    private DashboardSummary.OpportunityTotals summarizeOpportunities() {
+        DashboardSummary.OpportunityTotals totals = new DashboardSummary.OpportunityTotals();
+        for (StatusTotal statusTotal : pipelineStatusTotalRepository.findStatusTotals()) {
+            BigDecimal amount = statusTotal.getTotal() != null ? statusTotal.getTotal() : BigDecimal.ZERO;
+            if (STATUS_WON.equals(statusTotal.getStatus())) {
+                totals.setWonCount(totals.getWonCount() + statusTotal.getOpportunityCount());
+                totals.setWonValue(totals.getWonValue().add(amount));
+            } else if (STATUS_LOST.equals(statusTotal.getStatus())) {
+                totals.setLostCount(totals.getLostCount() + statusTotal.getOpportunityCount());
+                totals.setLostValue(totals.getLostValue().add(amount));
+            } else {
+                // Every status that is not closed counts towards the open pipeline
+                totals.setOpenCount(totals.getOpenCount() + statusTotal.getOpportunityCount());
+                totals.setOpenValue(totals.getOpenValue().add(amount));
+            }
+        }
+        return totals;
+    }
+
+    private List<DashboardSummary.MonthlyRevenue> findMonthlyWonRevenue() {
+        List<MonthlyTotal> monthlyTotals = pipelineSummaryRepository.sumAmountByClosingMonth(STATUS_WON);
+        return monthlyTotals.stream()
+                .map(m -> new DashboardSummary.MonthlyRevenue(m.getClosingYear(), m.getClosingMonth(),
+                        m.getTotal() != null ? m.getTotal() : BigDecimal.ZERO))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,463 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.ForecastSettings;
+import org.example.dto.Forecast;
+import org.example.dto.ForecastInput;
+import org.example.repository.OpportunityRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Probability-weighted revenue forecast of the open opportunities per closing month, stage and
+ * customer, with confidence intervals from Monte Carlo simulation.
+ * <p>
+ * Open opportunities are streamed from the database into chunks of primitive arrays, and the
+ * transaction ends before any computation starts. In every simulation each opportunity is won with its
+ * {@code probability} (a percentage; none counts as 0) and lost otherwise. Expected values and
+ * simulations run on a dedicated {@link ForkJoinPool} and accumulate in {@code double}; amounts only
+ * become {@link BigDecimal}, rounded to cents, in the returned {@link Forecast}. The same seed gives
+ * the same intervals for the same data, however many threads do the work and however it is scheduled.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ForecastService {
+
+    private static final List<String> CLOSED_STATUSES = List.of("Closed Won", "Closed Lost");
+
+    // Opportunities per chunk of the column arrays
+    private static final int CHUNK_SIZE = 4096;
+
+    // Simulations run side by side over each opportunity; their sums of the touched groups stay in cache
+    private static final int SIMULATION_BLOCK = 512;
+
+    // Random draws are uniform in [0, 2^53), like the bits behind SplittableRandom.nextDouble()
+    private static final double DRAW_RANGE = 0x1.0p53;
+
+    // Chunks summed sequentially by one expected-value task
+    private static final int CHUNKS_PER_TASK = 16;
+
+    // Simulations run by one task. Fixed, so that how the simulations are split up, and with it the random
+    // numbers each one draws, depends only on their number and not on the machine's parallelism
+    private static final int SIMULATIONS_PER_TASK = SIMULATION_BLOCK;
+
+    private final OpportunityRepository opportunityRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ForecastSettings settings;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void open() {
+        int parallelism = settings.getParallelism() > 0
+                ? settings.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("forecast-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Forecasts the open opportunities closing between {@code from} and {@code to} (inclusive; either
+     * may be null), with {@code confidence} intervals from {@code simulations} runs, and lists the
+     * {@code customers} customers with the highest expected revenue. A null {@code seed} picks a random
+     * one. Invalid arguments throw an {@link IllegalArgumentException}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Forecast forecast(LocalDate from, LocalDate to, int simulations, double confidence, int customers,
+                             Long seed) {
+        if (simulations < 1 || simulations > settings.getMaxSimulations()) {
+            throw new IllegalArgumentException("simulations must be between 1 and " + settings.getMaxSimulations());
+        }
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("confidence must be greater than 0 and less than 1");
+        }
+        if (customers < 0 || customers > settings.getMaxCustomers()) {
+            throw new IllegalArgumentException("customers must be between 0 and " + settings.getMaxCustomers());
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        long start = System.nanoTime();
+        Pipeline pipeline = load(from, to);
+        long loaded = System.nanoTime();
+
+        Totals totals = pool.invoke(new ExpectedTask(pipeline, 0, pipeline.chunks.size()));
+
+        // Months and stages are all simulated; customers only when listed, the rest share a discarded slot
+        int[] topCustomers = IntStream.range(0, pipeline.customers.size())
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer c) -> totals.expected[pipeline.customerGroup(c)]).reversed())
+                .limit(customers)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        int customerBase = pipeline.customerGroup(0);
+        int discarded = customerBase + topCustomers.length;
+        int[] customerSlots = new int[pipeline.customers.size()];
+        Arrays.fill(customerSlots, discarded);
+        for (int i = 0; i < topCustomers.length; i++) {
+            customerSlots[topCustomers[i]] = customerBase + i;
+        }
+
+        // Won amount per simulated group (row) and simulation (column)
+        double[][] outcomes = new double[discarded + 1][simulations];
+        pool.invoke(new SimulationTask(pipeline, customerSlots, outcomes, 0, simulations,
+                new SplittableRandom(seed != null ? seed : ThreadLocalRandom.current().nextLong())));
+
+        Intervals intervals = new Intervals(outcomes, confidence);
+        Forecast forecast = new Forecast();
+        forecast.setSimulations(simulations);
+        forecast.setConfidence(confidence);
+        forecast.setTotal(line(null, totals, 0, intervals, 0));
+        forecast.setByMonth(sortedLines(pipeline.months, Comparator.nullsLast(Comparator.naturalOrder()),
+                pipeline::monthGroup, totals, intervals));
+        forecast.setByStage(sortedLines(pipeline.stages, Comparator.nullsLast(Comparator.naturalOrder()),
+                pipeline::stageGroup, totals, intervals));
+        for (int i = 0; i < topCustomers.length; i++) {
+            Long customerId = pipeline.customers.keys.get(topCustomers[i]);
+            forecast.getByCustomer().add(line(customerId, totals, pipeline.customerGroup(topCustomers[i]),
+                    intervals, customerBase + i));
+        }
+
+        log.debug("Forecast of {} opportunities with {} simulations: loaded in {} ms, computed in {} ms",
+                pipeline.size, simulations, (loaded - start) / 1_000_000, (System.nanoTime() - loaded) / 1_000_000);
+        return forecast;
+    }
+
+    private Pipeline load(LocalDate from, LocalDate to) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> {
+            Pipeline pipeline = new Pipeline();
+            try (Stream<ForecastInput> inputs = opportunityRepository.streamForecastInputs(CLOSED_STATUSES)) {
+                inputs.filter(input -> isWithin(input.getClosingDate(), from, to)).forEach(pipeline::add);
+            }
+            return pipeline;
+        });
+    }
+
+    private static boolean isWithin(LocalDate closingDate, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return true;
+        }
+        return closingDate != null
+                && (from == null || !closingDate.isBefore(from))
+                && (to == null || !closingDate.isAfter(to));
+    }
+
+    // Lines of every key in the dictionary, in key order; groups maps a key index to its group
+    private static <K> List<Forecast.Line> sortedLines(Dictionary<K> dictionary, Comparator<K> order,
+                                                       IntUnaryOperator groups,
+                                                       Totals totals, Intervals intervals) {
+        return IntStream.range(0, dictionary.size())
+                .boxed()
+                .sorted(Comparator.comparing(dictionary.keys::get, order))
+                .map(i -> {
+                    int group = groups.applyAsInt(i);
+                    return line(dictionary.keys.get(i), totals, group, intervals, group);
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static Forecast.Line line(Object key, Totals totals, int group, Intervals intervals, int simulated) {
+        return new Forecast.Line(key != null ? key.toString() : null, totals.count[group],
+                money(totals.pipeline[group]), money(totals.expected[group]),
+                money(intervals.lower(simulated)), money(intervals.upper(simulated)));
+    }
+
+    private static BigDecimal money(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Distinct values in order of first appearance; null is a value too.
+     */
+    private static final class Dictionary<K> {
+        private final Map<K, Integer> indexes = new HashMap<>();
+        private final List<K> keys = new ArrayList<>();
+
+        private int index(K key) {
+            Integer index = indexes.get(key);
+            if (index == null) {
+                index = keys.size();
+                indexes.put(key, index);
+                keys.add(key);
+            }
+            return index;
+        }
+
+        private int size() {
+            return keys.size();
+        }
+    }
+
+    /**
+     * The open opportunities in column form. Group 0 is the total, followed by one group per month,
+     * stage and customer.
+     */
+    private static final class Pipeline {
+        private final Dictionary<YearMonth> months = new Dictionary<>();
+        private final Dictionary<String> stages = new Dictionary<>();
+        private final Dictionary<Long> customers = new Dictionary<>();
+        private final List<Chunk> chunks = new ArrayList<>();
+        private int size;
+
+        private void add(ForecastInput input) {
+            Chunk chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+            if (chunk == null || chunk.size == CHUNK_SIZE) {
+                chunk = new Chunk();
+                chunks.add(chunk);
+            }
+            int i = chunk.size++;
+            double probability = input.getProbability() != null ? input.getProbability().doubleValue() / 100 : 0;
+            chunk.amount[i] = input.getAmount().doubleValue();
+            chunk.probability[i] = Math.min(1, Math.max(0, probability));
+            chunk.threshold[i] = (long) (chunk.probability[i] * DRAW_RANGE);
+            chunk.month[i] = months.index(input.getClosingDate() != null ? YearMonth.from(input.getClosingDate()) : null);
+            chunk.stage[i] = stages.index(input.getStage());
+            chunk.customer[i] = customers.index(input.getCustomerId());
+            size++;
+        }
+
+        private int monthGroup(int month) {
+            return 1 + month;
+        }
+
+        private int stageGroup(int stage) {
+            return 1 + months.size() + stage;
+        }
+
+        private int customerGroup(int customer) {
+            return 1 + months.size() + stages.size() + customer;
+        }
+
+        private int groupCount() {
+            return customerGroup(customers.size());
+        }
+    }
+
+    private static final class Chunk {
+        private final double[] amount = new double[CHUNK_SIZE];
+        private final double[] probability = new double[CHUNK_SIZE];
+        // probability scaled to 2^53, the range of a random draw
+        private final long[] threshold = new long[CHUNK_SIZE];
+        private final int[] month = new int[CHUNK_SIZE];
+        private final int[] stage = new int[CHUNK_SIZE];
+        private final int[] customer = new int[CHUNK_SIZE];
+        private int size;
+    }
+
+    private static final class Totals {
+        private final long[] count;
+        private final double[] pipeline;
+        private final double[] expected;
+
+        private Totals(int groups) {
+            count = new long[groups];
+            pipeline = new double[groups];
+            expected = new double[groups];
+        }
+
+        private void add(int group, double amount, double probability) {
+            count[group]++;
+            pipeline[group] += amount;
+            expected[group] += amount * probability;
+        }
+
+        private Totals merge(Totals other) {
+            for (int g = 0; g < count.length; g++) {
+                count[g] += other.count[g];
+                pipeline[g] += other.pipeline[g];
+                expected[g] += other.expected[g];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Sums count, amount and expected amount per group over a range of chunks.
+     */
+    private static final class ExpectedTask extends RecursiveTask<Totals> {
+        private final Pipeline pipeline;
+        private final int from;
+        private final int to;
+
+        private ExpectedTask(Pipeline pipeline, int from, int to) {
+            this.pipeline = pipeline;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > CHUNKS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                ExpectedTask right = new ExpectedTask(pipeline, middle, to);
+                right.fork();
+                Totals left = new ExpectedTask(pipeline, from, middle).compute();
+                return left.merge(right.join());
+            }
+            Totals totals = new Totals(pipeline.groupCount());
+            int stageBase = pipeline.stageGroup(0);
+            int customerBase = pipeline.customerGroup(0);
+            for (int c = from; c < to; c++) {
+                Chunk chunk = pipeline.chunks.get(c);
+                for (int i = 0; i < chunk.size; i++) {
+                    double amount = chunk.amount[i];
+                    double probability = chunk.probability[i];
+                    totals.add(0, amount, probability);
+                    totals.add(1 + chunk.month[i], amount, probability);
+                    totals.add(stageBase + chunk.stage[i], amount, probability);
+                    totals.add(customerBase + chunk.customer[i], amount, probability);
+                }
+            }
+            return totals;
+        }
+    }
+
+    /**
+     * Runs a range of simulations, adding the won amount of each one to its column of the rows of
+     * {@code outcomes} (one row per simulated group). Every task splits its random generator before
+     * forking, and the tasks are split the same way for a given number of simulations, so each
+     * simulation draws the same numbers for a given seed.
+     */
+    private static final class SimulationTask extends RecursiveAction {
+        private final Pipeline pipeline;
+        private final int[] customerSlots;
+        private final double[][] outcomes;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        private SimulationTask(Pipeline pipeline, int[] customerSlots, double[][] outcomes,
+                               int from, int to, SplittableRandom random) {
+            this.pipeline = pipeline;
+            this.customerSlots = customerSlots;
+            this.outcomes = outcomes;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SIMULATIONS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                SplittableRandom rightRandom = random.split();
+                invokeAll(new SimulationTask(pipeline, customerSlots, outcomes, from, middle, random),
+                        new SimulationTask(pipeline, customerSlots, outcomes, middle, to, rightRandom));
+                return;
+            }
+            int stageBase = pipeline.stageGroup(0);
+            int discarded = outcomes.length - 1;
+            for (int blockStart = from; blockStart < to; blockStart += SIMULATION_BLOCK) {
+                int blockEnd = Math.min(to, blockStart + SIMULATION_BLOCK);
+                for (Chunk chunk : pipeline.chunks) {
+                    for (int i = 0; i < chunk.size; i++) {
+                        long threshold = chunk.threshold[i];
+                        if (threshold == 0) {
+                            continue;
+                        }
+                        long amountBits = Double.doubleToRawLongBits(chunk.amount[i]);
+                        double[] month = outcomes[1 + chunk.month[i]];
+                        double[] stage = outcomes[stageBase + chunk.stage[i]];
+                        int customerSlot = customerSlots[chunk.customer[i]];
+                        // One opportunity across a block of simulations: every add goes to a different cell,
+                        // so none waits for the previous one. The opportunity is won when a uniform 53-bit draw
+                        // is below the threshold, i.e. nextDouble() < probability. The sign of the difference
+                        // masks the amount to itself or to 0.0 without a branch, since outcomes are unpredictable
+                        if (customerSlot == discarded) {
+                            for (int sim = blockStart; sim < blockEnd; sim++) {
+                                double won = Double.longBitsToDouble(amountBits & (((random.nextLong() >>> 11) - threshold) >> 63));
+                                month[sim] += won;
+                                stage[sim] += won;
+                            }
+                        } else {
+                            double[] customer = outcomes[customerSlot];
+                            for (int sim = blockStart; sim < blockEnd; sim++) {
+                                double won = Double.longBitsToDouble(amountBits & (((random.nextLong() >>> 11) - threshold) >> 63));
+                                month[sim] += won;
+                                stage[sim] += won;
+                                customer[sim] += won;
+                            }
+                        }
+                    }
+                }
+            }
+            // Every opportunity has exactly one stage, so the stages add up to the total
+            double[] total = outcomes[0];
+            for (int g = stageBase; g < stageBase + pipeline.stages.size(); g++) {
+                double[] stage = outcomes[g];
+                for (int sim = from; sim < to; sim++) {
+                    total[sim] += stage[sim];
+                }
+            }
+        }
+    }
+
+    /**
+     * Two-sided interval of the simulated won amounts of each group.
+     */
+    private static final class Intervals {
+        private final double[] lower;
+        private final double[] upper;
+
+        // Sorts the rows of outcomes in place
+        private Intervals(double[][] outcomes, double confidence) {
+            lower = new double[outcomes.length];
+            upper = new double[outcomes.length];
+            double tail = (1 - confidence) / 2;
+            for (int g = 0; g < outcomes.length; g++) {
+                double[] values = outcomes[g];
+                Arrays.sort(values);
+                lower[g] = values[(int) Math.floor(tail * (values.length - 1))];
+                upper[g] = values[(int) Math.ceil((1 - tail) * (values.length - 1))];
+            }
+        }
+
+        private double lower(int group) {
+            return lower[group];
+        }
+
+        private double upper(int group) {
+            return upper[group];
+        }
+    }
+}
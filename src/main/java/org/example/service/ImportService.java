@@ -0,0 +1,399 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.CsvFormat;
+import org.example.config.ImportSettings;
+import org.example.dto.BulkResult;
+import org.example.dto.ContactCsvRow;
+import org.example.dto.CustomerCsvRow;
+import org.example.dto.ImportJobDto;
+import org.example.dto.OpportunityCsvRow;
+import org.example.model.Customer;
+import org.example.model.ImportJob;
+import org.example.model.ImportJobError;
+import org.example.repository.ImportJobErrorRepository;
+import org.example.repository.ImportJobRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports customers, contacts and opportunities from CSV files in the background.
+ * <p>
+ * The upload is spooled to disk and read one row at a time, so memory use does not depend on
+ * the file size. Rows are written through the bulk create of the entity's service in chunked
+ * transactions; each chunk transaction also advances the job's checkpoint, so a job that is
+ * interrupted (or fails) resumes after the last committed chunk. Contacts and opportunities
+ * name their customer by company name, which is resolved with one query per chunk.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ImportService {
+
+    public static final String CUSTOMERS = "customers";
+    public static final String CONTACTS = "contacts";
+    public static final String OPPORTUNITIES = "opportunities";
+    public static final Set<String> TYPES = Set.of(CUSTOMERS, CONTACTS, OPPORTUNITIES);
+
+    private static final Map<String, Class<?>> ROW_TYPES = Map.of(
+            CUSTOMERS, CustomerCsvRow.class,
+            CONTACTS, ContactCsvRow.class,
+            OPPORTUNITIES, OpportunityCsvRow.class);
+
+    // Columns for the entity's non-null fields
+    private static final Map<String, List<String>> REQUIRED_COLUMNS = Map.of(
+            CUSTOMERS, List.of("companyName", "status"),
+            CONTACTS, List.of("firstName", "lastName", "email"),
+            OPPORTUNITIES, List.of("name", "status"));
+
+    private static final int MAX_STORED_ERRORS = 1000;
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobErrorRepository importJobErrorRepository;
+    private final CustomerService customerService;
+    private final ContactService contactService;
+    private final OpportunityService opportunityService;
+    private final CsvFormat csvFormat;
+    private final ImportSettings settings;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(settings.getSpoolDirectory());
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(settings.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "csv-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        // A running import is abandoned; it resumes from its checkpoint at the next startup
+        executor.shutdownNow();
+    }
+
+    /**
+     * Spools the upload and queues its import. The header line is checked first; a file with
+     * unknown or missing columns is rejected with an {@link IllegalArgumentException}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportJobDto start(String entityType, String fileName, InputStream body) throws IOException {
+        Class<?> rowType = ROW_TYPES.get(entityType);
+        if (rowType == null) {
+            throw new IllegalArgumentException("Unknown import type: " + entityType);
+        }
+        Path spoolFile = Files.createTempFile(settings.getSpoolDirectory(), entityType + "-", ".csv");
+        try {
+            Files.copy(body, spoolFile, StandardCopyOption.REPLACE_EXISTING);
+            checkHeader(spoolFile, entityType, rowType);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spoolFile);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob();
+        job.setEntityType(entityType);
+        job.setStatus(ImportJob.QUEUED);
+        job.setFileName(fileName);
+        job.setSpoolFile(spoolFile.toString());
+        job = importJobRepository.save(job);
+        submit(job.getId());
+        return ImportJobDto.from(job);
+    }
+
+    /**
+     * Queues a failed job again; it continues after its checkpoint. Returns false when the job
+     * has not failed or its file is gone.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean resume(Long id) {
+        Optional<ImportJob> job = importJobRepository.findById(id);
+        if (job.isEmpty() || !Files.exists(Path.of(job.get().getSpoolFile()))) {
+            return false;
+        }
+        if (importJobRepository.updateStatus(id, ImportJob.FAILED, ImportJob.QUEUED) == 0) {
+            return false;
+        }
+        submit(id);
+        return true;
+    }
+
+    /**
+     * Picks up the jobs that were queued or running when the application last stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void resumeInterrupted() {
+        for (ImportJob job : importJobRepository.findByStatusIn(List.of(ImportJob.QUEUED, ImportJob.RUNNING))) {
+            importJobRepository.updateStatus(job.getId(), ImportJob.RUNNING, ImportJob.QUEUED);
+            log.info("Resuming {} import {} after row {}", job.getEntityType(), job.getId(), job.getRowsHandled());
+            submit(job.getId());
+        }
+    }
+
+    public Optional<ImportJobDto> findJob(Long id) {
+        return importJobRepository.findById(id).map(ImportJobDto::from);
+    }
+
+    public List<BulkResult.RowError> findErrors(Long jobId, int limit) {
+        return importJobErrorRepository.findByJobIdOrderByRowIndexAsc(jobId, PageRequest.of(0, limit)).stream()
+                .map(error -> new BulkResult.RowError(error.getRowIndex(), error.getMessage()))
+                .collect(Collectors.toList());
+    }
+
+    private void submit(Long jobId) {
+        executor.execute(() -> run(jobId));
+    }
+
+    private void run(Long jobId) {
+        // Claiming the job makes sure it never runs twice at the same time
+        if (importJobRepository.updateStatus(jobId, ImportJob.QUEUED, ImportJob.RUNNING) == 0) {
+            return;
+        }
+        ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+        long start = System.nanoTime();
+        try {
+            BulkResult result = importRows(job);
+            if (result.isComplete()) {
+                finish(jobId, ImportJob.COMPLETED, null);
+                Files.deleteIfExists(Path.of(job.getSpoolFile()));
+            } else {
+                BulkResult.RowError readError = result.getErrors().get(result.getErrors().size() - 1);
+                finish(jobId, ImportJob.FAILED, "Could not read row " + readError.getIndex() + ": "
+                        + readError.getMessage());
+            }
+            log.info("{} import {} finished in {} ms: {} rows written, {} rejected", job.getEntityType(), jobId,
+                    (System.nanoTime() - start) / 1_000_000, result.getSucceeded(), result.getFailed());
+        } catch (Exception e) {
+            log.error("{} import {} failed", job.getEntityType(), jobId, e);
+            finish(jobId, ImportJob.FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private BulkResult importRows(ImportJob job) throws IOException {
+        BulkResult result = new BulkResult(job.getRowsHandled(), job.getRowsWritten(), job.getRowsFailed(), true,
+                new ArrayList<>());
+        BulkWriter.Checkpoint checkpoint = (rowsHandled, rowsWritten, errors) ->
+                saveCheckpoint(job.getId(), rowsHandled, rowsWritten, errors);
+
+        switch (job.getEntityType()) {
+            case CUSTOMERS:
+                try (MappingIterator<CustomerCsvRow> rows = open(job, CustomerCsvRow.class)) {
+                    return customerService.createCustomers(map(rows, CustomerCsvRow::toCustomer), result, checkpoint);
+                }
+            case CONTACTS:
+                try (MappingIterator<ContactCsvRow> rows = open(job, ContactCsvRow.class)) {
+                    return contactService.createContacts(new CustomerResolvingIterator<>(rows,
+                            ContactCsvRow::getCompanyName, ContactCsvRow::toContact,
+                            customerService::findCustomerIdsByCompanyName), result, checkpoint);
+                }
+            case OPPORTUNITIES:
+                try (MappingIterator<OpportunityCsvRow> rows = open(job, OpportunityCsvRow.class)) {
+                    return opportunityService.createOpportunities(new CustomerResolvingIterator<>(rows,
+                            OpportunityCsvRow::getCompanyName, OpportunityCsvRow::toOpportunity,
+                            customerService::findCustomerIdsByCompanyName), result, checkpoint);
+                }
+            default:
+                throw new IllegalStateException("Unknown import type: " + job.getEntityType());
+        }
+    }
+
+    /**
+     * Opens the spooled file positioned after the job's checkpoint.
+     */
+    private <R> MappingIterator<R> open(ImportJob job, Class<R> rowType) throws IOException {
+        MappingIterator<R> rows = csvFormat.reader(rowType).readValues(Path.of(job.getSpoolFile()).toFile());
+        for (int i = 0; i < job.getRowsHandled() && rows.hasNext(); i++) {
+            try {
+                rows.next();
+            } catch (RuntimeException e) {
+                // Already rejected (and reported) by the earlier run
+            }
+        }
+        return rows;
+    }
+
+    private void saveCheckpoint(Long jobId, int rowsHandled, int rowsWritten, List<BulkResult.RowError> errors) {
+        ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+        int stored = Math.min(errors.size(), Math.max(0, MAX_STORED_ERRORS - job.getRowsFailed()));
+        for (BulkResult.RowError error : errors.subList(0, stored)) {
+            importJobErrorRepository.save(new ImportJobError(null, jobId, error.getIndex(),
+                    truncate(error.getMessage())));
+        }
+        job.setRowsHandled(rowsHandled);
+        job.setRowsWritten(job.getRowsWritten() + rowsWritten);
+        job.setRowsFailed(job.getRowsFailed() + errors.size());
+    }
+
+    private void finish(Long jobId, String status, String message) {
+        // Reloaded because the checkpoints have moved the counters on since the job was read
+        ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+        job.setStatus(status);
+        job.setMessage(truncate(message));
+        job.setFinishedAt(LocalDateTime.now());
+        importJobRepository.save(job);
+    }
+
+    private void checkHeader(Path file, String entityType, Class<?> rowType) throws IOException {
+        Set<String> header = new LinkedHashSet<>();
+        try (MappingIterator<?> rows = csvFormat.reader(rowType).readValues(file.toFile())) {
+            // Looking for the first row parses the header line into the schema
+            rows.hasNextValue();
+            ((CsvSchema) rows.getParserSchema()).forEach(column -> header.add(column.getName()));
+        }
+
+        List<String> known = csvFormat.columns(rowType);
+        Set<String> unknown = new LinkedHashSet<>(header);
+        unknown.removeAll(known);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown columns " + unknown + "; expected columns from " + known);
+        }
+        Set<String> missing = new LinkedHashSet<>(REQUIRED_COLUMNS.get(entityType));
+        missing.removeAll(header);
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Missing required columns " + missing);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_MESSAGE_LENGTH
+                ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+
+    private static <R, T> Iterator<T> map(Iterator<R> rows, Function<R, T> mapper) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return mapper.apply(rows.next());
+            }
+        };
+    }
+
+    /**
+     * Reads rows ahead one chunk at a time so the company names of the whole chunk are resolved
+     * with a single query. A row that cannot be read, or that names an unknown customer, fails
+     * when it is returned, so the bulk writer rejects just that row.
+     */
+    private static final class CustomerResolvingIterator<R, T> implements Iterator<T> {
+
+        private final Iterator<R> rows;
+        private final Function<R, String> companyName;
+        private final BiFunction<R, Customer, T> toEntity;
+        private final Function<Collection<String>, Map<String, Long>> lookup;
+        // Rows read ahead, or the exception reading a row threw
+        private final Deque<Object> buffer = new ArrayDeque<>();
+        private Map<String, Long> customerIds = Map.of();
+        private RuntimeException readFailure;
+
+        private CustomerResolvingIterator(Iterator<R> rows, Function<R, String> companyName,
+                                          BiFunction<R, Customer, T> toEntity,
+                                          Function<Collection<String>, Map<String, Long>> lookup) {
+            this.rows = rows;
+            this.companyName = companyName;
+            this.toEntity = toEntity;
+            this.lookup = lookup;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (buffer.isEmpty() && readFailure == null) {
+                fill();
+            }
+            if (buffer.isEmpty() && readFailure != null) {
+                throw readFailure;
+            }
+            return !buffer.isEmpty();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object next = buffer.poll();
+            if (next instanceof RuntimeException) {
+                throw (RuntimeException) next;
+            }
+            R row = (R) next;
+            String name = companyName.apply(row);
+            Customer customer = null;
+            if (name != null) {
+                Long id = customerIds.get(name.toLowerCase(Locale.ROOT));
+                if (id == null) {
+                    throw new IllegalArgumentException("Unknown customer: " + name);
+                }
+                customer = new Customer();
+                customer.setId(id);
+            }
+            return toEntity.apply(row, customer);
+        }
+
+        private void fill() {
+            Set<String> names = new HashSet<>();
+            try {
+                while (buffer.size() < BulkWriter.CHUNK_SIZE && rows.hasNext()) {
+                    try {
+                        R row = rows.next();
+                        String name = companyName.apply(row);
+                        if (name != null) {
+                            names.add(name);
+                        }
+                        buffer.add(row);
+                    } catch (RuntimeException e) {
+                        buffer.add(e);
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Input is unreadable from here on; rows already buffered are still returned first
+                readFailure = e;
+            }
+            customerIds = names.isEmpty() ? Map.of() : lookup.apply(names);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import jakarta.persistence.Column;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies JSON Merge Patch documents (RFC 7396) to entities.
+ * <p>
+ * Only the members present in the patch are written and {@code null} clears a field, so once the entity is
+ * merged the dirty check (with {@code @DynamicUpdate}) updates just those columns. References to other
+ * entities are replaced rather than merged: {@code {"customer":{"id":2}}} links customer 2, as in a PUT
+ * body. Fields the server maintains (id, version, timestamps) are ignored.
+ */
+@Component
+@RequiredArgsConstructor
+public class MergePatcher {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private static final Set<String> SERVER_MANAGED = Set.of("id", "version", "createdAt", "updatedAt");
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes the members of {@code patch} onto {@code entity}.
+     *
+     * @throws IllegalArgumentException if the patch is not an object, does not bind to the entity, or
+     *                                  clears a mandatory column
+     */
+    public void apply(Object entity, JsonNode patch) {
+        if (!(patch instanceof ObjectNode)) {
+            throw new IllegalArgumentException("A merge patch must be a JSON object");
+        }
+        ObjectNode changes = ((ObjectNode) patch).deepCopy();
+        changes.remove(SERVER_MANAGED);
+        try {
+            objectMapper.readerForUpdating(entity).readValue(changes);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            // Reading a tree does no I/O
+            throw new UncheckedIOException(e);
+        }
+
+        // The columns would reject the null on flush; fail with the field name instead
+        Iterator<Map.Entry<String, JsonNode>> fields = changes.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                Field property = ReflectionUtils.findField(entity.getClass(), field.getKey());
+                Column column = property != null ? property.getAnnotation(Column.class) : null;
+                if (column != null && !column.nullable()) {
+                    throw new IllegalArgumentException(field.getKey() + " cannot be removed");
+                }
+            }
+        }
+    }
+}
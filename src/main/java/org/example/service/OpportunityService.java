@@ -1,68 +1,219 @@
 package org.example.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.BulkResult;
+import org.example.dto.OpportunityDto;
+import org.example.dto.OpportunityFilter;
+import org.example.dto.References;
 import org.example.model.Customer;
 import org.example.model.Opportunity;
 import org.example.repository.OpportunityRepository;
+import org.example.repository.SearchSpecifications;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class OpportunityService {
 
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
     private final OpportunityRepository opportunityRepository;
+    private final BulkWriter bulkWriter;
+    private final PipelineSummaryService pipelineSummaryService;
+    private final EntityManager entityManager;
+    private final ReferenceResolver referenceResolver;
+    private final MergePatcher mergePatcher;
+
+    public Slice<OpportunityDto> findOpportunitiesAfter(Long afterId, int limit) {
+        return opportunityRepository.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : 0L, PageRequest.of(0, limit))
+                .map(OpportunityDto::from);
+    }
+
+    /**
+     * Opportunities matching every criterion of the filter, with their customers.
+     */
+    public Page<OpportunityDto> searchOpportunities(OpportunityFilter filter, Pageable pageable) {
+        return opportunityRepository.findAll(SearchSpecifications.opportunities(filter), pageable)
+                .map(OpportunityDto::from);
+    }
 
-    public List<Opportunity> findAllOpportunities() {
-        return opportunityRepository.findAll();
+    public void forEachOpportunity(Consumer<? super OpportunityDto> action) {
+        try (Stream<Opportunity> opportunities = opportunityRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Opportunity> iterator = opportunities.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                action.accept(OpportunityDto.from(iterator.next()));
+                // Clear written rows periodically so the persistence context stays constant-size
+                if (++written % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
     }
 
     public Optional<Opportunity> findOpportunityById(Long id) {
         return opportunityRepository.findById(id);
     }
 
-    public List<Opportunity> findOpportunitiesByCustomer(Customer customer) {
-        return opportunityRepository.findByCustomer(customer);
+    public List<OpportunityDto> findOpportunitiesByCustomer(Customer customer) {
+        return opportunityRepository.findByCustomer(customer).stream()
+                .map(OpportunityDto::from)
+                .collect(Collectors.toList());
     }
 
-    public List<Opportunity> findOpportunitiesByStatus(String status) {
-        return opportunityRepository.findByStatus(status);
+    public List<OpportunityDto> findOpportunitiesByStatus(String status) {
+        return opportunityRepository.findByStatus(status).stream()
+                .map(OpportunityDto::from)
+                .collect(Collectors.toList());
     }
 
-    public List<Opportunity> findOpportunitiesByStage(String stage) {
-        return opportunityRepository.findByStage(stage);
+    public List<OpportunityDto> findOpportunitiesByStage(String stage) {
+        return opportunityRepository.findByStage(stage).stream()
+                .map(OpportunityDto::from)
+                .collect(Collectors.toList());
     }
 
-    public List<Opportunity> findOpportunitiesByCustomerAndStatus(Customer customer, String status) {
-        return opportunityRepository.findByCustomerAndStatus(customer, status);
+    public List<OpportunityDto> findOpportunitiesByCustomerAndStatus(Customer customer, String status) {
+        return opportunityRepository.findByCustomerAndStatus(customer, status).stream()
+                .map(OpportunityDto::from)
+                .collect(Collectors.toList());
     }
 
-    public List<Opportunity> findOpportunitiesClosingBetween(LocalDate startDate, LocalDate endDate) {
-        return opportunityRepository.findByClosingDateBetween(startDate, endDate);
+    public List<OpportunityDto> findOpportunitiesClosingBetween(LocalDate startDate, LocalDate endDate) {
+        return opportunityRepository.findByClosingDateBetween(startDate, endDate).stream()
+                .map(OpportunityDto::from)
+                .collect(Collectors.toList());
     }
 
-    public List<Opportunity> findHighValueOpportunities(BigDecimal threshold) {
-        return opportunityRepository.findByAmountGreaterThan(threshold);
+    public List<OpportunityDto> findHighValueOpportunities(BigDecimal threshold) {
+        return opportunityRepository.findByAmountGreaterThan(threshold).stream()
+                .map(OpportunityDto::from)
+                .collect(Collectors.toList());
     }
 
+    // Read from the maintained pipeline totals rather than summing the opportunities
     public BigDecimal calculateTotalOpportunityValueByStatus(String status) {
-        BigDecimal total = opportunityRepository.calculateTotalAmountByStatus(status);
-        return total != null ? total : BigDecimal.ZERO;
+        return pipelineSummaryService.findTotalAmountByStatus(status);
     }
 
+    /**
+     * Inserts the opportunity; the customer given by id is linked without loading it.
+     */
     @Transactional
-    public Opportunity saveOpportunity(Opportunity opportunity) {
-        return opportunityRepository.save(opportunity);
+    public Opportunity createOpportunity(Opportunity opportunity) {
+        return entityManager.merge(opportunity);
     }
 
+    /**
+     * Replaces the opportunity's fields in one load-and-write transaction; empty if it does not exist. With an
+     * {@code expectedVersion} the write fails with an optimistic lock conflict unless the opportunity still has it.
+     */
     @Transactional
-    public void deleteOpportunity(Long id) {
-        opportunityRepository.deleteById(id);
+    public Optional<Opportunity> updateOpportunity(Long id, Opportunity opportunity, Long expectedVersion) {
+        Opportunity existing = entityManager.find(Opportunity.class, id);
+        if (existing == null) {
+            return Optional.empty();
+        }
+        opportunity.setId(id);
+        opportunity.setVersion(expectedVersion != null ? expectedVersion : existing.getVersion());
+        opportunity.setCreatedAt(existing.getCreatedAt());
+        return Optional.of(entityManager.merge(opportunity));
+    }
+
+    /**
+     * Applies a JSON merge patch to the opportunity; empty if it does not exist. Only the patched columns are
+     * updated. With an {@code expectedVersion} the write fails with an optimistic lock conflict unless the
+     * opportunity still has it.
+     *
+     * @throws IllegalArgumentException if the patch is invalid or references a missing row
+     */
+    @Transactional
+    public Optional<OpportunityDto> patchOpportunity(Long id, JsonNode patch, Long expectedVersion) {
+        Opportunity opportunity = entityManager.find(Opportunity.class, id);
+        if (opportunity == null) {
+            return Optional.empty();
+        }
+        if (expectedVersion != null && expectedVersion != opportunity.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Opportunity.class, id);
+        }
+        // Patched detached, then merged like a PUT body: nothing is flushed before the references are checked
+        entityManager.detach(opportunity);
+        mergePatcher.apply(opportunity, patch);
+        References references = referenceResolver.resolve(opportunity.getCustomer());
+        if (!references.isComplete()) {
+            throw new IllegalArgumentException("Customer not found");
+        }
+        Opportunity patched = entityManager.merge(opportunity);
+        // Writes the row now so the returned version is the new one
+        entityManager.flush();
+        return Optional.of(OpportunityDto.from(patched, references));
+    }
+
+    /**
+     * Deletes the opportunity; false if it does not exist. With an {@code expectedVersion} the delete fails with an
+     * optimistic lock conflict unless the opportunity still has it.
+     */
+    @Transactional
+    public boolean deleteOpportunity(Long id, Long expectedVersion) {
+        Opportunity existing = entityManager.find(Opportunity.class, id);
+        if (existing == null) {
+            return false;
+        }
+        if (expectedVersion != null && expectedVersion != existing.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Opportunity.class, id);
+        }
+        entityManager.remove(existing);
+        return true;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult createOpportunities(Iterator<Opportunity> opportunities) {
+        return createOpportunities(opportunities, new BulkResult(), null);
+    }
+
+    /**
+     * Bulk create that continues the counts of {@code result} and records progress through
+     * {@code checkpoint}; used by resumable imports.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult createOpportunities(Iterator<Opportunity> opportunities, BulkResult result, BulkWriter.Checkpoint checkpoint) {
+        return bulkWriter.write(opportunities, opportunity -> {
+            bulkWriter.requireNoId(opportunity.getId());
+            entityManager.merge(opportunity);
+        }, result, checkpoint);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult updateOpportunities(Iterator<Opportunity> opportunities) {
+        return bulkWriter.write(opportunities, opportunity -> {
+            Opportunity existing = bulkWriter.findExisting(Opportunity.class, opportunity.getId());
+            opportunity.setCreatedAt(existing.getCreatedAt());
+            opportunity.setVersion(existing.getVersion());
+            entityManager.merge(opportunity);
+        });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult deleteOpportunities(Iterator<Long> ids) {
+        return bulkWriter.write(ids, id -> opportunityRepository.delete(bulkWriter.findExisting(Opportunity.class, id)));
     }
-}
\ No newline at end of file
+}
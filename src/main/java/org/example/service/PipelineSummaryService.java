@@ -0,0 +1,149 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.MonthlyTotal;
+import org.example.dto.PipelineDrift;
+import org.example.dto.PipelineSummaryDto;
+import org.example.dto.StatusTotal;
+import org.example.model.PipelineStatusTotal;
+import org.example.repository.PipelineStatusTotalRepository;
+import org.example.repository.PipelineSummaryRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the opportunity pipeline aggregates kept by {@link org.example.event.PipelineSummaryListener},
+ * and rebuilds them from the opportunities table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class PipelineSummaryService {
+
+    private final PipelineStatusTotalRepository statusTotalRepository;
+    private final PipelineSummaryRepository summaryRepository;
+    private final EntityManager entityManager;
+
+    public BigDecimal findTotalAmountByStatus(String status) {
+        return statusTotalRepository.findById(status)
+                .map(PipelineStatusTotal::getTotalAmount)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    public List<StatusTotal> findStatusTotals() {
+        return statusTotalRepository.findStatusTotals();
+    }
+
+    public List<MonthlyTotal> sumAmountByClosingMonth(String status) {
+        return summaryRepository.sumAmountByClosingMonth(status);
+    }
+
+    public List<PipelineSummaryDto> findByCustomer(Long customerId) {
+        return summaryRepository.findByCustomerId(customerId).stream()
+                .map(PipelineSummaryDto::from)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Recomputes both aggregate tables from the opportunities table and returns the number of
+     * status totals and buckets that were wrong. Runs nightly ({@code crm.pipeline.reconcile-cron}) to repair
+     * drift from changes that bypass Hibernate events, such as bulk SQL.
+     */
+    @Transactional
+    @Scheduled(cron = "${crm.pipeline.reconcile-cron}")
+    public PipelineDrift rebuild() {
+        // Writers update their status rows before their summary rows, so holding every status row
+        // makes concurrent opportunity writes wait until the rebuild commits; each change is then
+        // counted either here or by its own delta afterwards, never twice
+        Map<String, List<Object>> before = statusTotals("FOR UPDATE");
+        Map<List<Object>, List<Object>> bucketsBefore = buckets();
+
+        entityManager.createNativeQuery("DELETE FROM pipeline_summary").executeUpdate();
+        entityManager.createNativeQuery(
+                "INSERT INTO pipeline_summary (status, stage, customer_id, closing_month, opportunity_count, total_amount) " +
+                        "SELECT status, stage, customer_id, DATE_TRUNC('MONTH', closing_date), COUNT(*), COALESCE(SUM(amount), 0) " +
+                        "FROM opportunities GROUP BY status, stage, customer_id, DATE_TRUNC('MONTH', closing_date)")
+                .executeUpdate();
+        entityManager.createNativeQuery(
+                "MERGE INTO pipeline_status_totals t USING (" +
+                        "SELECT status, COUNT(*) AS opportunity_count, COALESCE(SUM(amount), 0) AS total_amount " +
+                        "FROM opportunities GROUP BY status) s ON t.status = s.status " +
+                        "WHEN MATCHED THEN UPDATE SET opportunity_count = s.opportunity_count, total_amount = s.total_amount " +
+                        "WHEN NOT MATCHED THEN INSERT (status, opportunity_count, total_amount) " +
+                        "VALUES (s.status, s.opportunity_count, s.total_amount)")
+                .executeUpdate();
+        // Rows are kept at zero rather than deleted, since writers may be waiting on them
+        entityManager.createNativeQuery(
+                "UPDATE pipeline_status_totals SET opportunity_count = 0, total_amount = 0 " +
+                        "WHERE status NOT IN (SELECT DISTINCT status FROM opportunities)")
+                .executeUpdate();
+
+        Map<String, List<Object>> after = statusTotals("");
+        Map<List<Object>, List<Object>> bucketsAfter = buckets();
+        int drifted = countDrifted(before, after);
+        int driftedBuckets = countDrifted(bucketsBefore, bucketsAfter);
+        if (drifted > 0 || driftedBuckets > 0) {
+            log.warn("Pipeline summary rebuilt; totals of {} status(es) had drifted: {} -> {}; {} bucket(s) had drifted",
+                    drifted, before, after, driftedBuckets);
+        } else {
+            log.info("Pipeline summary rebuilt; no drift");
+        }
+        return new PipelineDrift(drifted, driftedBuckets);
+    }
+
+    private static <K> int countDrifted(Map<K, List<Object>> before, Map<K, List<Object>> after) {
+        Set<K> keys = new HashSet<>(before.keySet());
+        keys.addAll(after.keySet());
+        return (int) keys.stream()
+                .filter(key -> !Objects.equals(normalized(before.get(key)), normalized(after.get(key))))
+                .count();
+    }
+
+    // Keyed by (status, stage, customer id, closing month); any of them may be null
+    private Map<List<Object>, List<Object>> buckets() {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                "SELECT status, stage, customer_id, closing_month, opportunity_count, total_amount FROM pipeline_summary")
+                .getResultList();
+        Map<List<Object>, List<Object>> buckets = new HashMap<>();
+        for (Object[] row : rows) {
+            Object customerId = row[2] != null ? ((Number) row[2]).longValue() : null;
+            buckets.put(Arrays.asList(row[0], row[1], customerId, row[3]), List.of(((Number) row[4]).longValue(), row[5]));
+        }
+        return buckets;
+    }
+
+    private Map<String, List<Object>> statusTotals(String lockClause) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                "SELECT status, opportunity_count, total_amount FROM pipeline_status_totals " + lockClause)
+                .getResultList();
+        Map<String, List<Object>> totals = new HashMap<>();
+        for (Object[] row : rows) {
+            totals.put((String) row[0], List.of(((Number) row[1]).longValue(), row[2]));
+        }
+        return totals;
+    }
+
+    // Missing rows and zero rows mean the same; BigDecimal scale must not count as a difference
+    private static List<Object> normalized(List<Object> total) {
+        if (total == null || (Long) total.get(0) == 0) {
+            return List.of(0L, BigDecimal.ZERO);
+        }
+        return List.of(total.get(0), ((BigDecimal) total.get(1)).stripTrailingZeros());
+    }
+}
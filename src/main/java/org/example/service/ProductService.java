@@ -1,52 +1,109 @@
 package org.example.service;
 
 import lombok.RequiredArgsConstructor;
+import org.example.config.CacheNames;
+import org.example.dto.BulkResult;
+import org.example.dto.ProductDto;
+import org.example.dto.ProductFilter;
 import org.example.model.Product;
 import org.example.repository.ProductRepository;
+import org.example.repository.SearchSpecifications;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ProductService {
 
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
     private final ProductRepository productRepository;
+    private final BulkWriter bulkWriter;
+    private final EntityManager entityManager;
+
+    @Cacheable(CacheNames.PRODUCTS)
+    public List<ProductDto> findAllProducts() {
+        return productRepository.findAll().stream()
+                .map(ProductDto::from)
+                .collect(Collectors.toList());
+    }
 
-    public List<Product> findAllProducts() {
-        return productRepository.findAll();
+    public Slice<ProductDto> findProductsAfter(Long afterId, int limit) {
+        return productRepository.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : 0L, PageRequest.of(0, limit))
+                .map(ProductDto::from);
+    }
+
+    public void forEachProduct(Consumer<? super ProductDto> action) {
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Product> iterator = products.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                action.accept(ProductDto.from(iterator.next()));
+                // Clear written rows periodically so the persistence context stays constant-size
+                if (++written % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
     }
 
     public Optional<Product> findProductById(Long id) {
         return productRepository.findById(id);
     }
 
-    public Optional<Product> findProductByCode(String code) {
-        return productRepository.findByCode(code);
+    @Cacheable(CacheNames.PRODUCT_BY_CODE)
+    public Optional<ProductDto> findProductByCode(String code) {
+        return productRepository.findByCode(code).map(ProductDto::from);
     }
 
-    public List<Product> findProductsByName(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name);
+    /**
+     * Products matching every criterion of the filter.
+     */
+    public Page<ProductDto> searchProducts(ProductFilter filter, Pageable pageable) {
+        return productRepository.findAll(SearchSpecifications.products(filter), pageable).map(ProductDto::from);
     }
 
-    public List<Product> findProductsByCategory(String category) {
-        return productRepository.findByCategory(category);
+    @Cacheable(CacheNames.PRODUCTS_BY_CATEGORY)
+    public List<ProductDto> findProductsByCategory(String category) {
+        return productRepository.findByCategory(category).stream()
+                .map(ProductDto::from)
+                .collect(Collectors.toList());
     }
 
-    public List<Product> findProductsByStatus(String status) {
-        return productRepository.findByStatus(status);
+    public List<ProductDto> findProductsByStatus(String status) {
+        return productRepository.findByStatus(status).stream()
+                .map(ProductDto::from)
+                .collect(Collectors.toList());
     }
 
-    public List<Product> findProductsUnderPrice(BigDecimal maxPrice) {
-        return productRepository.findByListPriceLessThan(maxPrice);
+    public List<ProductDto> findProductsUnderPrice(BigDecimal maxPrice) {
+        return productRepository.findByListPriceLessThan(maxPrice).stream()
+                .map(ProductDto::from)
+                .collect(Collectors.toList());
     }
 
-    public List<Product> findProductsInPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return productRepository.findByListPriceBetween(minPrice, maxPrice);
+    public List<ProductDto> findProductsInPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        return productRepository.findByListPriceBetween(minPrice, maxPrice).stream()
+                .map(ProductDto::from)
+                .collect(Collectors.toList());
     }
 
     public boolean isProductCodeTaken(String code) {
@@ -54,16 +111,52 @@ public class ProductService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PRODUCTS, CacheNames.PRODUCT_BY_CODE, CacheNames.PRODUCTS_BY_CATEGORY},
+            allEntries = true)
     public Product saveProduct(Product product) {
         return productRepository.save(product);
     }
 
+    /**
+     * Replaces the product's fields in one load-and-write transaction; empty if it does not exist. With an
+     * {@code expectedVersion} the write fails with an optimistic lock conflict unless the product still has it.
+     */
     @Transactional
-    public void deleteProduct(Long id) {
-        productRepository.deleteById(id);
+    @CacheEvict(cacheNames = {CacheNames.PRODUCTS, CacheNames.PRODUCT_BY_CODE, CacheNames.PRODUCTS_BY_CATEGORY},
+            allEntries = true)
+    public Optional<Product> updateProduct(Long id, Product product, Long expectedVersion) {
+        Product existing = entityManager.find(Product.class, id);
+        if (existing == null) {
+            return Optional.empty();
+        }
+        product.setId(id);
+        product.setVersion(expectedVersion != null ? expectedVersion : existing.getVersion());
+        product.setCreatedAt(existing.getCreatedAt());
+        return Optional.of(entityManager.merge(product));
     }
 
+    /**
+     * Deletes the product; false if it does not exist. With an {@code expectedVersion} the delete fails with
+     * an optimistic lock conflict unless the product still has it.
+     */
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PRODUCTS, CacheNames.PRODUCT_BY_CODE, CacheNames.PRODUCTS_BY_CATEGORY},
+            allEntries = true)
+    public boolean deleteProduct(Long id, Long expectedVersion) {
+        Product existing = entityManager.find(Product.class, id);
+        if (existing == null) {
+            return false;
+        }
+        if (expectedVersion != null && expectedVersion != existing.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, id);
+        }
+        entityManager.remove(existing);
+        return true;
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PRODUCTS, CacheNames.PRODUCT_BY_CODE, CacheNames.PRODUCTS_BY_CATEGORY},
+            allEntries = true)
     public Product updateProductStatus(Long id, String status) {
         Optional<Product> productOpt = productRepository.findById(id);
         if (productOpt.isPresent()) {
@@ -73,4 +166,36 @@ public class ProductService {
         }
         return null;
     }
-}
\ No newline at end of file
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = {CacheNames.PRODUCTS, CacheNames.PRODUCT_BY_CODE, CacheNames.PRODUCTS_BY_CATEGORY},
+            allEntries = true)
+    public BulkResult createProducts(Iterator<Product> products) {
+        return bulkWriter.write(products, product -> {
+            bulkWriter.requireNoId(product.getId());
+            if (isProductCodeTaken(product.getCode())) {
+                throw new IllegalArgumentException("Product code already exists: " + product.getCode());
+            }
+            entityManager.merge(product);
+        });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = {CacheNames.PRODUCTS, CacheNames.PRODUCT_BY_CODE, CacheNames.PRODUCTS_BY_CATEGORY},
+            allEntries = true)
+    public BulkResult updateProducts(Iterator<Product> products) {
+        return bulkWriter.write(products, product -> {
+            Product existing = bulkWriter.findExisting(Product.class, product.getId());
+            product.setVersion(existing.getVersion());
+            product.setCreatedAt(existing.getCreatedAt());
+            entityManager.merge(product);
+        });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = {CacheNames.PRODUCTS, CacheNames.PRODUCT_BY_CODE, CacheNames.PRODUCTS_BY_CATEGORY},
+            allEntries = true)
+    public BulkResult deleteProducts(Iterator<Long> ids) {
+        return bulkWriter.write(ids, id -> productRepository.delete(bulkWriter.findExisting(Product.class, id)));
+    }
+}
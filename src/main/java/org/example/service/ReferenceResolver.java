@@ -0,0 +1,97 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.ContactRef;
+import org.example.dto.CustomerRef;
+import org.example.dto.OpportunityRef;
+import org.example.dto.References;
+import org.example.model.Contact;
+import org.example.model.Customer;
+import org.example.model.Opportunity;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the customer, contact and opportunity ids of a row being written in one query.
+ * <p>
+ * The query also returns the fields the read models show for each reference, so the response
+ * can be built without loading the referenced entities. Writers then link the references by id
+ * ({@code merge} turns them into proxies); the foreign keys still reject a reference deleted in between.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReferenceResolver {
+
+    private final EntityManager entityManager;
+
+    public References resolve(Customer customer) {
+        return resolve(idOf(customer), null, null);
+    }
+
+    public References resolve(Customer customer, Contact contact, Opportunity opportunity) {
+        return resolve(idOf(customer), idOf(contact), idOf(opportunity));
+    }
+
+    private References resolve(Long customerId, Long contactId, Long opportunityId) {
+        References references = new References();
+        List<String> selects = new ArrayList<>(3);
+        if (customerId != null) {
+            selects.add("select 'customer', id, version, company_name, cast(null as varchar) from customers where id = :customerId");
+        }
+        if (contactId != null) {
+            selects.add("select 'contact', id, version, first_name, last_name from contacts where id = :contactId");
+        }
+        if (opportunityId != null) {
+            selects.add("select 'opportunity', id, version, name, cast(null as varchar) from opportunities where id = :opportunityId");
+        }
+        if (selects.isEmpty()) {
+            return references;
+        }
+
+        Query query = entityManager.createNativeQuery(String.join(" union all ", selects));
+        if (customerId != null) {
+            query.setParameter("customerId", customerId);
+        }
+        if (contactId != null) {
+            query.setParameter("contactId", contactId);
+        }
+        if (opportunityId != null) {
+            query.setParameter("opportunityId", opportunityId);
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        for (Object[] row : rows) {
+            Long id = ((Number) row[1]).longValue();
+            long version = ((Number) row[2]).longValue();
+            switch ((String) row[0]) {
+                case "customer":
+                    references.setCustomer(new CustomerRef(id, version, (String) row[3]));
+                    break;
+                case "contact":
+                    references.setContact(new ContactRef(id, version, (String) row[3], (String) row[4]));
+                    break;
+                default:
+                    references.setOpportunity(new OpportunityRef(id, version, (String) row[3]));
+                    break;
+            }
+        }
+        references.setComplete(rows.size() == selects.size());
+        return references;
+    }
+
+    private static Long idOf(Customer customer) {
+        return customer != null ? customer.getId() : null;
+    }
+
+    private static Long idOf(Contact contact) {
+        return contact != null ? contact.getId() : null;
+    }
+
+    private static Long idOf(Opportunity opportunity) {
+        return opportunity != null ? opportunity.getId() : null;
+    }
+}
@@ -0,0 +1,304 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.example.dto.SearchHit;
+import org.example.event.EntityChangedEvent;
+import org.example.model.Contact;
+import org.example.model.Customer;
+import org.example.model.Product;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory Lucene index over contacts, customers and products.
+ * <p>
+ * The index is rebuilt from the database at startup and kept current from
+ * {@link EntityChangedEvent}s once the writing transaction has committed. Every query term
+ * must match some field, either exactly or as a prefix (search-as-you-type); hits are ranked by
+ * BM25 weighted per field. Only when that finds nothing is the query repeated with fuzzy
+ * (small edit distance) matching.
+ * <p>
+ * Prefix and fuzzy matching run against a single catch-all field, so each term expands
+ * against one term dictionary instead of one per field.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    public static final String CONTACT = "contact";
+    public static final String CUSTOMER = "customer";
+    public static final String PRODUCT = "product";
+    public static final Set<String> TYPES = Set.of(CONTACT, CUSTOMER, PRODUCT);
+
+    private static final String KEY = "key";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String SUBTITLE = "subtitle";
+    private static final String ALL = "all";
+
+    // Searchable fields and their weight; names and codes outrank descriptive text
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            "name", 3.0f,
+            "code", 3.0f,
+            "email", 2.0f,
+            "title", 1.0f,
+            "industry", 1.0f,
+            "website", 1.0f,
+            "category", 1.0f,
+            "description", 0.5f);
+
+    private static final float PREFIX_WEIGHT = 0.8f;
+    private static final float FUZZY_WEIGHT = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_QUERY_TERMS = 8;
+
+    private final ContactService contactService;
+    private final CustomerService customerService;
+    private final ProductService productService;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final AtomicBoolean stale = new AtomicBoolean();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = new ByteBuffersDirectory();
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Replaces the index contents with the current database rows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() throws IOException {
+        long start = System.nanoTime();
+        writer.deleteAll();
+        contactService.forEachContact(contact -> add(contactDocument(contact.getId(), contact.getFirstName(),
+                contact.getLastName(), contact.getEmail(), contact.getTitle())));
+        customerService.forEachCustomer(customer -> add(customerDocument(customer.getId(), customer.getCompanyName(),
+                customer.getIndustry(), customer.getWebsite())));
+        productService.forEachProduct(product -> add(productDocument(product.getId(), product.getCode(),
+                product.getName(), product.getCategory(), product.getDescription())));
+        searcherManager.maybeRefreshBlocking();
+        stale.set(false);
+        log.info("Search index rebuilt with {} documents in {} ms",
+                writer.getDocStats().numDocs, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        Document document = toDocument(event.getEntity());
+        if (document == null) {
+            return;
+        }
+        Term key = new Term(KEY, document.get(KEY));
+        try {
+            if (event.getChangeType() == EntityChangedEvent.ChangeType.DELETED) {
+                writer.deleteDocuments(key);
+            } else {
+                writer.updateDocument(key, document);
+            }
+            stale.set(true);
+        } catch (IOException e) {
+            // The database change is already committed; a failed index write must not fail the request
+            log.error("Could not update search index for {}", key.text(), e);
+        }
+    }
+
+    public List<SearchHit> search(String text, Collection<String> types, int limit) throws IOException {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        if (stale.getAndSet(false)) {
+            searcherManager.maybeRefreshBlocking();
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(buildQuery(terms, types, false), limit);
+            if (topDocs.scoreDocs.length == 0 && terms.stream().anyMatch(term -> term.length() >= MIN_FUZZY_LENGTH)) {
+                topDocs = searcher.search(buildQuery(terms, types, true), limit);
+            }
+            StoredFields storedFields = searcher.storedFields();
+            List<SearchHit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                Document document = storedFields.document(scoreDoc.doc);
+                hits.add(new SearchHit(document.get(TYPE), document.getField(ID).numericValue().longValue(),
+                        document.get(TITLE), document.get(SUBTITLE), scoreDoc.score));
+            }
+            return hits;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private static Query buildQuery(List<String> terms, Collection<String> types, boolean fuzzy) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            FIELD_BOOSTS.forEach((field, boost) ->
+                    anyField.add(new BoostQuery(new TermQuery(new Term(field, term)), boost), BooleanClause.Occur.SHOULD));
+
+            Term allTerm = new Term(ALL, term);
+            if (term.length() >= MIN_PREFIX_LENGTH) {
+                anyField.add(new BoostQuery(new PrefixQuery(allTerm), PREFIX_WEIGHT), BooleanClause.Occur.SHOULD);
+            }
+            if (fuzzy && term.length() >= MIN_FUZZY_LENGTH) {
+                int maxEdits = term.length() >= 8 ? 2 : 1;
+                anyField.add(new BoostQuery(new FuzzyQuery(allTerm, maxEdits, 1), FUZZY_WEIGHT), BooleanClause.Occur.SHOULD);
+            }
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+
+        if (types != null && !types.isEmpty()) {
+            List<BytesRef> typeTerms = types.stream().map(BytesRef::new).collect(Collectors.toList());
+            query.add(new TermInSetQuery(TYPE, typeTerms), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        try (TokenStream tokens = analyzer.tokenStream("query", text)) {
+            CharTermAttribute termAttribute = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken() && terms.size() < MAX_QUERY_TERMS) {
+                terms.add(termAttribute.toString());
+            }
+            tokens.end();
+        }
+        return terms;
+    }
+
+    private void add(Document document) {
+        try {
+            writer.addDocument(document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Document toDocument(Object entity) {
+        if (entity instanceof Contact) {
+            Contact contact = (Contact) entity;
+            return contactDocument(contact.getId(), contact.getFirstName(), contact.getLastName(),
+                    contact.getEmail(), contact.getTitle());
+        }
+        if (entity instanceof Customer) {
+            Customer customer = (Customer) entity;
+            return customerDocument(customer.getId(), customer.getCompanyName(), customer.getIndustry(),
+                    customer.getWebsite());
+        }
+        if (entity instanceof Product) {
+            Product product = (Product) entity;
+            return productDocument(product.getId(), product.getCode(), product.getName(), product.getCategory(),
+                    product.getDescription());
+        }
+        return null;
+    }
+
+    private static Document contactDocument(Long id, String firstName, String lastName, String email, String title) {
+        String fullName = firstName + " " + lastName;
+        Document document = document(CONTACT, id, fullName, email);
+        text(document, "name", fullName);
+        text(document, "email", email);
+        text(document, "title", title);
+        return document;
+    }
+
+    private static Document customerDocument(Long id, String companyName, String industry, String website) {
+        Document document = document(CUSTOMER, id, companyName, industry);
+        text(document, "name", companyName);
+        text(document, "industry", industry);
+        text(document, "website", website);
+        return document;
+    }
+
+    private static Document productDocument(Long id, String code, String name, String category, String description) {
+        Document document = document(PRODUCT, id, name, code);
+        text(document, "code", code);
+        text(document, "name", name);
+        text(document, "category", category);
+        text(document, "description", description);
+        return document;
+    }
+
+    private static Document document(String type, Long id, String title, String subtitle) {
+        Document document = new Document();
+        document.add(new StringField(KEY, type + ":" + id, Field.Store.NO));
+        document.add(new StringField(TYPE, type, Field.Store.YES));
+        document.add(new StoredField(ID, id));
+        document.add(new StoredField(TITLE, title));
+        if (subtitle != null) {
+            document.add(new StoredField(SUBTITLE, subtitle));
+        }
+        return document;
+    }
+
+    private static void text(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.NO));
+            document.add(new TextField(ALL, value, Field.Store.NO));
+        }
+    }
+}
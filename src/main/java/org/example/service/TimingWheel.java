@@ -0,0 +1,145 @@
+package org.example.service;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel of {@code long} payloads keyed by an absolute tick number.
+ * <p>
+ * Three levels of {@value #SLOTS} slots cover {@value #SLOTS} ticks, {@value #SLOTS}² ticks and
+ * {@value #SLOTS}³ ticks ahead. A timer due within the first level sits in the slot of its tick; further
+ * ones sit in a coarser slot and move down a level each time the finer wheel completes a turn, so
+ * scheduling and expiring are constant time whatever the number of timers. Each timer is a single
+ * {@code long} in a slot array (the payload shifted above its tick offset within the slot), about
+ * eight bytes per timer plus array slack.
+ * <p>
+ * Timers cannot be cancelled; callers check an expired payload against the current state instead.
+ * Not thread-safe: one thread schedules and advances.
+ */
+public final class TimingWheel {
+
+    /**
+     * Receives every expired payload with the tick it was due at.
+     */
+    @FunctionalInterface
+    public interface ExpiryHandler {
+        void expired(long tick, long payload);
+    }
+
+    static final int SLOT_BITS = 8;
+    static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 3;
+    private static final int OFFSET_BITS = SLOT_BITS * (LEVELS - 1);
+    private static final long SLOT_MASK = SLOTS - 1;
+
+    /** How many ticks ahead of the current one a timer can be due. */
+    public static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    /** Largest payload that fits beside the tick offset. */
+    public static final long MAX_PAYLOAD = (1L << (Long.SIZE - 1 - OFFSET_BITS)) - 1;
+
+    private static final int INITIAL_SLOT_CAPACITY = 4;
+
+    private final long[][][] slots = new long[LEVELS][SLOTS][];
+    private final int[][] sizes = new int[LEVELS][SLOTS];
+    private long currentTick;
+    private long size;
+
+    public TimingWheel(long startTick) {
+        this.currentTick = startTick;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Number of timers not yet expired.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Adds a timer. One due at or before the current tick expires on the next {@link #advance};
+     * one more than {@link #SPAN} ticks ahead is rejected.
+     *
+     * @return false if {@code tick} is too far ahead
+     */
+    public boolean schedule(long tick, long payload) {
+        if (payload < 0 || payload > MAX_PAYLOAD) {
+            throw new IllegalArgumentException("payload out of range: " + payload);
+        }
+        if (tick - currentTick >= SPAN) {
+            return false;
+        }
+        place(Math.max(tick, currentTick + 1), payload);
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code tick}, handing every timer due up to and including it to
+     * {@code handler} in tick order.
+     */
+    public void advance(long tick, ExpiryHandler handler) {
+        while (currentTick < tick) {
+            currentTick++;
+            // Coarser slots whose span starts now are spread over the finer levels first
+            if ((currentTick & ((1L << (2 * SLOT_BITS)) - 1)) == 0) {
+                cascade(2, currentTick);
+            }
+            if ((currentTick & SLOT_MASK) == 0) {
+                cascade(1, currentTick);
+            }
+            int slot = (int) (currentTick & SLOT_MASK);
+            long[] entries = slots[0][slot];
+            int count = sizes[0][slot];
+            if (count == 0) {
+                continue;
+            }
+            slots[0][slot] = null;
+            sizes[0][slot] = 0;
+            size -= count;
+            for (int i = 0; i < count; i++) {
+                handler.expired(currentTick, entries[i] >>> OFFSET_BITS);
+            }
+        }
+    }
+
+    private void cascade(int level, long tick) {
+        int slot = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        long[] entries = slots[level][slot];
+        int count = sizes[level][slot];
+        if (count == 0) {
+            return;
+        }
+        slots[level][slot] = null;
+        sizes[level][slot] = 0;
+        long base = tick & -(1L << (SLOT_BITS * level));
+        long offsetMask = (1L << (SLOT_BITS * level)) - 1;
+        for (int i = 0; i < count; i++) {
+            long entry = entries[i];
+            place(base | (entry & offsetMask), entry >>> OFFSET_BITS);
+        }
+    }
+
+    private void place(long tick, long payload) {
+        long delta = tick - currentTick;
+        int level = delta < SLOTS ? 0 : delta < (long) SLOTS * SLOTS ? 1 : 2;
+        int shift = SLOT_BITS * level;
+        int slot = (int) ((tick >>> shift) & SLOT_MASK);
+        long entry = (payload << OFFSET_BITS) | (tick & ((1L << shift) - 1));
+
+        long[] entries = slots[level][slot];
+        int count = sizes[level][slot];
+        if (entries == null) {
+            entries = new long[INITIAL_SLOT_CAPACITY];
+            slots[level][slot] = entries;
+        } else if (count == entries.length) {
+            entries = Arrays.copyOf(entries, count + (count >> 1));
+            slots[level][slot] = entries;
+        }
+        entries[count] = entry;
+        sizes[level][slot] = count + 1;
+    }
+}
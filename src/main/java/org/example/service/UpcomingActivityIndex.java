@@ -0,0 +1,177 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.UpcomingActivitySettings;
+import org.example.dto.ScheduledActivity;
+import org.example.repository.ActivityRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * Planned activities scheduled within the next {@code crm.upcoming-activities.horizon}, held in memory in
+ * schedule order overall and per customer, so the next activities are picked without a query.
+ * <p>
+ * {@link org.example.event.UpcomingActivityListener} applies every committed activity insert, update and
+ * delete. A periodic reload moves the horizon forward and repairs changes made outside Hibernate (bulk
+ * SQL); changes that commit while it reads are replayed onto the reloaded entries. Activities beyond the
+ * horizon are left to the database: {@link #next} reports how far the returned list is complete.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UpcomingActivityIndex {
+
+    public static final String PLANNED = "Planned";
+
+    private static final Comparator<Entry> SCHEDULE_ORDER =
+            Comparator.comparing(Entry::getScheduledDate).thenComparing(Entry::getId);
+
+    private final ActivityRepository activityRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final UpcomingActivitySettings settings;
+
+    // Covers nothing until the first reload, so every lookup goes to the database
+    private volatile Snapshot snapshot = new Snapshot(LocalDateTime.MIN);
+
+    // Changes applied during a reload, replayed onto the reloaded snapshot; null outside a reload
+    private List<Consumer<Snapshot>> pendingChanges;
+
+    @Scheduled(fixedDelayString = "${crm.upcoming-activities.reload-interval}")
+    public void reload() {
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Snapshot loaded = new Snapshot(now.plus(settings.getHorizon()));
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            List<ScheduledActivity> schedules = transactionTemplate.execute(status ->
+                    activityRepository.findSchedules(PLANNED, now, loaded.coveredUntil));
+            schedules.forEach(schedule ->
+                    loaded.add(new Entry(schedule.getId(), schedule.getScheduledDate(), schedule.getCustomerId())));
+
+            synchronized (this) {
+                pendingChanges.forEach(change -> change.accept(loaded));
+                snapshot = loaded;
+            }
+            log.debug("Indexed {} upcoming activities until {}", loaded.byId.size(), loaded.coveredUntil);
+        } finally {
+            synchronized (this) {
+                pendingChanges = null;
+            }
+        }
+    }
+
+    /**
+     * Records the committed state of an inserted or updated activity.
+     */
+    public void put(Long id, LocalDateTime scheduledDate, String status, Long customerId) {
+        apply(snapshot -> {
+            snapshot.remove(id);
+            if (PLANNED.equals(status) && scheduledDate != null) {
+                snapshot.add(new Entry(id, scheduledDate, customerId));
+            }
+        });
+    }
+
+    /**
+     * Forgets a deleted activity.
+     */
+    public void remove(Long id) {
+        apply(snapshot -> snapshot.remove(id));
+    }
+
+    private synchronized void apply(Consumer<Snapshot> change) {
+        change.accept(snapshot);
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    /**
+     * The ids of up to {@code limit} planned activities scheduled after {@code after}, of one customer or of
+     * all (null), in schedule order. Fewer than {@code limit} ids means the index ran out: further activities
+     * can only be scheduled after {@link Upcoming#getCoveredUntil()}.
+     */
+    public Upcoming next(Long customerId, LocalDateTime after, int limit) {
+        Snapshot current = snapshot;
+        NavigableSet<Entry> entries = customerId == null ? current.all : current.byCustomer.get(customerId);
+        List<Long> ids = new ArrayList<>(Math.min(limit, 64));
+        if (entries != null) {
+            Iterator<Entry> iterator = entries.tailSet(new Entry(Long.MAX_VALUE, after, null), false).iterator();
+            while (ids.size() < limit && iterator.hasNext()) {
+                ids.add(iterator.next().getId());
+            }
+        }
+        return new Upcoming(ids, current.coveredUntil);
+    }
+
+    @Value
+    public static class Upcoming {
+        List<Long> ids;
+        LocalDateTime coveredUntil;
+    }
+
+    @Value
+    private static class Entry {
+        Long id;
+        LocalDateTime scheduledDate;
+        Long customerId;
+    }
+
+    /**
+     * The indexed entries of one horizon. Readers use it without locking; writers hold the index monitor.
+     */
+    private static final class Snapshot {
+        private final LocalDateTime coveredUntil;
+        private final NavigableSet<Entry> all = new ConcurrentSkipListSet<>(SCHEDULE_ORDER);
+        private final Map<Long, NavigableSet<Entry>> byCustomer = new ConcurrentHashMap<>();
+        private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+
+        private Snapshot(LocalDateTime coveredUntil) {
+            this.coveredUntil = coveredUntil;
+        }
+
+        private void add(Entry entry) {
+            if (entry.getScheduledDate().isAfter(coveredUntil)) {
+                return;
+            }
+            byId.put(entry.getId(), entry);
+            all.add(entry);
+            if (entry.getCustomerId() != null) {
+                byCustomer.computeIfAbsent(entry.getCustomerId(), id -> new ConcurrentSkipListSet<>(SCHEDULE_ORDER))
+                        .add(entry);
+            }
+        }
+
+        private void remove(Long id) {
+            Entry entry = byId.remove(id);
+            if (entry == null) {
+                return;
+            }
+            all.remove(entry);
+            if (entry.getCustomerId() != null) {
+                NavigableSet<Entry> entries = byCustomer.get(entry.getCustomerId());
+                if (entries != null) {
+                    entries.remove(entry);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+-- Baseline schema, equivalent to what Hibernate generated from the entities with ddl-auto=update
+
+CREATE TABLE customers (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    company_name VARCHAR(255) NOT NULL,
+    industry VARCHAR(255),
+    website VARCHAR(255),
+    status VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP
+);
+
+CREATE TABLE contacts (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    title VARCHAR(255),
+    email VARCHAR(255) NOT NULL,
+    phone VARCHAR(255),
+    mobile VARCHAR(255),
+    is_primary BOOLEAN NOT NULL,
+    notes VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    customer_id BIGINT,
+    CONSTRAINT fk_contacts_customer FOREIGN KEY (customer_id) REFERENCES customers (id)
+);
+
+CREATE TABLE opportunities (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    status VARCHAR(255) NOT NULL,
+    stage VARCHAR(255),
+    amount NUMERIC(10, 2),
+    closing_date DATE,
+    probability NUMERIC(19, 2),
+    notes VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    customer_id BIGINT,
+    CONSTRAINT fk_opportunities_customer FOREIGN KEY (customer_id) REFERENCES customers (id)
+);
+
+CREATE TABLE activities (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    description VARCHAR(2000),
+    scheduled_date TIMESTAMP,
+    completed_date TIMESTAMP,
+    status VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    customer_id BIGINT,
+    contact_id BIGINT,
+    opportunity_id BIGINT,
+    CONSTRAINT fk_activities_customer FOREIGN KEY (customer_id) REFERENCES customers (id),
+    CONSTRAINT fk_activities_contact FOREIGN KEY (contact_id) REFERENCES contacts (id),
+    CONSTRAINT fk_activities_opportunity FOREIGN KEY (opportunity_id) REFERENCES opportunities (id)
+);
+
+CREATE TABLE products (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(1000),
+    list_price NUMERIC(10, 2),
+    category VARCHAR(255),
+    status VARCHAR(255),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_products_code UNIQUE (code)
+);
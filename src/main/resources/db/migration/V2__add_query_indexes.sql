@@ -0,0 +1,41 @@
+-- Indexes matched to the repository query methods. The leading column of each index is the
+-- column the query filters (or sorts) on; QueryIndexVerifier checks this at startup.
+
+-- H2 has no expression indexes, so case-insensitive lookups go through generated lower-case columns
+ALTER TABLE customers ADD COLUMN company_name_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(company_name));
+ALTER TABLE contacts ADD COLUMN email_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(email));
+
+-- customers: findByStatus, findByIndustry, existsByCompanyNameIgnoreCase
+CREATE INDEX idx_customers_status ON customers (status);
+CREATE INDEX idx_customers_industry ON customers (industry);
+CREATE INDEX idx_customers_company_name_lower ON customers (company_name_lower);
+
+-- contacts: findByCustomer, findByCustomerAndIsPrimary, findByIsPrimaryTrue, findByEmailIgnoreCase
+CREATE INDEX idx_contacts_customer_primary ON contacts (customer_id, is_primary);
+CREATE INDEX idx_contacts_primary ON contacts (is_primary);
+CREATE INDEX idx_contacts_email_lower ON contacts (email_lower);
+
+-- opportunities: findByCustomer, findByCustomerAndStatus, findByStatus, calculateTotalAmountByStatus,
+-- sumAmountByClosingMonth, findByStage, findByAmountGreaterThan, findByClosingDateBetween
+CREATE INDEX idx_opportunities_customer_status ON opportunities (customer_id, status);
+CREATE INDEX idx_opportunities_status_closing_date ON opportunities (status, closing_date);
+CREATE INDEX idx_opportunities_stage ON opportunities (stage);
+CREATE INDEX idx_opportunities_amount ON opportunities (amount);
+CREATE INDEX idx_opportunities_closing_date ON opportunities (closing_date);
+
+-- activities: findByCustomer, findByCustomerAndType, findByContact, findByOpportunity, findByType,
+-- findByStatus, findByScheduledDateAfterAndStatusOrderByScheduledDateAsc, findByScheduledDateBetween,
+-- findTop10ByOrderByCreatedAtDesc
+CREATE INDEX idx_activities_customer_type ON activities (customer_id, type);
+CREATE INDEX idx_activities_contact ON activities (contact_id);
+CREATE INDEX idx_activities_opportunity ON activities (opportunity_id);
+CREATE INDEX idx_activities_type ON activities (type);
+CREATE INDEX idx_activities_status_scheduled_date ON activities (status, scheduled_date);
+CREATE INDEX idx_activities_scheduled_date ON activities (scheduled_date);
+CREATE INDEX idx_activities_created_at ON activities (created_at);
+
+-- products: findByCategory, findByStatus, findByListPriceLessThan, findByListPriceBetween
+-- (findByCode and existsByCode use the unique constraint on code)
+CREATE INDEX idx_products_category ON products (category);
+CREATE INDEX idx_products_status ON products (status);
+CREATE INDEX idx_products_list_price ON products (list_price);
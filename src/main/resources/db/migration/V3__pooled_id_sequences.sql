@@ -0,0 +1,22 @@
+-- Ids come from pooled sequences instead of identity columns, so Hibernate can assign ids
+-- without a round trip per insert and batch the inserts. Each sequence call reserves a block
+-- of 50 ids (allocationSize = 50 on the entities) and returns the highest id of the block,
+-- hence the restart values.
+
+CREATE SEQUENCE customers_seq START WITH 50 INCREMENT BY 50;
+CREATE SEQUENCE contacts_seq START WITH 50 INCREMENT BY 50;
+CREATE SEQUENCE opportunities_seq START WITH 50 INCREMENT BY 50;
+CREATE SEQUENCE activities_seq START WITH 50 INCREMENT BY 50;
+CREATE SEQUENCE products_seq START WITH 50 INCREMENT BY 50;
+
+ALTER SEQUENCE customers_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM customers);
+ALTER SEQUENCE contacts_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM contacts);
+ALTER SEQUENCE opportunities_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM opportunities);
+ALTER SEQUENCE activities_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM activities);
+ALTER SEQUENCE products_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM products);
+
+ALTER TABLE customers ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE contacts ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE opportunities ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE activities ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY;
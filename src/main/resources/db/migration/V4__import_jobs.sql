@@ -0,0 +1,34 @@
+-- CSV import jobs. rows_handled is the checkpoint: it is updated in the same transaction as the
+-- rows it covers, so an interrupted import resumes after the last committed chunk.
+
+CREATE SEQUENCE import_jobs_seq START WITH 50 INCREMENT BY 50;
+CREATE SEQUENCE import_job_errors_seq START WITH 50 INCREMENT BY 50;
+
+CREATE TABLE import_jobs (
+    id BIGINT PRIMARY KEY,
+    entity_type VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    file_name VARCHAR(255),
+    spool_file VARCHAR(1000) NOT NULL,
+    rows_handled INT NOT NULL,
+    rows_written INT NOT NULL,
+    rows_failed INT NOT NULL,
+    message VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+CREATE TABLE import_job_errors (
+    id BIGINT PRIMARY KEY,
+    job_id BIGINT NOT NULL,
+    row_index INT NOT NULL,
+    message VARCHAR(1000),
+    CONSTRAINT fk_import_job_errors_job FOREIGN KEY (job_id) REFERENCES import_jobs (id)
+);
+
+-- import_jobs: findByStatusIn (jobs to resume at startup)
+CREATE INDEX idx_import_jobs_status ON import_jobs (status);
+
+-- import_job_errors: findByJobIdOrderByRowIndexAsc
+CREATE INDEX idx_import_job_errors_job_row ON import_job_errors (job_id, row_index);
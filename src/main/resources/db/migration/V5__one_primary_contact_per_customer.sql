@@ -0,0 +1,13 @@
+-- At most one primary contact per customer. H2 has no partial indexes, so the unique index is on a
+-- generated column that holds the customer id for primary contacts and NULL (never a duplicate)
+-- for all others.
+
+-- Keep the oldest primary contact where earlier races left several
+UPDATE contacts c SET is_primary = FALSE
+WHERE c.is_primary AND c.customer_id IS NOT NULL
+  AND c.id > (SELECT MIN(p.id) FROM contacts p WHERE p.customer_id = c.customer_id AND p.is_primary);
+
+ALTER TABLE contacts ADD COLUMN primary_customer_id BIGINT
+    GENERATED ALWAYS AS (CASE WHEN is_primary THEN customer_id END);
+
+CREATE UNIQUE INDEX uk_contacts_primary_customer ON contacts (primary_customer_id);
@@ -0,0 +1,35 @@
+-- Opportunity pipeline aggregates. PipelineSummaryListener applies every opportunity insert, update
+-- and delete to them in the same transaction; PipelineSummaryService.rebuild() recomputes them.
+
+-- One row per status: constant-time totals for the dashboard and the value-by-status endpoint
+CREATE TABLE pipeline_status_totals (
+    status            VARCHAR(255)   NOT NULL PRIMARY KEY,
+    opportunity_count BIGINT         NOT NULL,
+    total_amount      DECIMAL(19, 2) NOT NULL
+);
+
+-- One row per status, stage, customer and closing month (first day of the month)
+CREATE TABLE pipeline_summary (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    status            VARCHAR(255)   NOT NULL,
+    stage             VARCHAR(255),
+    customer_id       BIGINT,
+    closing_month     DATE,
+    opportunity_count BIGINT         NOT NULL,
+    total_amount      DECIMAL(19, 2) NOT NULL,
+    -- Opportunities without stage, customer or closing date share one row per remaining key
+    CONSTRAINT uk_pipeline_summary_bucket UNIQUE NULLS NOT DISTINCT (status, stage, customer_id, closing_month)
+);
+
+CREATE INDEX idx_pipeline_summary_status_month ON pipeline_summary (status, closing_month);
+CREATE INDEX idx_pipeline_summary_customer ON pipeline_summary (customer_id);
+
+INSERT INTO pipeline_status_totals (status, opportunity_count, total_amount)
+SELECT status, COUNT(*), COALESCE(SUM(amount), 0)
+FROM opportunities
+GROUP BY status;
+
+INSERT INTO pipeline_summary (status, stage, customer_id, closing_month, opportunity_count, total_amount)
+SELECT status, stage, customer_id, DATE_TRUNC('MONTH', closing_date), COUNT(*), COALESCE(SUM(amount), 0)
+FROM opportunities
+GROUP BY status, stage, customer_id, DATE_TRUNC('MONTH', closing_date);
@@ -0,0 +1,10 @@
+-- Activity calendar and timeline queries page through activities in (scheduled_date, id) order, for all
+-- customers or one; the id column lets a keyset page start inside a run of equal timestamps without a sort.
+CREATE INDEX idx_activities_scheduled_date_id ON activities (scheduled_date, id);
+CREATE INDEX idx_activities_customer_scheduled_date ON activities (customer_id, scheduled_date, id);
+DROP INDEX idx_activities_scheduled_date;
+
+-- findTop10ByOrderByCreatedAtDesc: H2 only reads an index backwards for a descending sort when the
+-- index itself is descending; the ascending index made it scan and sort the whole table
+CREATE INDEX idx_activities_created_at_desc ON activities (created_at DESC);
+DROP INDEX idx_activities_created_at;
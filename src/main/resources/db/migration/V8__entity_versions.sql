@@ -0,0 +1,6 @@
+-- Optimistic locking: every write through JPA increments the row's version and fails if it changed since read
+ALTER TABLE customers ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE contacts ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE opportunities ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE activities ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE products ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,8 @@
+-- Replica lag: the primary writes the time to this row every check interval and each replica is read back to see
+-- which beat it has reached (see ReplicaMonitor)
+CREATE TABLE replication_heartbeat (
+    id INT PRIMARY KEY,
+    beat BIGINT NOT NULL
+);
+
+INSERT INTO replication_heartbeat (id, beat) VALUES (1, 0);
@@ -0,0 +1,72 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Startup regression check: starts the application with the {@code prod} profile in a new JVM and fails when
+ * the first {@code GET /api/products} does not succeed within the budget. The default budget leaves room for
+ * slow CI machines; tighten it for a known machine with {@code -Dcrm.startup.budget=PT20S} (ISO-8601).
+ * {@code crm-benchmarks}' StartupBenchmark measures the same interval in detail.
+ */
+class StartupTimeTest {
+
+    private static final Duration BUDGET = Duration.parse(System.getProperty("crm.startup.budget", "PT60S"));
+
+    @Test
+    void firstRequestOfProdProfileIsWithinBudget() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        // Devtools is on the test class path but not in the packaged application
+        List<String> command = List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Dspring.profiles.active=prod", "-Dspring.devtools.restart.enabled=false", "-cp", System.getProperty("java.class.path"),
+                CrmApplication.class.getName(), "--server.port=" + port, "--crm.reminders.enabled=false",
+                "--logging.level.root=WARN");
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products")).build();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            Duration elapsed;
+            while (true) {
+                elapsed = Duration.ofNanos(System.nanoTime() - started);
+                if (answers(client, request)) {
+                    break;
+                }
+                assertThat(process.isAlive()).as("application running").isTrue();
+                assertThat(elapsed).as("time to first request").isLessThanOrEqualTo(BUDGET);
+                Thread.sleep(50);
+            }
+            assertThat(elapsed).as("time to first request").isLessThanOrEqualTo(BUDGET);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static boolean answers(HttpClient client, HttpRequest request) throws InterruptedException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            // Not listening yet
+            return false;
+        }
+    }
+}
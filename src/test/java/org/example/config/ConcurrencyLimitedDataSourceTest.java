@@ -0,0 +1,51 @@
+package org.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitedDataSourceTest {
+
+    private static final Duration ACQUIRE_TIMEOUT = Duration.ofMillis(100);
+
+    private final ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:limiter-test;DB_CLOSE_DELAY=-1", "sa", ""), 1, ACQUIRE_TIMEOUT);
+
+    @Test
+    void callerTimesOutWhileAllPermitsAreTaken() throws Exception {
+        try (Connection ignored = dataSource.getConnection()) {
+            long started = System.nanoTime();
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(ACQUIRE_TIMEOUT);
+        }
+    }
+
+    @Test
+    void closingTheConnectionReleasesThePermit() throws Exception {
+        Connection first = dataSource.getConnection();
+        first.close();
+        assertThat(first.isClosed()).isTrue();
+
+        try (Connection second = dataSource.getConnection()) {
+            assertThat(second.isValid(1)).isTrue();
+        }
+    }
+
+    @Test
+    void closingTwiceReleasesThePermitOnce() throws Exception {
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        try (Connection ignored = dataSource.getConnection()) {
+            // A second release would have left a spare permit for this caller
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        }
+    }
+}
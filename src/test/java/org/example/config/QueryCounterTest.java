@@ -0,0 +1,60 @@
+package org.example.config;
+
+import lombok.RequiredArgsConstructor;
+import org.example.controller.QueryBudget;
+import org.example.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "crm.query-budget.strict=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(QueryCounterTest.CountingController.class)
+class QueryCounterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void strictModeFailsTheRequestOverItsBudget() {
+        assertThatThrownBy(() -> mockMvc.perform(get("/api/test/query-budget/two-statements")))
+                .hasRootCauseInstanceOf(QueryBudgetExceededException.class);
+    }
+
+    @Test
+    void strictModeLetsRequestsWithinTheirBudgetThrough() throws Exception {
+        mockMvc.perform(get("/api/test/query-budget/one-statement")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/customers/search").param("name", "budget")).andExpect(status().isOk());
+    }
+
+    // Outside the scanned components; only this test's context has it
+    @RestController
+    @RequiredArgsConstructor
+    static class CountingController {
+
+        private final CustomerRepository customerRepository;
+
+        @GetMapping("/api/test/query-budget/one-statement")
+        @QueryBudget(1)
+        long oneStatement() {
+            return customerRepository.count();
+        }
+
+        @GetMapping("/api/test/query-budget/two-statements")
+        @QueryBudget(1)
+        long twoStatements() {
+            return customerRepository.count() + customerRepository.count();
+        }
+    }
+}
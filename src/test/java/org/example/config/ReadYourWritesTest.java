@@ -0,0 +1,102 @@
+package org.example.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The replica is a database of its own with the schema but none of the primary's writes, so a read shows
+ * where it was routed: a new customer is only found on the primary.
+ */
+@SpringBootTest(properties = {
+        // A list is bound from one property source, so this replaces both of the profile's replicas
+        "crm.datasource.replicas[0].url=" + ReadYourWritesTest.REPLICA_URL,
+        "crm.datasource.replicas[0].username=sa",
+        "crm.datasource.replicas[0].password=password",
+        // The replica never catches up; keep it in the rotation anyway
+        "crm.datasource.max-replica-lag=1h"})
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "replicas"})
+class ReadYourWritesTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:crm-replica-test;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private String companyName;
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "password").locations("classpath:db/migration").load().migrate();
+    }
+
+    @BeforeEach
+    void awaitReplicas() throws SQLException, InterruptedException {
+        ReplicaRoutingDataSource routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!routing.getReplicas().stream().allMatch(ReplicaRoutingDataSource.Replica::isUsable)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(routing.getReplicas()).allMatch(ReplicaRoutingDataSource.Replica::isUsable);
+        companyName = "Routing " + System.nanoTime();
+    }
+
+    @Test
+    void writerReadsItsWriteFromThePrimary() throws Exception {
+        Cookie primaryUntil = mockMvc.perform(post("/api/customers").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"companyName\":\"" + companyName + "\",\"status\":\"Active\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWrites.COOKIE_NAME))
+                .andReturn().getResponse().getCookie(ReadYourWrites.COOKIE_NAME);
+
+        assertThat(matches(search().cookie(primaryUntil))).isEqualTo(1);
+        // Other clients, and this one once the window has passed, read from the stale replica
+        assertThat(matches(search())).isZero();
+        assertThat(matches(search().cookie(new Cookie(ReadYourWrites.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() - 1))))).isZero();
+    }
+
+    @Test
+    void readsDoNotPinTheClient() throws Exception {
+        mockMvc.perform(search())
+                .andExpect(status().isOk())
+                .andExpect(cookie().doesNotExist(ReadYourWrites.COOKIE_NAME));
+    }
+
+    private MockHttpServletRequestBuilder search() {
+        return get("/api/customers/search").param("name", companyName);
+    }
+
+    private int matches(MockHttpServletRequestBuilder request) throws Exception {
+        String response = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).size();
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EntityTagsTest {
+
+    private static final String MERGE_PATCH = "application/merge-patch+json";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long customerId;
+
+    @BeforeEach
+    void createCustomer() throws Exception {
+        customerId = create("/api/customers", "{\"companyName\":\"Tags " + System.nanoTime() + "\",\"status\":\"Active\"}");
+    }
+
+    @Test
+    void unchangedEntityIsNotModified() throws Exception {
+        String tag = eTag("/api/customers/" + customerId);
+
+        mockMvc.perform(get("/api/customers/{id}", customerId).header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isNotModified());
+
+        patchCustomer("{\"industry\":\"Retail\"}", null);
+        mockMvc.perform(get("/api/customers/{id}", customerId).header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void renamingTheCustomerChangesTheContactTag() throws Exception {
+        long contactId = create("/api/contacts", "{\"firstName\":\"Tag\",\"lastName\":\"Contact\",\"email\":\"tag."
+                + customerId + "@example.com\",\"customer\":{\"id\":" + customerId + "}}");
+        String tag = eTag("/api/contacts/" + contactId);
+
+        patchCustomer("{\"companyName\":\"Renamed " + System.nanoTime() + "\"}", null);
+
+        mockMvc.perform(get("/api/contacts/{id}", contactId).header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isOk());
+        assertThat(eTag("/api/contacts/" + contactId)).isNotEqualTo(tag);
+    }
+
+    @Test
+    void staleIfMatchFailsThePrecondition() throws Exception {
+        String stale = eTag("/api/customers/" + customerId);
+        String current = patchCustomer("{\"industry\":\"Retail\"}", stale).getHeader(HttpHeaders.ETAG);
+        assertThat(current).isNotEqualTo(stale);
+
+        mockMvc.perform(patch("/api/customers/{id}", customerId).contentType(MERGE_PATCH)
+                        .header(HttpHeaders.IF_MATCH, stale).content("{\"industry\":\"Energy\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/customers/{id}", customerId).header(HttpHeaders.IF_MATCH, stale))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete("/api/customers/{id}", customerId).header(HttpHeaders.IF_MATCH, current))
+                .andExpect(status().isNoContent());
+    }
+
+    private MockHttpServletResponse patchCustomer(String body, String ifMatch) throws Exception {
+        MockHttpServletRequestBuilder request = patch("/api/customers/{id}", customerId).contentType(MERGE_PATCH).content(body);
+        if (ifMatch != null) {
+            request.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+        return mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse();
+    }
+
+    private String eTag(String path) throws Exception {
+        String tag = mockMvc.perform(get(path)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(tag).isNotNull();
+        return tag;
+    }
+
+    private long create(String path, String body) throws Exception {
+        String response = mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.BulkResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BulkWriterTest {
+
+    private static final long UNKNOWN_CUSTOMER = 999_999_999L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long customerId;
+
+    @BeforeEach
+    void createCustomer() throws Exception {
+        String response = mockMvc.perform(post("/api/customers").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"companyName\":\"Bulk " + System.nanoTime() + "\",\"status\":\"Active\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        customerId = objectMapper.readTree(response).get("id").asLong();
+    }
+
+    @Test
+    void failedChunkIsRetriedRowByRow() throws Exception {
+        // Two chunks; the row with an unknown customer fails the flush of the second one
+        int rows = BulkWriter.CHUNK_SIZE + 200;
+        int failing = BulkWriter.CHUNK_SIZE + 100;
+        List<String> contacts = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            contacts.add(contact(i, i == failing ? UNKNOWN_CUSTOMER : customerId));
+        }
+
+        BulkResult result = createContacts("[" + String.join(",", contacts) + "]");
+
+        assertThat(result.getReceived()).isEqualTo(rows);
+        assertThat(result.getSucceeded()).isEqualTo(rows - 1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.isComplete()).isTrue();
+        assertThat(result.getErrors()).extracting(BulkResult.RowError::getIndex).containsExactly(failing);
+        assertThat(contactCount()).isEqualTo(rows - 1);
+    }
+
+    @Test
+    void unreadableRowIsReportedAndSkipped() throws Exception {
+        BulkResult result = createContacts("[" + contact(0, customerId) + ","
+                + "{\"firstName\":\"Bad\",\"lastName\":\"Row\",\"email\":\"bad@example.com\",\"customer\":{\"id\":\"not a number\"}},"
+                + contact(2, customerId) + "]");
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getSucceeded()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(BulkResult.RowError::getIndex).containsExactly(1);
+        assertThat(result.isComplete()).isTrue();
+        assertThat(contactCount()).isEqualTo(2);
+    }
+
+    @Test
+    void malformedInputKeepsTheRowsBeforeIt() throws Exception {
+        // Nothing after the second row can be read: the error is reported at the first row not read
+        BulkResult result = createContacts("[" + contact(0, customerId) + "," + contact(1, customerId) + " ; ]");
+
+        assertThat(result.isComplete()).isFalse();
+        assertThat(result.getSucceeded()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(BulkResult.RowError::getIndex).containsExactly(2);
+        assertThat(contactCount()).isEqualTo(2);
+    }
+
+    private BulkResult createContacts(String body) throws Exception {
+        String response = mockMvc.perform(post("/api/contacts/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, BulkResult.class);
+    }
+
+    private String contact(int index, long customer) {
+        return "{\"firstName\":\"Bulk\",\"lastName\":\"" + index + "\",\"email\":\"bulk" + index + "." + customerId
+                + "@example.com\",\"customer\":{\"id\":" + customer + "}}";
+    }
+
+    private int contactCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contacts WHERE customer_id = ?", Integer.class, customerId);
+    }
+}
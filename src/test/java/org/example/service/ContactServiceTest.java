@@ -0,0 +1,106 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.Contact;
+import org.example.model.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ContactServiceTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentPromotionsLeaveOnePrimaryContact() throws Exception {
+        Customer customer = createCustomer();
+        List<Long> contactIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            contactIds.add(createContact(customer, i, false).getId());
+        }
+        JsonNode promote = objectMapper.readTree("{\"isPrimary\":true}");
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> promotions = new ArrayList<>();
+            for (Long contactId : contactIds) {
+                promotions.add(executor.submit((Callable<Object>) () -> {
+                    start.await();
+                    return contactService.patchContact(contactId, promote, null);
+                }));
+            }
+            start.countDown();
+            for (Future<?> promotion : promotions) {
+                promotion.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Long> primaries = jdbcTemplate.queryForList(
+                "SELECT id FROM contacts WHERE customer_id = ? AND is_primary", Long.class, customer.getId());
+        assertThat(primaries).hasSize(1);
+        assertThat(contactIds).contains(primaries.get(0));
+    }
+
+    @Test
+    void uniqueIndexRejectsSecondPrimaryContact() {
+        Customer customer = createCustomer();
+        createContact(customer, 0, true);
+
+        // Straight to the table, past the service's demotion
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO contacts (id, first_name, last_name, email, is_primary, created_at, customer_id) " +
+                        "VALUES (NEXT VALUE FOR contacts_seq, 'Second', 'Primary', ?, TRUE, CURRENT_TIMESTAMP, ?)",
+                "second." + customer.getId() + "@example.com", customer.getId()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private Customer createCustomer() {
+        Customer customer = new Customer();
+        customer.setCompanyName("Primary Contacts " + System.nanoTime());
+        customer.setStatus("Active");
+        return customerService.saveCustomer(customer);
+    }
+
+    private Contact createContact(Customer customer, int index, boolean primary) {
+        Contact contact = new Contact();
+        contact.setFirstName("Contact");
+        contact.setLastName(String.valueOf(index));
+        contact.setEmail("contact" + index + "." + customer.getId() + "@example.com");
+        contact.setPrimary(primary);
+        contact.setCustomer(customer);
+        return contactService.createContact(contact);
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.service;
+
+import org.example.config.ForecastSettings;
+import org.example.dto.Forecast;
+import org.example.model.Customer;
+import org.example.model.Opportunity;
+import org.example.repository.OpportunityRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ForecastServiceTest {
+
+    private static final String[] STAGES = {"Qualification", "Proposal", "Negotiation"};
+
+    // Months no other test closes opportunities in
+    private static final LocalDate FROM = LocalDate.of(2031, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2031, 6, 30);
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private OpportunityService opportunityService;
+
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void seedGivesTheSameForecastWithAnyParallelism() {
+        createOpportunities(200);
+
+        List<Forecast> forecasts = new ArrayList<>();
+        for (int parallelism : new int[]{1, 3, 8}) {
+            ForecastSettings settings = new ForecastSettings();
+            settings.setParallelism(parallelism);
+            ForecastService forecastService = new ForecastService(opportunityRepository, transactionManager, settings);
+            forecastService.open();
+            try {
+                forecasts.add(forecastService.forecast(FROM, TO, 5000, 0.9, 5, 42L));
+            } finally {
+                forecastService.close();
+            }
+        }
+
+        assertThat(forecasts.get(0).getTotal().getOpportunityCount()).isEqualTo(200);
+        assertThat(forecasts.get(0).getTotal().getLowerBound())
+                .isLessThan(forecasts.get(0).getTotal().getUpperBound());
+        assertThat(forecasts).allSatisfy(forecast -> assertThat(forecast).isEqualTo(forecasts.get(0)));
+    }
+
+    private void createOpportunities(int count) {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Customer customer = new Customer();
+            customer.setCompanyName("Forecast " + System.nanoTime());
+            customer.setStatus("Active");
+            customers.add(customerService.saveCustomer(customer));
+        }
+        for (int i = 0; i < count; i++) {
+            Opportunity opportunity = new Opportunity();
+            opportunity.setName("Forecast " + i);
+            opportunity.setStatus("Qualified");
+            opportunity.setStage(STAGES[i % STAGES.length]);
+            opportunity.setAmount(BigDecimal.valueOf(1000 + 37L * i));
+            opportunity.setProbability(BigDecimal.valueOf(5 + i % 90));
+            opportunity.setClosingDate(FROM.plusDays(i % 180));
+            opportunity.setCustomer(customers.get(i % customers.size()));
+            opportunityService.createOpportunity(opportunity);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.service;
+
+import org.example.config.ImportSettings;
+import org.example.dto.BulkResult;
+import org.example.dto.ImportJobDto;
+import org.example.model.ImportJob;
+import org.example.repository.ImportJobRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportServiceTest {
+
+    private static final int ROWS = 1500;
+    private static final int CHECKPOINT = BulkWriter.CHUNK_SIZE;
+    private static final int REJECTED_ROW = 1200;
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private ImportSettings importSettings;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void failedImportResumesAfterItsCheckpoint() throws Exception {
+        String prefix = "Import " + System.nanoTime() + " ";
+        List<String> lines = new ArrayList<>();
+        lines.add("companyName,status");
+        for (int i = 0; i < ROWS; i++) {
+            // A row without a status is rejected by the table
+            lines.add(prefix + i + "," + (i == REJECTED_ROW ? "" : "Active"));
+        }
+        Path spoolFile = Files.createTempFile(importSettings.getSpoolDirectory(), "customers-", ".csv");
+        Files.write(spoolFile, lines);
+
+        // A job that failed after committing its first chunk; those rows are not in the table, so
+        // anything rewritten from before the checkpoint would show up
+        ImportJob job = new ImportJob();
+        job.setEntityType(ImportService.CUSTOMERS);
+        job.setStatus(ImportJob.FAILED);
+        job.setSpoolFile(spoolFile.toString());
+        job.setRowsHandled(CHECKPOINT);
+        job.setRowsWritten(CHECKPOINT);
+        job = importJobRepository.save(job);
+
+        assertThat(importService.resume(job.getId())).isTrue();
+        ImportJobDto finished = awaitFinished(job.getId());
+
+        assertThat(finished.getStatus()).isEqualTo(ImportJob.COMPLETED);
+        assertThat(finished.getRowsHandled()).isEqualTo(ROWS);
+        assertThat(finished.getRowsWritten()).isEqualTo(ROWS - 1);
+        assertThat(finished.getRowsFailed()).isEqualTo(1);
+        assertThat(importService.findErrors(job.getId(), 10))
+                .extracting(BulkResult.RowError::getIndex).containsExactly(REJECTED_ROW);
+
+        List<String> imported = jdbcTemplate.queryForList(
+                "SELECT company_name FROM customers WHERE company_name LIKE ?", String.class, prefix + "%");
+        assertThat(imported).hasSize(ROWS - CHECKPOINT - 1)
+                .doesNotContain(prefix + (CHECKPOINT - 1), prefix + REJECTED_ROW)
+                .contains(prefix + CHECKPOINT, prefix + (ROWS - 1));
+        assertThat(spoolFile).doesNotExist();
+
+        // Only failed jobs are resumed
+        assertThat(importService.resume(job.getId())).isFalse();
+    }
+
+    private ImportJobDto awaitFinished(Long jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        ImportJobDto job = importService.findJob(jobId).orElseThrow();
+        while (job.getFinishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            job = importService.findJob(jobId).orElseThrow();
+        }
+        return job;
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.config.QueryCounter;
+import org.example.config.RequestQueries;
+import org.example.dto.CustomerDto;
+import org.example.model.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MergePatcherTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Customer customer;
+
+    @BeforeEach
+    void createCustomer() {
+        customer = new Customer();
+        customer.setCompanyName("Patch " + System.nanoTime());
+        customer.setIndustry("Retail");
+        customer.setWebsite("https://patch.example.com");
+        customer.setStatus("Active");
+        customer = customerService.saveCustomer(customer);
+    }
+
+    @Test
+    void updateWritesOnlyThePatchedColumns() throws Exception {
+        queryCounter.start();
+        try {
+            customerService.patchCustomer(customer.getId(), objectMapper.readTree("{\"industry\":\"Energy\"}"), null);
+        } finally {
+            RequestQueries queries = queryCounter.stop();
+            List<String> updates = queries.repeatedMoreThan(0).stream()
+                    .map(statement -> statement.getSql().toLowerCase(Locale.ROOT))
+                    .filter(sql -> sql.startsWith("update customers"))
+                    .toList();
+            assertThat(updates).singleElement().satisfies(sql -> assertThat(sql)
+                    .contains("industry")
+                    .doesNotContain("company_name", "website", "status"));
+        }
+    }
+
+    @Test
+    void untouchedColumnsKeepConcurrentChanges() throws Exception {
+        // Written behind Hibernate's back without a version bump, as by a column-level writer
+        jdbcTemplate.update("UPDATE customers SET website = ? WHERE id = ?", "https://changed.example.com", customer.getId());
+
+        CustomerDto patched = customerService.patchCustomer(customer.getId(),
+                objectMapper.readTree("{\"industry\":\"Energy\"}"), null).orElseThrow();
+
+        assertThat(patched.getVersion()).isEqualTo(customer.getVersion() + 1);
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT industry, website FROM customers WHERE id = ?", customer.getId());
+        assertThat(row.get("INDUSTRY")).isEqualTo("Energy");
+        assertThat(row.get("WEBSITE")).isEqualTo("https://changed.example.com");
+    }
+
+    @Test
+    void nullClearsOptionalColumnsOnly() throws Exception {
+        customerService.patchCustomer(customer.getId(), objectMapper.readTree("{\"website\":null}"), null);
+        assertThat(jdbcTemplate.queryForObject("SELECT website FROM customers WHERE id = ?", String.class, customer.getId()))
+                .isNull();
+
+        assertThatThrownBy(() -> customerService.patchCustomer(customer.getId(),
+                objectMapper.readTree("{\"companyName\":null}"), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("companyName");
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.PipelineDrift;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PipelineSummaryServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PipelineSummaryService pipelineSummaryService;
+
+    private long customerId;
+    private long opportunityId;
+
+    @BeforeEach
+    void createOpportunity() throws Exception {
+        customerId = create("/api/customers", "{\"companyName\":\"Pipeline " + System.nanoTime() + "\",\"status\":\"Active\"}");
+        opportunityId = create("/api/opportunities", "{\"name\":\"Deal\",\"status\":\"Closed Won\",\"stage\":\"Proposal\","
+                + "\"amount\":100,\"closingDate\":\"2026-11-10\",\"customer\":{\"id\":" + customerId + "}}");
+        // Start from summaries that match the table, whatever earlier tests left behind
+        pipelineSummaryService.rebuild();
+    }
+
+    @Test
+    void bucketMoveWithoutStatusChangeIsWritten() throws Exception {
+        mockMvc.perform(patch("/api/opportunities/{id}", opportunityId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"stage\":\"Negotiation\",\"closingDate\":\"2027-03-05\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(bucketMonths()).containsExactly(LocalDate.of(2027, 3, 1));
+        assertThat(pipelineSummaryService.rebuild()).isEqualTo(new PipelineDrift(0, 0));
+    }
+
+    @Test
+    void rebuildReportsDriftedBuckets() {
+        jdbcTemplate.update("UPDATE pipeline_summary SET closing_month = DATE '2000-01-01' WHERE customer_id = ?", customerId);
+
+        // The moved row is counted where it was missing and where it was extra
+        assertThat(pipelineSummaryService.rebuild()).isEqualTo(new PipelineDrift(0, 2));
+        assertThat(bucketMonths()).containsExactly(LocalDate.of(2026, 11, 1));
+    }
+
+    private List<LocalDate> bucketMonths() {
+        return jdbcTemplate.queryForList("SELECT closing_month FROM pipeline_summary WHERE customer_id = ? AND opportunity_count > 0", Date.class, customerId)
+                .stream().map(Date::toLocalDate).toList();
+    }
+
+    private long create(String path, String body) throws Exception {
+        String response = mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode created = objectMapper.readTree(response);
+        return created.get("id").asLong();
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimingWheelTest {
+
+    private static final long LEVEL_1 = TimingWheel.SLOTS;
+    private static final long LEVEL_2 = (long) TimingWheel.SLOTS * TimingWheel.SLOTS;
+
+    @Test
+    void timersFireOnTheirTickAcrossLevelBoundaries() {
+        // Not aligned to any level, so the cascades happen part way through each timer's span
+        long start = 3 * LEVEL_2 + 5 * LEVEL_1 + 7;
+        long[] ticks = {
+                start + 1, start + LEVEL_1 - 1, start + LEVEL_1, start + LEVEL_1 + 1,
+                alignUp(start, LEVEL_1), alignUp(start, LEVEL_1) + LEVEL_1 - 1,
+                start + LEVEL_2 - 1, start + LEVEL_2, start + LEVEL_2 + 1,
+                alignUp(start, LEVEL_2), alignUp(start, LEVEL_2) - 1, alignUp(start, LEVEL_2) + LEVEL_1,
+                start + TimingWheel.SPAN - 1};
+        TimingWheel wheel = new TimingWheel(start);
+        for (int i = 0; i < ticks.length; i++) {
+            assertThat(wheel.schedule(ticks[i], i)).isTrue();
+        }
+
+        List<long[]> expired = new ArrayList<>();
+        wheel.advance(start + TimingWheel.SPAN, (tick, payload) -> expired.add(new long[]{tick, payload}));
+
+        assertThat(expired).hasSize(ticks.length);
+        for (long[] timer : expired) {
+            assertThat(timer[0]).isEqualTo(ticks[(int) timer[1]]);
+        }
+        assertThat(expired).isSortedAccordingTo((a, b) -> Long.compare(a[0], b[0]));
+    }
+
+    @Test
+    void pastTimersExpireOnTheNextTick() {
+        long start = LEVEL_2 - 2;
+        TimingWheel wheel = new TimingWheel(start);
+        assertThat(wheel.schedule(start - LEVEL_2, 1)).isTrue();
+        assertThat(wheel.schedule(start, 2)).isTrue();
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(start + 1, (tick, payload) -> {
+            assertThat(tick).isEqualTo(start + 1);
+            expired.add(payload);
+        });
+
+        assertThat(expired).containsExactly(1L, 2L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void timersAtOrBeyondTheSpanAreRejected() {
+        long start = 11;
+        TimingWheel wheel = new TimingWheel(start);
+
+        assertThat(wheel.schedule(start + TimingWheel.SPAN, 1)).isFalse();
+        assertThat(wheel.schedule(start + 2 * TimingWheel.SPAN, 2)).isFalse();
+        assertThat(wheel.schedule(start + TimingWheel.SPAN - 1, 3)).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThatThrownBy(() -> wheel.schedule(start + 1, TimingWheel.MAX_PAYLOAD + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(start + TimingWheel.SPAN, (tick, payload) -> expired.add(payload));
+        assertThat(expired).containsExactly(3L);
+    }
+
+    @Test
+    void sizeCountsTimersNotYetExpired() {
+        long start = LEVEL_1 - 1;
+        TimingWheel wheel = new TimingWheel(start);
+        wheel.schedule(start + 1, 1);
+        wheel.schedule(start + 1, TimingWheel.MAX_PAYLOAD);
+        wheel.schedule(start + LEVEL_1 + 10, 3);
+        wheel.schedule(start + LEVEL_2 + 1, 4);
+        assertThat(wheel.size()).isEqualTo(4);
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(start + 1, (tick, payload) -> expired.add(payload));
+        assertThat(expired).containsExactly(1L, TimingWheel.MAX_PAYLOAD);
+        assertThat(wheel.size()).isEqualTo(2);
+
+        // Cascading a timer to a finer level does not count it twice
+        wheel.advance(start + LEVEL_1 + 5, (tick, payload) -> expired.add(payload));
+        assertThat(wheel.size()).isEqualTo(2);
+        wheel.advance(start + LEVEL_2, (tick, payload) -> expired.add(payload));
+        assertThat(wheel.size()).isEqualTo(1);
+        wheel.advance(start + LEVEL_2 + 1, (tick, payload) -> expired.add(payload));
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.getCurrentTick()).isEqualTo(start + LEVEL_2 + 1);
+        assertThat(expired).containsExactly(1L, TimingWheel.MAX_PAYLOAD, 3L, 4L);
+    }
+
+    private static long alignUp(long tick, long unit) {
+        return (tick / unit + 1) * unit;
+    }
+}